@@ -2,7 +2,11 @@ package com.visor.api_gateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -14,7 +18,17 @@ import java.util.Collections;
 public class ApiGatewayApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ApiGatewayApplication.class, args);
-
+		SpringApplication application = new SpringApplication(ApiGatewayApplication.class);
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		if (environment.matchesProfiles("fast-startup")) {
+			// read through the actuator startup endpoint
+			application.setApplicationStartup(new BufferingApplicationStartup(10000));
+		}
+		ConfigurableApplicationContext context = application.run(args);
+		// the CDS training run: -Dspring.context.exit=onRefresh would stop in the bootstrap context already
+		if (environment.getProperty("startup.exit-when-ready", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 }
@@ -0,0 +1,136 @@
+package com.visor.api_gateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Upstream calls currently in flight, used by {@link com.visor.api_gateway.filter.CoalesceRequestsGatewayFilterFactory}
+ * to let concurrent identical requests share one call.
+ *
+ * <p>The first request for a key leads a {@link Flight}; requests arriving while it runs, and no
+ * later than {@code gateway.coalescing.window-ms} after it started, follow it and receive a copy of
+ * its buffered response. A flight is dropped as soon as it completes, so nothing outlives the
+ * upstream call. At most {@code gateway.coalescing.max-flights} keys are tracked; beyond that,
+ * requests are proxied on their own. The share of requests served as followers is published as
+ * {@code gateway.coalescing.ratio}.
+ */
+@Component
+public class InFlightRequests {
+
+    private final ConcurrentHashMap<ResponseCache.Key, Flight> flights = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final int maxFlights;
+    private final int maxBodyBytes;
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public InFlightRequests(ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${gateway.coalescing.window-ms:500}") long windowMillis,
+                            @Value("${gateway.coalescing.max-flights:1024}") int maxFlights,
+                            @Value("${gateway.coalescing.max-body-bytes:262144}") int maxBodyBytes) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxFlights = maxFlights;
+        this.maxBodyBytes = maxBodyBytes;
+        meterRegistry.ifAvailable(this::bindTo);
+    }
+
+    /**
+     * Joins the flight for {@code key} or starts a new one; {@code null} when too many keys are
+     * already in flight.
+     */
+    public Slot acquire(ResponseCache.Key key) {
+        long now = System.nanoTime();
+        while (true) {
+            Flight current = flights.get(key);
+            if (current != null && now - current.startedAtNanos <= windowNanos) {
+                followers.increment();
+                return new Slot(current, false);
+            }
+            if (current == null && flights.size() >= maxFlights) {
+                bypassed.increment();
+                return null;
+            }
+            Flight flight = new Flight(key, now);
+            boolean installed = current == null
+                    ? flights.putIfAbsent(key, flight) == null
+                    : flights.replace(key, current, flight);
+            if (installed) {
+                leaders.increment();
+                return new Slot(flight, true);
+            }
+        }
+    }
+
+    public int maxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public double coalescingRatio() {
+        long followed = followers.sum();
+        long total = followed + leaders.sum() + bypassed.sum();
+        return total == 0 ? 0 : (double) followed / total;
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.coalescing.requests", leaders, LongAdder::sum).tag("role", "leader")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.requests", followers, LongAdder::sum).tag("role", "follower")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.requests", bypassed, LongAdder::sum).tag("role", "bypassed")
+                .register(registry);
+        Gauge.builder("gateway.coalescing.ratio", this, InFlightRequests::coalescingRatio).register(registry);
+        Gauge.builder("gateway.coalescing.in-flight", flights, ConcurrentHashMap::size).register(registry);
+    }
+
+    public record Slot(Flight flight, boolean leader) {
+    }
+
+    public record SharedResponse(int status, HttpHeaders headers, byte[] body) {
+    }
+
+    public final class Flight {
+
+        private final ResponseCache.Key key;
+        private final long startedAtNanos;
+        private final Sinks.One<SharedResponse> result = Sinks.one();
+
+        private Flight(ResponseCache.Key key, long startedAtNanos) {
+            this.key = key;
+            this.startedAtNanos = startedAtNanos;
+        }
+
+        /**
+         * The leader's response, or empty when the leader could not share it and followers have
+         * to make their own call.
+         */
+        public Mono<SharedResponse> result() {
+            return result.asMono();
+        }
+
+        public void complete(SharedResponse response) {
+            flights.remove(key, this);
+            result.tryEmitValue(response);
+        }
+
+        public void abandon() {
+            flights.remove(key, this);
+            result.tryEmitEmpty();
+        }
+    }
+}
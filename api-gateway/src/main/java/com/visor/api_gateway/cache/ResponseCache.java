@@ -0,0 +1,106 @@
+package com.visor.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded store of downstream responses used by {@link com.visor.api_gateway.filter.ResponseCacheGatewayFilterFactory}.
+ *
+ * <p>Entries are weighed by body size and expire after the freshness lifetime the service sent
+ * ({@code s-maxage} or {@code max-age}), capped at {@code gateway.response-cache.max-ttl-ms}. The
+ * whole cache is dropped on {@code bus-refresh}, so a refresh broadcast on the Kafka bus also
+ * invalidates cached responses on every gateway instance.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final Cache<Key, Entry> entries;
+    private final long maxEntryBytes;
+    private final long maxTtlNanos;
+
+    public ResponseCache(ObjectProvider<MeterRegistry> meterRegistry,
+                         @Value("${gateway.response-cache.max-bytes:16777216}") long maxBytes,
+                         @Value("${gateway.response-cache.max-entry-bytes:262144}") long maxEntryBytes,
+                         @Value("${gateway.response-cache.max-ttl-ms:300000}") long maxTtlMillis) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.body().length + 512)
+                .expireAfter(new FreshnessExpiry())
+                .recordStats()
+                .build();
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxTtlNanos = TimeUnit.MILLISECONDS.toNanos(maxTtlMillis);
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, entries, "gateway.responses"));
+    }
+
+    public Entry get(Key key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(Key key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    public long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public long maxTtlNanos() {
+        return maxTtlNanos;
+    }
+
+    @EventListener(RefreshRemoteApplicationEvent.class)
+    public void invalidateAll() {
+        log.info("Invalidating {} cached responses after bus refresh", entries.estimatedSize());
+        entries.invalidateAll();
+    }
+
+    /**
+     * Responses differ per route, path, query, caller role mask and whether the body is gzip
+     * encoded; nothing more specific than the role mask is used, so only routes whose responses do
+     * not depend on the individual caller should be cached.
+     */
+    public record Key(String routeId, String path, String query, String identityClass, boolean gzip) {
+    }
+
+    public record Entry(int status, HttpHeaders headers, byte[] body, String etag, long storedAtNanos,
+                        long ttlNanos) {
+
+        public long ageSeconds(long nowNanos) {
+            return TimeUnit.NANOSECONDS.toSeconds(nowNanos - storedAtNanos);
+        }
+    }
+
+    private static final class FreshnessExpiry implements Expiry<Key, Entry> {
+
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
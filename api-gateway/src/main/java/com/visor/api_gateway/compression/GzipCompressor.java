@@ -0,0 +1,117 @@
+package com.visor.api_gateway.compression;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip encoder backed by a pool of {@link Deflater}s, each with its own scratch buffer, so
+ * compressing a response allocates nothing but the output buffer (taken from the response's
+ * buffer factory, i.e. Netty's pool). Input is read straight from the body's byte buffers.
+ *
+ * <p>At most {@code gateway.compression.pool-size} deflaters are kept; when all are busy a
+ * temporary one is created and ended after use.
+ */
+@Component
+public class GzipCompressor implements DisposableBean {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int SCRATCH_BYTES = 8192;
+
+    private final BlockingQueue<Encoder> pool;
+    private final int level;
+
+    public GzipCompressor(@Value("${gateway.compression.level:6}") int level,
+                          @Value("${gateway.compression.pool-size:32}") int poolSize) {
+        this.level = level;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Gzips the readable bytes of {@code input} without consuming it. The caller owns, and must
+     * release, the returned buffer.
+     */
+    public DataBuffer compress(DataBuffer input, DataBufferFactory bufferFactory) {
+        Encoder encoder = borrow();
+        int size = input.readableByteCount();
+        DataBuffer output = bufferFactory.allocateBuffer(Math.max(256, size / 4));
+        try {
+            output.write(HEADER);
+            try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    ByteBuffer buffer = buffers.next();
+                    encoder.crc.update(buffer.duplicate());
+                    encoder.deflater.setInput(buffer);
+                    while (!encoder.deflater.needsInput()) {
+                        encoder.drainTo(output);
+                    }
+                }
+            }
+            encoder.deflater.finish();
+            while (!encoder.deflater.finished()) {
+                encoder.drainTo(output);
+            }
+            writeIntLittleEndian(output, (int) encoder.crc.getValue());
+            writeIntLittleEndian(output, size);
+            return output;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(output);
+            throw e;
+        } finally {
+            giveBack(encoder);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Encoder encoder;
+        while ((encoder = pool.poll()) != null) {
+            encoder.deflater.end();
+        }
+    }
+
+    private Encoder borrow() {
+        Encoder encoder = pool.poll();
+        return encoder != null ? encoder : new Encoder(level);
+    }
+
+    private void giveBack(Encoder encoder) {
+        encoder.deflater.reset();
+        encoder.crc.reset();
+        if (!pool.offer(encoder)) {
+            encoder.deflater.end();
+        }
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write((byte) value);
+        output.write((byte) (value >>> 8));
+        output.write((byte) (value >>> 16));
+        output.write((byte) (value >>> 24));
+    }
+
+    private static final class Encoder {
+
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] scratch = new byte[SCRATCH_BYTES];
+
+        private Encoder(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        private void drainTo(DataBuffer output) {
+            int written = deflater.deflate(scratch);
+            output.write(scratch, 0, written);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.visor.api_gateway.configuration;
+
+import com.visor.api_gateway.loadbalancer.LeastLoadedLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LeastLoadedLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
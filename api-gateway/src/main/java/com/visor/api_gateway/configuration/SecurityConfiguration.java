@@ -1,27 +1,66 @@
 package com.visor.api_gateway.configuration;
 
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoders;
+import org.springframework.security.oauth2.jwt.SupplierReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+
+import java.util.List;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfiguration {
 
+    /**
+     * {@code /<service-id>/actuator/**}: the discovery locator routes every registered service under its id,
+     * which would put the services' actuator endpoints, including the unauthenticated Prometheus scrape,
+     * on the public edge. Matched on the decoded path in any case, as the locator and the services match it.
+     */
+    static final ServerWebExchangeMatcher SERVICE_ACTUATOR = exchange -> {
+        List<String> segments = exchange.getRequest().getPath().pathWithinApplication().elements().stream()
+                .filter(PathContainer.PathSegment.class::isInstance)
+                .map(element -> ((PathContainer.PathSegment) element).valueToMatch())
+                .filter(segment -> !segment.isEmpty())
+                .toList();
+        return segments.size() >= 2 && "actuator".equalsIgnoreCase(segments.get(1))
+                ? MatchResult.match() : MatchResult.notMatch();
+    };
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity httpSecurity) {
         httpSecurity
-                .authorizeExchange(exchanges -> exchanges.anyExchange().permitAll())
+                .authorizeExchange(exchanges -> exchanges
+                        .matchers(SERVICE_ACTUATOR).denyAll()
+                        .anyExchange().permitAll())
 
                 //Only commented for portfolio, because this obligates to use authentication for all exchanges with swagger
 
                 //.authorizeExchange(exchanges -> exchanges.anyExchange().authenticated())
                 //.oauth2Login(Customizer.withDefaults())
+
+                // Bearer tokens are still verified here when present, so invalid tokens stop at the edge
+                // and the services can trust the signed identity headers (see IdentityEnrichmentFilter)
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
                 .csrf(ServerHttpSecurity.CsrfSpec::disable);
         return httpSecurity.build();
     }
+
+    /**
+     * Resolved lazily so startup does not depend on Keycloak being reachable.
+     */
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder(OAuth2ResourceServerProperties properties) {
+        String issuerUri = properties.getJwt().getIssuerUri();
+        return new SupplierReactiveJwtDecoder(() -> ReactiveJwtDecoders.fromIssuerLocation(issuerUri));
+    }
 }
 
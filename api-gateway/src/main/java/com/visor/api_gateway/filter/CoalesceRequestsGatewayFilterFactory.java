@@ -0,0 +1,182 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.cache.InFlightRequests;
+import com.visor.api_gateway.ratelimit.TokenBucketRateLimiter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Single-flight for the configured {@code GET} paths, e.g.
+ * {@code CoalesceRequests=/api/tests/passcode/{passcode}}: identical requests that arrive while one
+ * is already being proxied wait for it and get a copy of its response instead of calling the
+ * service themselves (see {@link InFlightRequests}). Requests are identical when route, path,
+ * query, role mask and gzip acceptance match, as for {@link ResponseCacheGatewayFilterFactory}, so
+ * the same caveat applies: only coalesce paths whose response does not depend on the individual
+ * caller. When the leader's response cannot be shared (too large, sets a cookie, failed or was
+ * cancelled) the followers are proxied on their own.
+ *
+ * <p>List it after {@code ResponseCache} on a route so cache hits never reach it. A route's
+ * {@code RequestRateLimiter} runs before both, so every follower is counted and keeps its own
+ * rate-limit headers rather than the leader's.
+ */
+@Component
+public class CoalesceRequestsGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalesceRequestsGatewayFilterFactory.Config> {
+
+    private static final Set<String> UNSHARED_HEADERS = Set.of(HttpHeaders.DATE, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, "X-Cache", TokenBucketRateLimiter.REMAINING_HEADER,
+            TokenBucketRateLimiter.REPLENISH_RATE_HEADER, TokenBucketRateLimiter.BURST_CAPACITY_HEADER,
+            HttpHeaders.RETRY_AFTER);
+
+    private final InFlightRequests inFlightRequests;
+
+    public CoalesceRequestsGatewayFilterFactory(InFlightRequests inFlightRequests) {
+        super(Config.class);
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("paths");
+    }
+
+    @Override
+    public ShortcutType shortcutType() {
+        return ShortcutType.GATHER_LIST;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET
+                    || !ResponseCacheGatewayFilterFactory.matches(config.getPaths(), request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+            return ResponseCacheGatewayFilterFactory.identityClass(exchange).flatMap(identityClass -> {
+                InFlightRequests.Slot slot = inFlightRequests.acquire(
+                        ResponseCacheGatewayFilterFactory.key(exchange, identityClass));
+                if (slot == null) {
+                    return chain.filter(exchange);
+                }
+                if (slot.leader()) {
+                    return lead(exchange, chain, slot.flight());
+                }
+                return slot.flight().result()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(shared -> shared.isPresent()
+                                ? writeShared(exchange, shared.get())
+                                : chain.filter(exchange));
+            });
+        };
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, InFlightRequests.Flight flight) {
+        SharingResponse response = new SharingResponse(exchange.getResponse(), flight);
+        return chain.filter(exchange.mutate().response(response).build())
+                // no-op once the response was shared; releases followers if it never was
+                .doFinally(signal -> flight.abandon());
+    }
+
+    private static Mono<Void> writeShared(ServerWebExchange exchange, InFlightRequests.SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(shared.status()));
+        response.getHeaders().addAll(shared.headers());
+        response.getHeaders().set("X-Coalesced", "true");
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    /**
+     * Copies the leader's body as it is written and hands it to the followers once complete.
+     */
+    private final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final InFlightRequests.Flight flight;
+
+        SharingResponse(ServerHttpResponse delegate, InFlightRequests.Flight flight) {
+            super(delegate);
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            int maxBodyBytes = inFlightRequests.maxBodyBytes();
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength > maxBodyBytes || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                flight.abandon();
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+            boolean[] overflow = {false};
+            Flux<? extends DataBuffer> copying = Flux.from(body).doOnNext(buffer -> {
+                if (overflow[0]) {
+                    return;
+                }
+                int readable = buffer.readableByteCount();
+                if (copy.size() + readable > maxBodyBytes) {
+                    overflow[0] = true;
+                    flight.abandon();
+                    return;
+                }
+                byte[] bytes = new byte[readable];
+                int position = buffer.readPosition();
+                buffer.read(bytes);
+                buffer.readPosition(position);
+                copy.writeBytes(bytes);
+            });
+            return super.writeWith(copying).doOnSuccess(done -> {
+                if (!overflow[0]) {
+                    flight.complete(snapshot(copy.toByteArray()));
+                }
+            });
+        }
+
+        private InFlightRequests.SharedResponse snapshot(byte[] body) {
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (UNSHARED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.addAll(name, values);
+                }
+            });
+            HttpStatusCode status = getStatusCode();
+            return new InFlightRequests.SharedResponse(status == null ? 200 : status.value(),
+                    HttpHeaders.readOnlyHttpHeaders(headers), body);
+        }
+    }
+
+    public static class Config {
+
+        private List<String> paths = List.of();
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+    }
+}
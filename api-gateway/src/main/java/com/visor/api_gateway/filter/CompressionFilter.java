@@ -0,0 +1,197 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.compression.GzipCompressor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Gzips proxied responses for clients that send {@code Accept-Encoding: gzip}. Only bodies of
+ * {@code gateway.compression.mime-types} (JSON and text by default, so images and other
+ * already-compressed content pass through) and of at least
+ * {@code gateway.compression.min-response-size} bytes are compressed; responses the service already
+ * encoded are left alone. Bytes saved are recorded per route as {@code gateway.compression.saved}.
+ *
+ * <p>Runs outside {@code ResponseCache} and {@code CoalesceRequests}, so those keep identity-encoded
+ * bodies and each client gets its own encoding.
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    private static final String GZIP = "gzip";
+
+    private final GzipCompressor compressor;
+    private final MeterRegistry meterRegistry;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+
+    @Autowired
+    public CompressionFilter(GzipCompressor compressor, ObjectProvider<MeterRegistry> meterRegistry,
+                             @Value("${gateway.compression.min-response-size:1024}") int minResponseSize,
+                             @Value("${gateway.compression.mime-types:application/json,application/*+json,application/xml,application/javascript,text/*}")
+                             String mimeTypes) {
+        this(compressor, meterRegistry.getIfAvailable(), minResponseSize, MediaType.parseMediaTypes(mimeTypes));
+    }
+
+    CompressionFilter(GzipCompressor compressor, MeterRegistry meterRegistry, int minResponseSize,
+                      List<MediaType> mimeTypes) {
+        this.compressor = compressor;
+        this.meterRegistry = meterRegistry;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD || !acceptsGzip(exchange.getRequest().getHeaders())) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new CompressingResponse(exchange)).build());
+    }
+
+    /**
+     * Outermost of the response-decorating filters, which all sit just before the Netty write.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    /**
+     * Whether gzip is listed, or covered by {@code *}, with a q-value above zero. The q-value is parsed
+     * as a number, so {@code gzip;q=0.0} and {@code gzip; q=0.00} refuse it as {@code gzip;q=0} does.
+     */
+    static boolean acceptsGzip(HttpHeaders headers) {
+        Double gzip = null;
+        Double any = null;
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase(GZIP)) {
+                    gzip = qValue(parts);
+                } else if (name.equals("*")) {
+                    any = qValue(parts);
+                }
+            }
+        }
+        return gzip != null ? gzip > 0 : any != null && any > 0;
+    }
+
+    /** The {@code q} parameter of a coding, 1 when absent and 0 when it is not a number. */
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] parameter = parts[i].split("=", 2);
+            if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter[1].trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean compressible(HttpHeaders headers, HttpStatusCode status) {
+        if ((status != null && (status.value() == 204 || status.value() == 304 || status.value() == 206))
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || headers.containsKey(HttpHeaders.CONTENT_RANGE)) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength >= 0 && contentLength < minResponseSize) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType != null && mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    private void recordSaved(ServerWebExchange exchange, long saved) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        DistributionSummary.builder("gateway.compression.saved")
+                .baseUnit("bytes")
+                .tag("route", route == null ? "none" : route.getId())
+                .register(meterRegistry)
+                .record(saved);
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        CompressingResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!compressible(getHeaders(), getStatusCode())) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(joined -> joined.isPresent() ? write(joined.get()) : super.writeWith(Mono.empty()));
+        }
+
+        private Mono<Void> write(DataBuffer original) {
+            int size = original.readableByteCount();
+            if (size < minResponseSize) {
+                return super.writeWith(Mono.just(original));
+            }
+            DataBuffer compressed;
+            try {
+                compressed = compressor.compress(original, bufferFactory());
+            } catch (RuntimeException e) {
+                DataBufferUtils.release(original);
+                return Mono.error(e);
+            }
+            int compressedSize = compressed.readableByteCount();
+            if (compressedSize >= size) {
+                DataBufferUtils.release(compressed);
+                return super.writeWith(Mono.just(original));
+            }
+            DataBufferUtils.release(original);
+
+            HttpHeaders headers = getHeaders();
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            headers.setContentLength(compressedSize);
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+            recordSaved(exchange, size - compressedSize);
+            return super.writeWith(Mono.just(compressed));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.identity.IdentityHeaders;
+import com.visor.api_gateway.identity.IdentityResolver;
+import com.visor.api_gateway.identity.RealmRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Forwards the identity of an authenticated caller to the services as signed headers: subject,
+ * role mask and the internal doctor / hospital id. Identity headers sent by the client are always
+ * removed. Without {@code gateway.identity.secret} the filter only strips them.
+ */
+@Component
+public class IdentityEnrichmentFilter implements GlobalFilter, Ordered {
+
+    private final IdentityResolver identityResolver;
+    private final IdentityHeaders identityHeaders;
+    private final Clock clock;
+
+    @Autowired
+    public IdentityEnrichmentFilter(IdentityResolver identityResolver,
+                                    @Value("${gateway.identity.secret:}") String secret) {
+        this(identityResolver, secret.isBlank() ? null : new IdentityHeaders(secret), Clock.systemUTC());
+    }
+
+    IdentityEnrichmentFilter(IdentityResolver identityResolver, IdentityHeaders identityHeaders, Clock clock) {
+        this.identityResolver = identityResolver;
+        this.identityHeaders = identityHeaders;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (identityHeaders == null) {
+            return chain.filter(withIdentity(exchange, null));
+        }
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .flatMap(principal -> enrich(exchange, ((JwtAuthenticationToken) principal).getToken()))
+                .switchIfEmpty(Mono.fromSupplier(() -> withIdentity(exchange, null)))
+                .flatMap(chain::filter);
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    private Mono<ServerWebExchange> enrich(ServerWebExchange exchange, Jwt jwt) {
+        int roles = RealmRole.mask(jwt);
+        return Mono.zip(resolve(RealmRole.DOCTOR, roles, jwt), resolve(RealmRole.HOSPITAL, roles, jwt))
+                .map(ids -> {
+                    Long doctorId = ids.getT1().orElse(null);
+                    Long hospitalId = ids.getT2().orElse(null);
+                    long timestamp = clock.millis();
+                    String signature = identityHeaders.sign(jwt.getSubject(), roles, doctorId, hospitalId,
+                            timestamp, jwt.getTokenValue());
+                    return withIdentity(exchange, headers -> {
+                        headers.set(IdentityHeaders.SUBJECT, jwt.getSubject());
+                        headers.set(IdentityHeaders.ROLES, Integer.toString(roles));
+                        if (doctorId != null) {
+                            headers.set(IdentityHeaders.DOCTOR_ID, doctorId.toString());
+                        }
+                        if (hospitalId != null) {
+                            headers.set(IdentityHeaders.HOSPITAL_ID, hospitalId.toString());
+                        }
+                        headers.set(IdentityHeaders.TIMESTAMP, Long.toString(timestamp));
+                        headers.set(IdentityHeaders.SIGNATURE, signature);
+                    });
+                });
+    }
+
+    private Mono<Optional<Long>> resolve(RealmRole role, int roles, Jwt jwt) {
+        if (!role.isIn(roles)) {
+            return Mono.just(Optional.empty());
+        }
+        return identityResolver.resolve(role, jwt.getSubject(), jwt.getTokenValue())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, Consumer<HttpHeaders> identity) {
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    List<String> forged = headers.keySet().stream()
+                            .filter(name -> name.regionMatches(true, 0, IdentityHeaders.PREFIX, 0,
+                                    IdentityHeaders.PREFIX.length()))
+                            .toList();
+                    forged.forEach(headers::remove);
+                    if (identity != null) {
+                        identity.accept(headers);
+                    }
+                }))
+                .build();
+    }
+}
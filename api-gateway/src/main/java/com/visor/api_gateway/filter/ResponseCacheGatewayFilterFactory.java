@@ -0,0 +1,285 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.cache.ResponseCache;
+import com.visor.api_gateway.identity.RealmRole;
+import com.visor.api_gateway.ratelimit.TokenBucketRateLimiter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches successful {@code GET} responses of the configured paths, e.g.
+ * {@code ResponseCache=/api/doctors/{id}}. A response is only stored when the service marks it
+ * fresh and not {@code no-store} or {@code no-cache}. Services address this cache with its own
+ * {@code Surrogate-Control} header, which takes precedence over {@code Cache-Control} and is removed
+ * before the response leaves the gateway. That lets a service cache a read here for a while while
+ * telling clients {@code no-store}, e.g. for patient data. Without it, {@code Cache-Control}
+ * applies ({@code max-age} / {@code s-maxage}, never {@code private}).
+ *
+ * <p>Hits carry an {@code ETag} (the service's own, or a hash of the body) and answer a matching
+ * {@code If-None-Match} with {@code 304}. The body is copied while it streams to the client, so a
+ * miss adds no latency.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    static final String SURROGATE_CONTROL = "Surrogate-Control";
+
+    private static final String ANONYMOUS = "anonymous";
+    private static final Set<String> UNCACHED_HEADERS = Set.of(HttpHeaders.SET_COOKIE, HttpHeaders.DATE,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, SURROGATE_CONTROL,
+            "X-Cache", TokenBucketRateLimiter.REMAINING_HEADER, TokenBucketRateLimiter.REPLENISH_RATE_HEADER,
+            TokenBucketRateLimiter.BURST_CAPACITY_HEADER, HttpHeaders.RETRY_AFTER);
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("paths");
+    }
+
+    @Override
+    public ShortcutType shortcutType() {
+        return ShortcutType.GATHER_LIST;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpResponse original = exchange.getResponse();
+            original.beforeCommit(() -> {
+                original.getHeaders().remove(SURROGATE_CONTROL);
+                return Mono.empty();
+            });
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !matches(config.getPaths(), request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+            return identityClass(exchange)
+                    .flatMap(identityClass -> {
+                        ResponseCache.Key key = key(exchange, identityClass);
+                        ResponseCache.Entry cached = bypassesCache(request) ? null : responseCache.get(key);
+                        if (cached != null) {
+                            return writeCached(exchange, cached);
+                        }
+                        exchange.getResponse().getHeaders().set("X-Cache", "MISS");
+                        return chain.filter(exchange.mutate().response(new CachingResponse(exchange.getResponse(), key))
+                                .build());
+                    });
+        };
+        return new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    static boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The caller's realm role mask, which is as far as cached responses are allowed to vary.
+     */
+    static Mono<String> identityClass(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> "roles:" + RealmRole.mask(((JwtAuthenticationToken) principal).getToken()))
+                .defaultIfEmpty(ANONYMOUS);
+    }
+
+    static ResponseCache.Key key(ServerWebExchange exchange, String identityClass) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        return new ResponseCache.Key(route == null ? "" : route.getId(), request.getPath().value(),
+                request.getURI().getRawQuery(), identityClass,
+                acceptEncoding != null && acceptEncoding.contains("gzip"));
+    }
+
+    private static boolean bypassesCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static Mono<Void> writeCached(ServerWebExchange exchange, ResponseCache.Entry entry) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.addAll(entry.headers());
+        headers.setETag(entry.etag());
+        headers.set(HttpHeaders.AGE, Long.toString(entry.ageSeconds(System.nanoTime())));
+        headers.set("X-Cache", "HIT");
+
+        if (matchesEtag(exchange.getRequest().getHeaders().getIfNoneMatch(), entry.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(entry.status()));
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(entry.body())));
+    }
+
+    /**
+     * Weak comparison, since {@code CompressionFilter} hands out weak validators for gzipped bodies.
+     */
+    private static boolean matchesEtag(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Freshness lifetime granted by the service, or -1 when the response must not be cached.
+     */
+    static long freshnessNanos(HttpHeaders headers, long maxTtlNanos) {
+        String surrogateControl = headers.getFirst(SURROGATE_CONTROL);
+        String directives = surrogateControl != null ? surrogateControl : headers.getCacheControl();
+        if (directives == null || headers.containsKey(HttpHeaders.SET_COOKIE) || "*".equals(headers.getFirst(HttpHeaders.VARY))) {
+            return -1;
+        }
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String directive : directives.toLowerCase().split(",")) {
+            directive = directive.trim();
+            if (directive.equals("no-store") || directive.equals("no-cache")
+                    || (surrogateControl == null && directive.equals("private"))) {
+                return -1;
+            }
+            if (directive.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(directive.substring(9));
+            } else if (directive.startsWith("max-age=")) {
+                maxAge = parseSeconds(directive.substring(8));
+            }
+        }
+        long seconds = sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+        return seconds <= 0 ? -1 : Math.min(TimeUnit.SECONDS.toNanos(seconds), maxTtlNanos);
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String bodyEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copies the body as it is written and stores it once the response completes, if cacheable.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache.Key key;
+
+        CachingResponse(ServerHttpResponse delegate, ResponseCache.Key key) {
+            super(delegate);
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            long ttlNanos = freshnessNanos(getHeaders(), responseCache.maxTtlNanos());
+            long contentLength = getHeaders().getContentLength();
+            if ((status != null && status.value() != 200) || ttlNanos < 0 || contentLength > responseCache.maxEntryBytes()) {
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+            boolean[] overflow = {false};
+            Flux<? extends DataBuffer> copying = Flux.from(body).doOnNext(buffer -> {
+                if (overflow[0]) {
+                    return;
+                }
+                int readable = buffer.readableByteCount();
+                if (copy.size() + readable > responseCache.maxEntryBytes()) {
+                    overflow[0] = true;
+                    return;
+                }
+                byte[] bytes = new byte[readable];
+                int position = buffer.readPosition();
+                buffer.read(bytes);
+                buffer.readPosition(position);
+                copy.writeBytes(bytes);
+            });
+            return super.writeWith(copying).doOnSuccess(done -> {
+                if (!overflow[0]) {
+                    store(copy.toByteArray(), ttlNanos);
+                }
+            });
+        }
+
+        private void store(byte[] body, long ttlNanos) {
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.addAll(name, values);
+                }
+            });
+            String etag = headers.getETag() != null ? headers.getETag() : bodyEtag(body);
+            headers.remove(HttpHeaders.ETAG);
+            responseCache.put(key, new ResponseCache.Entry(HttpStatus.OK.value(), HttpHeaders.readOnlyHttpHeaders(headers),
+                    body, etag, System.nanoTime(), ttlNanos));
+        }
+    }
+
+    public static class Config {
+
+        private List<String> paths = List.of();
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+    }
+}
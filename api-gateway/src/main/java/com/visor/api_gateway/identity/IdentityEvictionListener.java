@@ -0,0 +1,61 @@
+package com.visor.api_gateway.identity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the cached id of a doctor or hospital whenever its domain event arrives, so a deleted user
+ * stops being asserted by the gateway right away rather than when the cache entry expires. Every
+ * gateway instance has its own cache, so each listener subscribes with a consumer group of its own,
+ * from the latest offset: it gets every partition, including ones added to the topic later, and
+ * commits nothing, so the group goes away with the instance.
+ */
+@Component
+public class IdentityEvictionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityEvictionListener.class);
+
+    private final IdentityResolver identityResolver;
+    private final ObjectMapper objectMapper;
+
+    public IdentityEvictionListener(IdentityResolver identityResolver, ObjectMapper objectMapper) {
+        this.identityResolver = identityResolver;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topics = "doctor-events", groupId = "${spring.application.name}-identity-${random.uuid}",
+            containerFactory = "domainEventListenerContainerFactory")
+    public void onDoctorEvent(ConsumerRecord<String, String> record) {
+        evict(RealmRole.DOCTOR, record);
+    }
+
+    @KafkaListener(topics = "hospital-events", groupId = "${spring.application.name}-identity-${random.uuid}",
+            containerFactory = "domainEventListenerContainerFactory")
+    public void onHospitalEvent(ConsumerRecord<String, String> record) {
+        evict(RealmRole.HOSPITAL, record);
+    }
+
+    private void evict(RealmRole role, ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return;
+        }
+        try {
+            String subject = objectMapper.readValue(record.value(), DomainEvent.class).idKeycloak();
+            if (subject != null) {
+                identityResolver.evict(role, subject);
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed {} event at {}-{}@{}", role, record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record DomainEvent(String idKeycloak) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.visor.api_gateway.identity;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Resolves the internal doctor / hospital id of a Keycloak subject by asking the owning service,
+ * caching the answer so a caller costs one lookup per TTL instead of one per request. Concurrent
+ * requests for the same subject share a single in-flight lookup. Failures and unknown subjects are
+ * not cached; the request is forwarded without the id and the service falls back to its own checks.
+ * A deleted user's id stays cached until {@link IdentityEvictionListener} sees its domain event.
+ */
+@Component
+public class IdentityResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityResolver.class);
+
+    private final WebClient webClient;
+    private final AsyncCache<String, Long> ids;
+    private final Duration lookupTimeout;
+
+    public IdentityResolver(@LoadBalanced WebClient.Builder loadBalancedWebClientBuilder,
+                            @Value("${gateway.identity.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${gateway.identity.cache.ttl-ms:60000}") long ttlMillis,
+                            @Value("${gateway.identity.lookup-timeout-ms:2000}") long lookupTimeoutMillis) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .buildAsync();
+        this.lookupTimeout = Duration.ofMillis(lookupTimeoutMillis);
+    }
+
+    public Mono<Long> resolve(RealmRole role, String subject, String token) {
+        return Mono.fromFuture(() -> ids.get(role.name() + ':' + subject, (key, executor) -> lookup(role, subject, token)
+                        .toFuture()))
+                .onErrorResume(e -> {
+                    log.warn("Could not resolve {} id for subject {}: {}", role, subject, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    public void evict(RealmRole role, String subject) {
+        ids.synchronous().invalidate(role.name() + ':' + subject);
+    }
+
+    private Mono<Long> lookup(RealmRole role, String subject, String token) {
+        return webClient.get()
+                .uri(role.lookupUri(), subject)
+                .headers(headers -> headers.setBearerAuth(token))
+                .retrieve()
+                .bodyToMono(Long.class)
+                .timeout(lookupTimeout);
+    }
+}
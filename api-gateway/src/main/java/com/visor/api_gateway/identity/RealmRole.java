@@ -0,0 +1,54 @@
+package com.visor.api_gateway.identity;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realm roles that map to an internal entity. Bits match the role mask used by the services.
+ */
+public enum RealmRole {
+
+    DOCTOR("doctor", "http://doctor-microservice/api/doctors/exist/{keycloakId}"),
+    HOSPITAL("hospital", "http://hospital-microservice/api/hospitals/exist/{keycloakId}");
+
+    private final String roleName;
+    private final String lookupUri;
+    private final int bit;
+
+    RealmRole(String roleName, String lookupUri) {
+        this.roleName = roleName;
+        this.lookupUri = lookupUri;
+        this.bit = 1 << ordinal();
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public boolean isIn(int roles) {
+        return (roles & bit) != 0;
+    }
+
+    /**
+     * Load balanced URI returning the internal id for a Keycloak subject.
+     */
+    public String lookupUri() {
+        return lookupUri;
+    }
+
+    public static int mask(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaim("realm_access");
+        if (realmAccess == null || !(realmAccess.get("roles") instanceof List<?> roles)) {
+            return 0;
+        }
+        int mask = 0;
+        for (RealmRole role : values()) {
+            if (roles.contains(role.roleName)) {
+                mask |= role.bit;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,164 @@
+package com.visor.api_gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance load of one service, fed by the load-balancer lifecycle of every gateway call
+ * (routes and the {@code @LoadBalanced} WebClient): requests in flight and a peak-sensitive,
+ * time-decayed EWMA of response latency. A slower response replaces the average immediately, a
+ * faster one pulls it down with weight {@code 1 - e^(-elapsed/decay)}, so an instance that stalls
+ * is avoided at once and recovers gradually. Failed calls count as at least
+ * {@code failure-penalty-ms}.
+ *
+ * <p>Published per instance as {@code gateway.loadbalancer.in-flight} and
+ * {@code gateway.loadbalancer.latency.ewma}; instances that leave discovery are dropped.
+ */
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+    private final MeterRegistry meterRegistry;
+    private final double decayNanos;
+    private final long initialLatencyNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public InstanceLoadTracker(String serviceId, MeterRegistry meterRegistry, long decayNanos,
+                               long initialLatencyNanos, long failurePenaltyNanos, LongSupplier nanoClock) {
+        this.serviceId = serviceId;
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = decayNanos;
+        this.initialLatencyNanos = initialLatencyNanos;
+        this.failurePenaltyNanos = failurePenaltyNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public InstanceLoad load(ServiceInstance instance) {
+        return loads.computeIfAbsent(key(instance), this::register);
+    }
+
+    /**
+     * Forgets instances that are no longer part of {@code instances}.
+     */
+    public void retain(List<ServiceInstance> instances) {
+        if (loads.size() <= instances.size()) {
+            return;
+        }
+        Set<String> current = instances.stream().map(InstanceLoadTracker::key).collect(Collectors.toSet());
+        loads.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().meters.forEach(meter -> meterRegistry.remove(meter));
+            return true;
+        });
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(nanoClock.getAsLong());
+        }
+        load(lbResponse.getServer()).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceLoad load = load(lbResponse.getServer());
+        load.inFlight.updateAndGet(inFlight -> Math.max(0, inFlight - 1));
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || !(completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed)
+                || timed.getRequestStartTime() == 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long latency = now - timed.getRequestStartTime();
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        load.observe(latency, now);
+    }
+
+    private InstanceLoad register(String key) {
+        InstanceLoad load = new InstanceLoad(initialLatencyNanos, nanoClock.getAsLong());
+        if (meterRegistry != null) {
+            load.meters.add(Gauge.builder("gateway.loadbalancer.in-flight", load.inFlight, AtomicInteger::get)
+                    .tags("service", serviceId, "instance", key)
+                    .register(meterRegistry));
+            load.meters.add(Gauge.builder("gateway.loadbalancer.latency.ewma", load, InstanceLoad::latencyMillis)
+                    .tags("service", serviceId, "instance", key)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry));
+        }
+        return load;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    public final class InstanceLoad {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final List<Meter> meters = new ArrayList<>(2);
+        private volatile double latencyNanos;
+        private long updatedAtNanos;
+
+        private InstanceLoad(long initialLatencyNanos, long now) {
+            this.latencyNanos = initialLatencyNanos;
+            this.updatedAtNanos = now;
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Expected wait for one more request: the latency average scaled by the queue it would join.
+         */
+        public double cost() {
+            return latencyNanos * (inFlight.get() + 1);
+        }
+
+        double latencyMillis() {
+            return latencyNanos / 1_000_000d;
+        }
+
+        private synchronized void observe(long latency, long now) {
+            if (latency > latencyNanos) {
+                latencyNanos = latency;
+            } else {
+                double weight = Math.exp(-Math.max(0, now - updatedAtNanos) / decayNanos);
+                latencyNanos = latencyNanos * weight + latency * (1 - weight);
+            }
+            updatedAtNanos = now;
+        }
+    }
+}
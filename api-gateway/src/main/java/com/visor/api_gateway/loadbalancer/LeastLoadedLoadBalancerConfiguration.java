@@ -0,0 +1,56 @@
+package com.visor.api_gateway.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-service load-balancer beans, created in each service's child context (see
+ * {@code LoadBalancerConfig}); deliberately not a {@code @Configuration} so component scanning
+ * does not register it in the gateway's own context.
+ *
+ * <p>{@code gateway.load-balancer.strategy} selects {@code least-loaded} (default) or
+ * {@code round-robin}, and {@code gateway.load-balancer.services.<service-id>.strategy} overrides
+ * it for the routes of one service.
+ */
+public class LeastLoadedLoadBalancerConfiguration {
+
+    static final String LEAST_LOADED = "least-loaded";
+    static final String ROUND_ROBIN = "round-robin";
+
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new InstanceLoadTracker(LoadBalancerClientFactory.getName(environment), meterRegistry.getIfAvailable(),
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty("gateway.load-balancer.decay-ms", Long.class, 10_000L)),
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty("gateway.load-balancer.initial-latency-ms", Long.class, 100L)),
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty("gateway.load-balancer.failure-penalty-ms", Long.class, 1_000L)),
+                System::nanoTime);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment, LoadBalancerClientFactory loadBalancerClientFactory, InstanceLoadTracker tracker) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        ObjectProvider<ServiceInstanceListSupplier> instances =
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        if (ROUND_ROBIN.equals(strategy(environment, serviceId))) {
+            return new RoundRobinLoadBalancer(instances, serviceId);
+        }
+        return new LeastLoadedLoadBalancer(instances, tracker);
+    }
+
+    static String strategy(Environment environment, String serviceId) {
+        String fallback = environment.getProperty("gateway.load-balancer.strategy", LEAST_LOADED);
+        return environment.getProperty("gateway.load-balancer.services." + serviceId.toLowerCase(Locale.ROOT)
+                + ".strategy", fallback);
+    }
+}
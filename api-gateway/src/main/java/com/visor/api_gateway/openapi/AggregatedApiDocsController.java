@@ -0,0 +1,37 @@
+package com.visor.api_gateway.openapi;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the aggregated OpenAPI document from memory. Clients revalidate with the ETag, so
+ * repeated Swagger UI loads are answered with {@code 304} and no body.
+ */
+@RestController
+public class AggregatedApiDocsController {
+
+    private final OpenApiAggregator openApiAggregator;
+
+    public AggregatedApiDocsController(OpenApiAggregator openApiAggregator) {
+        this.openApiAggregator = openApiAggregator;
+    }
+
+    @GetMapping(value = "${gateway.openapi.path:/v3/aggregated-api-docs}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getApiDocs(ServerWebExchange exchange) {
+        return openApiAggregator.document().flatMap(document -> {
+            if (exchange.checkNotModified(document.etag())) {
+                return Mono.empty();
+            }
+            return Mono.just(ResponseEntity.ok()
+                    .eTag(document.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(document.body()));
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.visor.api_gateway.openapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the merged OpenAPI document of all services (see {@link OpenApiMerger}) and keeps it in
+ * memory, so Swagger UI page loads never reach the services. The specs listed in
+ * {@code gateway.openapi.sources} are fetched in parallel through the load balancer when the
+ * gateway is ready and again on {@code bus-refresh}. A service that cannot be reached keeps its
+ * last fetched spec; while some spec was never fetched, the build is retried every
+ * {@code gateway.openapi.retry-ms}.
+ */
+@Component
+public class OpenApiAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenApiAggregator.class);
+    private static final ObjectMapper MAPPER = Json.mapper();
+
+    private final WebClient webClient;
+    private final JsonNode info;
+    private final List<String> sources;
+    private final Duration fetchTimeout;
+    private final Duration retryInterval;
+    private final Map<String, JsonNode> lastFetched = new ConcurrentHashMap<>();
+    private volatile ApiDocument current;
+    private Mono<ApiDocument> pending;
+
+    public OpenApiAggregator(@LoadBalanced WebClient.Builder loadBalancedWebClientBuilder, OpenAPI gateWayOpenApi,
+                             @Value("${gateway.openapi.sources:}") List<String> sources,
+                             @Value("${gateway.openapi.fetch-timeout-ms:5000}") long fetchTimeoutMillis,
+                             @Value("${gateway.openapi.retry-ms:30000}") long retryMillis) {
+        this.webClient = loadBalancedWebClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+        this.info = MAPPER.valueToTree(gateWayOpenApi.getInfo());
+        this.sources = sources;
+        this.fetchTimeout = Duration.ofMillis(fetchTimeoutMillis);
+        this.retryInterval = Duration.ofMillis(retryMillis);
+    }
+
+    /**
+     * The current document, built on first use if startup has not finished it yet.
+     */
+    public Mono<ApiDocument> document() {
+        ApiDocument document = current;
+        return document != null ? Mono.just(document) : refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh().subscribe();
+    }
+
+    @EventListener(RefreshRemoteApplicationEvent.class)
+    public void onBusRefresh() {
+        refresh().subscribe();
+    }
+
+    /**
+     * Rebuilds the document; concurrent callers share one rebuild.
+     */
+    public synchronized Mono<ApiDocument> refresh() {
+        if (pending == null) {
+            pending = build().doFinally(signal -> clearPending()).cache();
+        }
+        return pending;
+    }
+
+    private synchronized void clearPending() {
+        pending = null;
+    }
+
+    private Mono<ApiDocument> build() {
+        return Flux.fromIterable(sources)
+                .flatMapSequential(this::fetch)
+                .collectList()
+                .map(specs -> {
+                    ApiDocument document = serialize(OpenApiMerger.merge(MAPPER, info, specs));
+                    current = document;
+                    log.info("Aggregated OpenAPI document from {} of {} services", specs.size(), sources.size());
+                    if (specs.size() < sources.size()) {
+                        Mono.delay(retryInterval).subscribe(tick -> refresh().subscribe());
+                    }
+                    return document;
+                });
+    }
+
+    private Mono<OpenApiMerger.ServiceSpec> fetch(String source) {
+        return webClient.get()
+                .uri(source)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(fetchTimeout)
+                .doOnNext(document -> lastFetched.put(source, document))
+                .onErrorResume(e -> {
+                    log.warn("Could not fetch OpenAPI spec from {}: {}", source, e.toString());
+                    return Mono.justOrEmpty(lastFetched.get(source));
+                })
+                .map(document -> new OpenApiMerger.ServiceSpec(URI.create(source).getHost(), document));
+    }
+
+    private static ApiDocument serialize(JsonNode document) {
+        try {
+            byte[] body = MAPPER.writeValueAsBytes(document);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+            return new ApiDocument(body, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record ApiDocument(byte[] body, String etag) {
+    }
+}
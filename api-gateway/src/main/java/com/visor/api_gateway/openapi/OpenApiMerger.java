@@ -0,0 +1,127 @@
+package com.visor.api_gateway.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges the OpenAPI documents of the services into one. Paths, tags and top-level security
+ * requirements are unioned; components are unioned per kind, and a component that another service
+ * already defined differently is renamed with the service as prefix (e.g. {@code DoctorTestDTO})
+ * and every {@code $ref} to it in that service's document is rewritten. Servers are replaced by the
+ * gateway itself.
+ */
+final class OpenApiMerger {
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private OpenApiMerger() {
+    }
+
+    static ObjectNode merge(ObjectMapper objectMapper, JsonNode info, List<ServiceSpec> specs) {
+        ObjectNode merged = objectMapper.createObjectNode();
+        merged.put("openapi", specs.isEmpty() ? "3.0.1" : specs.get(0).document().path("openapi").asText("3.0.1"));
+        merged.set("info", info);
+        merged.putArray("servers").addObject().put("url", "/");
+        ObjectNode paths = merged.putObject("paths");
+        ObjectNode components = merged.putObject("components");
+        ArrayNode tags = merged.putArray("tags");
+        ArrayNode security = merged.putArray("security");
+        Set<String> tagNames = new HashSet<>();
+
+        for (ServiceSpec spec : specs) {
+            JsonNode document = spec.document().deepCopy();
+            Map<String, String> renamed = mergeComponents(components, document.path("components"), spec.service());
+            if (!renamed.isEmpty()) {
+                rewriteRefs(document, renamed);
+            }
+            document.path("paths").fields().forEachRemaining(path -> paths.set(path.getKey(), path.getValue()));
+            for (JsonNode tag : document.path("tags")) {
+                if (tagNames.add(tag.path("name").asText())) {
+                    tags.add(tag);
+                }
+            }
+            for (JsonNode requirement : document.path("security")) {
+                if (!contains(security, requirement)) {
+                    security.add(requirement);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Copies {@code source} components into {@code target}, returning the refs that had to be renamed.
+     */
+    private static Map<String, String> mergeComponents(ObjectNode target, JsonNode source, String service) {
+        Map<String, String> renamed = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> kinds = source.fields();
+        while (kinds.hasNext()) {
+            Map.Entry<String, JsonNode> kind = kinds.next();
+            ObjectNode merged = target.has(kind.getKey()) ? (ObjectNode) target.get(kind.getKey()) : target.putObject(kind.getKey());
+            kind.getValue().fields().forEachRemaining(component -> {
+                String name = component.getKey();
+                JsonNode existing = merged.get(name);
+                if (existing == null) {
+                    merged.set(name, component.getValue());
+                    return;
+                }
+                if (existing.equals(component.getValue())) {
+                    return;
+                }
+                String unique = prefix(service) + name;
+                merged.set(unique, component.getValue());
+                renamed.put(COMPONENTS_PREFIX + kind.getKey() + "/" + name, COMPONENTS_PREFIX + kind.getKey() + "/" + unique);
+            });
+        }
+        return renamed;
+    }
+
+    private static void rewriteRefs(JsonNode node, Map<String, String> renamed) {
+        if (node instanceof ObjectNode object) {
+            JsonNode ref = object.get("$ref");
+            if (ref != null && renamed.containsKey(ref.asText())) {
+                object.set("$ref", TextNode.valueOf(renamed.get(ref.asText())));
+            }
+            object.elements().forEachRemaining(child -> rewriteRefs(child, renamed));
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(child -> rewriteRefs(child, renamed));
+        }
+    }
+
+    private static boolean contains(ArrayNode array, JsonNode value) {
+        for (JsonNode element : array) {
+            if (element.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code doctor-microservice} becomes {@code Doctor}.
+     */
+    private static String prefix(String service) {
+        String base = service.toLowerCase(Locale.ROOT).replace("-microservice", "");
+        StringBuilder prefix = new StringBuilder();
+        for (String part : base.split("[^a-z0-9]+")) {
+            if (!part.isEmpty()) {
+                prefix.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+        return prefix.toString();
+    }
+
+    record ServiceSpec(String service, JsonNode document) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.visor.api_gateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate-limit key of a request: the JWT subject for authenticated callers, otherwise the client IP.
+ * {@code X-Forwarded-For} is only honoured for {@code gateway.rate-limit.trusted-proxies} hops, so
+ * clients cannot pick their own bucket by sending the header.
+ */
+@Component
+public class ClientKeyResolver implements KeyResolver {
+
+    private static final String UNKNOWN = "ip:unknown";
+
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public ClientKeyResolver(@Value("${gateway.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        this.remoteAddressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> "sub:" + ((JwtAuthenticationToken) principal).getToken().getSubject())
+                .switchIfEmpty(Mono.fromSupplier(() -> clientAddress(exchange)));
+    }
+
+    private String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+        if (address == null) {
+            return UNKNOWN;
+        }
+        return address.getAddress() != null ? "ip:" + address.getAddress().getHostAddress() : "ip:" + address.getHostString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.visor.api_gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code RequestRateLimiter} filter, ordered ahead of the response-decorating filters. Route
+ * filters are otherwise ordered by their position in the route, which puts the limiter behind
+ * {@code ResponseCache} and {@code CoalesceRequests} (they must sit just before the Netty write), so
+ * cache hits and coalesced followers would be answered without ever being counted. Replaces the
+ * built-in factory, which is switched off with
+ * {@code spring.cloud.gateway.filter.request-rate-limiter.enabled=false}.
+ */
+@Component
+public class OrderedRequestRateLimiterGatewayFilterFactory extends RequestRateLimiterGatewayFilterFactory {
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+
+    public OrderedRequestRateLimiterGatewayFilterFactory(RateLimiter<?> defaultRateLimiter, KeyResolver defaultKeyResolver) {
+        super(defaultRateLimiter, defaultKeyResolver);
+    }
+
+    @Override
+    public String name() {
+        return "RequestRateLimiter";
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(super.apply(config), ORDER);
+    }
+}
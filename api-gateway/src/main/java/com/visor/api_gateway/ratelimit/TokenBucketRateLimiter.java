@@ -0,0 +1,176 @@
+package com.visor.api_gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@code RateLimiter} for the {@code RequestRateLimiter} filter, so throttling needs no
+ * Redis. Each route/client pair owns one bucket, stored as a single {@code AtomicLong} holding the
+ * bucket's "theoretical arrival time" (GCRA): a request is allowed while that time is at most
+ * {@code burstCapacity} refill intervals ahead of now, and taking tokens is one CAS. That keeps a
+ * bucket at 16 bytes plus its cache entry, so 100k tracked clients stay in the low megabytes.
+ *
+ * <p>Buckets live in a Caffeine cache bounded by {@code gateway.rate-limit.max-keys} and dropped
+ * after {@code gateway.rate-limit.idle-timeout-ms} without requests; an evicted bucket comes back
+ * full, so the idle timeout should be longer than the time a bucket takes to refill. Limits are
+ * {@code gateway.rate-limit.*} by default and can be overridden per route with
+ * {@code args.token-bucket-rate-limiter.replenish-rate} / {@code burst-capacity}. Buckets are per
+ * gateway instance, so the effective limit scales with the number of instances.
+ */
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Config defaultConfig;
+    private final Cache<String, AtomicLong> buckets;
+    private final Ticker ticker;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public TokenBucketRateLimiter(ConfigurationService configurationService,
+                                  ObjectProvider<MeterRegistry> meterRegistry,
+                                  @Value("${gateway.rate-limit.replenish-rate:20}") int replenishRate,
+                                  @Value("${gateway.rate-limit.burst-capacity:40}") int burstCapacity,
+                                  @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys,
+                                  @Value("${gateway.rate-limit.idle-timeout-ms:600000}") long idleTimeoutMillis) {
+        this(configurationService, meterRegistry.getIfAvailable(), new Config(replenishRate, burstCapacity, 1),
+                maxKeys, idleTimeoutMillis, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry, Config defaultConfig,
+                           long maxKeys, long idleTimeoutMillis, Ticker ticker) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = defaultConfig;
+        this.ticker = ticker;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+        if (meterRegistry != null) {
+            Gauge.builder("gateway.ratelimit.keys", buckets, Cache::estimatedSize).register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        return Mono.just(tryAcquire(routeId, id));
+    }
+
+    Response tryAcquire(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        int replenishRate = config.getReplenishRate() > 0 ? config.getReplenishRate() : defaultConfig.getReplenishRate();
+        int burstCapacity = config.getBurstCapacity() > 0 ? config.getBurstCapacity() : defaultConfig.getBurstCapacity();
+        int requestedTokens = Math.max(1, config.getRequestedTokens());
+
+        long interval = NANOS_PER_SECOND / replenishRate;
+        long tolerance = interval * burstCapacity;
+        long cost = interval * requestedTokens;
+        AtomicLong bucket = buckets.get(routeId + ' ' + id, key -> new AtomicLong(Long.MIN_VALUE));
+
+        long now = ticker.read();
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long next = start + cost;
+            if (next - now > tolerance) {
+                long retryAfterNanos = next - now - tolerance;
+                if (meterRegistry != null) {
+                    meterRegistry.counter("gateway.ratelimit.rejected", "route", routeId).increment();
+                }
+                return response(false, (tolerance - (start - now)) / interval, replenishRate, burstCapacity,
+                        retryAfterNanos);
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return response(true, (tolerance - (next - now)) / interval, replenishRate, burstCapacity, 0);
+            }
+        }
+    }
+
+    long trackedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static Response response(boolean allowed, long remaining, int replenishRate, int burstCapacity,
+                                     long retryAfterNanos) {
+        Map<String, String> headers = allowed
+                ? Map.of(REMAINING_HEADER, Long.toString(remaining),
+                        REPLENISH_RATE_HEADER, Integer.toString(replenishRate),
+                        BURST_CAPACITY_HEADER, Integer.toString(burstCapacity))
+                : Map.of(REMAINING_HEADER, Long.toString(remaining),
+                        REPLENISH_RATE_HEADER, Integer.toString(replenishRate),
+                        BURST_CAPACITY_HEADER, Integer.toString(burstCapacity),
+                        HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, divideRoundingUp(retryAfterNanos))));
+        return new Response(allowed, headers);
+    }
+
+    private static long divideRoundingUp(long nanos) {
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    /**
+     * Per-route limits; a value of 0 falls back to the {@code gateway.rate-limit.*} default.
+     */
+    public static class Config {
+
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+
+        public Config() {
+        }
+
+        public Config(int replenishRate, int burstCapacity, int requestedTokens) {
+            this.replenishRate = replenishRate;
+            this.burstCapacity = burstCapacity;
+            this.requestedTokens = requestedTokens;
+        }
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
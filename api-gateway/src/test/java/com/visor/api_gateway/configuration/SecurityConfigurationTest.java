@@ -0,0 +1,57 @@
+package com.visor.api_gateway.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.net.URI;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.all;
+
+class SecurityConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(SecurityConfiguration.class, ResourceServerProperties.class)
+            .withPropertyValues("spring.security.oauth2.resourceserver.jwt.issuer-uri=http://keycloak.invalid/realms/test");
+
+    @Test
+    void shouldDenyServiceActuatorsRoutedByTheDiscoveryLocator() {
+        contextRunner.run(context -> {
+            WebTestClient client = client(context.getBean(SecurityWebFilterChain.class));
+
+            for (String path : new String[]{"/DOCTOR-MICROSERVICE/actuator/prometheus", "/hospital-microservice/actuator/env",
+                    "/TEST-MICROSERVICE/Actuator", "/DOCTOR-MICROSERVICE/%61ctuator/prometheus"}) {
+                client.get().uri(URI.create(path)).exchange().expectStatus().isUnauthorized();
+            }
+            // empty segments are rejected by the firewall before authorization
+            client.get().uri(URI.create("//DOCTOR-MICROSERVICE//actuator/prometheus")).exchange().expectStatus().isBadRequest();
+        });
+    }
+
+    @Test
+    void shouldPermitRoutesAndTheGatewaysOwnScrape() {
+        contextRunner.run(context -> {
+            WebTestClient client = client(context.getBean(SecurityWebFilterChain.class));
+
+            for (String path : new String[]{"/actuator/prometheus", "/api/doctors/7", "/DOCTOR-MICROSERVICE/api/doctors/7"}) {
+                client.get().uri(URI.create(path)).exchange().expectStatus().isOk();
+            }
+        });
+    }
+
+    private static WebTestClient client(SecurityWebFilterChain chain) {
+        return WebTestClient.bindToRouterFunction(RouterFunctions.route(all(), request -> ServerResponse.ok().build()))
+                .webFilter(new WebFilterChainProxy(chain))
+                .build();
+    }
+
+    @EnableConfigurationProperties(OAuth2ResourceServerProperties.class)
+    static class ResourceServerProperties {
+    }
+}
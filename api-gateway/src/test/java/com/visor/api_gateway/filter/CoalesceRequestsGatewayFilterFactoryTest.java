@@ -0,0 +1,146 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.cache.InFlightRequests;
+import com.visor.api_gateway.ratelimit.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CoalesceRequestsGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"passcode\":\"ABC123\"}";
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> upstream = Sinks.empty();
+    private boolean upstreamFails;
+
+    @Test
+    void shouldShareOneUpstreamCall_betweenConcurrentIdenticalRequests() {
+        InFlightRequests inFlightRequests = inFlightRequests(1024);
+        GatewayFilter filter = filter(inFlightRequests);
+        MockServerWebExchange leader = exchange("/api/tests/passcode/ABC123");
+        MockServerWebExchange follower = exchange("/api/tests/passcode/ABC123");
+
+        CompletableFuture<Void> first = filter.filter(leader, chain()).toFuture();
+        CompletableFuture<Void> second = filter.filter(follower, chain()).toFuture();
+        upstream.tryEmitEmpty();
+        CompletableFuture.allOf(first, second).join();
+
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Coalesced")).isEqualTo("true");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(inFlightRequests.coalescingRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldKeepEachClientsRateLimitHeaders() {
+        GatewayFilter filter = filter(inFlightRequests(1024));
+        MockServerWebExchange leader = exchange("/api/tests/passcode/ABC123");
+        MockServerWebExchange follower = exchange("/api/tests/passcode/ABC123");
+        leader.getResponse().getHeaders().set(TokenBucketRateLimiter.REMAINING_HEADER, "9");
+        follower.getResponse().getHeaders().set(TokenBucketRateLimiter.REMAINING_HEADER, "3");
+
+        CompletableFuture<Void> first = filter.filter(leader, chain()).toFuture();
+        CompletableFuture<Void> second = filter.filter(follower, chain()).toFuture();
+        upstream.tryEmitEmpty();
+        CompletableFuture.allOf(first, second).join();
+
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Coalesced")).isEqualTo("true");
+        assertThat(follower.getResponse().getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER)).containsExactly("3");
+    }
+
+    @Test
+    void shouldNotCoalesceDifferentPasscodes() {
+        GatewayFilter filter = filter(inFlightRequests(1024));
+
+        CompletableFuture<Void> first = filter.filter(exchange("/api/tests/passcode/ABC123"), chain()).toFuture();
+        CompletableFuture<Void> second = filter.filter(exchange("/api/tests/passcode/XYZ789"), chain()).toFuture();
+        upstream.tryEmitEmpty();
+        CompletableFuture.allOf(first, second).join();
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldLetFollowersCallThemselves_whenBodyExceedsCap() {
+        GatewayFilter filter = filter(inFlightRequests(4));
+        MockServerWebExchange follower = exchange("/api/tests/passcode/ABC123");
+
+        CompletableFuture<Void> first = filter.filter(exchange("/api/tests/passcode/ABC123"), chain()).toFuture();
+        CompletableFuture<Void> second = filter.filter(follower, chain()).toFuture();
+        upstream.tryEmitEmpty();
+        CompletableFuture.allOf(first, second).join();
+
+        assertThat(downstreamCalls).hasValue(2);
+        assertThat(follower.getResponse().getHeaders().containsKey("X-Coalesced")).isFalse();
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void shouldLetFollowersCallThemselves_whenLeaderFails() {
+        GatewayFilter filter = filter(inFlightRequests(1024));
+        MockServerWebExchange follower = exchange("/api/tests/passcode/ABC123");
+        upstreamFails = true;
+
+        CompletableFuture<Void> first = filter.filter(exchange("/api/tests/passcode/ABC123"), chain()).toFuture();
+        CompletableFuture<Void> second = filter.filter(follower, chain()).toFuture();
+        upstreamFails = false;
+        upstream.tryEmitEmpty();
+
+        assertThat(first).failsWithin(Duration.ofSeconds(5));
+        second.join();
+        assertThat(downstreamCalls).hasValue(2);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    private GatewayFilter filter(InFlightRequests inFlightRequests) {
+        CoalesceRequestsGatewayFilterFactory.Config config = new CoalesceRequestsGatewayFilterFactory.Config();
+        config.setPaths(List.of("/api/tests/passcode/{passcode}"));
+        return new CoalesceRequestsGatewayFilterFactory(inFlightRequests).apply(config);
+    }
+
+    private static InFlightRequests inFlightRequests(int maxBodyBytes) {
+        return new InFlightRequests(mock(ObjectProvider.class), 500, 1024, maxBodyBytes);
+    }
+
+    private GatewayFilterChain chain() {
+        return forwarded -> {
+            downstreamCalls.incrementAndGet();
+            boolean fails = upstreamFails;
+            return upstream.asMono().then(Mono.defer(() -> {
+                if (fails) {
+                    return Mono.error(new IllegalStateException("upstream unavailable"));
+                }
+                byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                forwarded.getResponse().setStatusCode(HttpStatus.OK);
+                forwarded.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                forwarded.getResponse().getHeaders().setContentLength(body.length);
+                return forwarded.getResponse().writeWith(Mono.just(forwarded.getResponse().bufferFactory().wrap(body)));
+            }));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,139 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.compression.GzipCompressor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionFilterTest {
+
+    private static final String LARGE_JSON = "[" + "{\"url\":\"https://results.example.com/tests/1234567890.pdf\"},".repeat(100) + "{}]";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompressionFilter filter = new CompressionFilter(new GzipCompressor(6, 2), meterRegistry, 1024,
+            MediaType.parseMediaTypes("application/json,text/*"));
+
+    @Test
+    void shouldGzipLargeJson_whenClientAcceptsIt() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip, deflate, br");
+
+        run(exchange, LARGE_JSON, MediaType.APPLICATION_JSON, "\"abc\"");
+
+        MockServerHttpResponse response = exchange.getResponse();
+        byte[] body = bodyBytes(response);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(body.length);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"abc\"");
+        assertThat(gunzip(body)).isEqualTo(LARGE_JSON);
+        assertThat(meterRegistry.get("gateway.compression.saved").summary().totalAmount())
+                .isEqualTo(LARGE_JSON.length() - body.length);
+    }
+
+    @Test
+    void shouldReuseCompressorsAcrossResponses() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = exchange("gzip");
+            run(exchange, LARGE_JSON, MediaType.APPLICATION_JSON, null);
+            assertThat(gunzip(bodyBytes(exchange.getResponse()))).isEqualTo(LARGE_JSON);
+        }
+    }
+
+    @Test
+    void shouldSkipSmallBodies() {
+        MockServerWebExchange exchange = exchange("gzip");
+
+        run(exchange, "{\"id\":1}", MediaType.APPLICATION_JSON, null);
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void shouldSkipImages() {
+        MockServerWebExchange exchange = exchange("gzip");
+
+        run(exchange, LARGE_JSON, MediaType.IMAGE_PNG, null);
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void shouldSkip_whenClientDoesNotAcceptGzip() {
+        MockServerWebExchange exchange = exchange(null);
+
+        run(exchange, LARGE_JSON, MediaType.APPLICATION_JSON, null);
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(LARGE_JSON);
+    }
+
+    @Test
+    void shouldReadTheQValueAsANumber() {
+        for (String refused : new String[]{"gzip;q=0", "gzip;q=0.0", "gzip; q=0.00", "GZIP;Q=0.000", "gzip;q=zero",
+                "br, gzip;q=0.0, deflate", "*;q=0", "gzip;q=0, *", "gzipx", "identity"}) {
+            assertThat(CompressionFilter.acceptsGzip(headers(refused))).as(refused).isFalse();
+        }
+        for (String accepted : new String[]{"gzip", "gzip;q=0.5", "gzip; q=0.001", "deflate;q=0, gzip;q=1.0", "*",
+                "br;q=1, *;q=0.1"}) {
+            assertThat(CompressionFilter.acceptsGzip(headers(accepted))).as(accepted).isTrue();
+        }
+    }
+
+    private void run(MockServerWebExchange exchange, String body, MediaType contentType, String etag) {
+        GatewayFilterChain downstream = forwarded -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            forwarded.getResponse().setStatusCode(HttpStatus.OK);
+            forwarded.getResponse().getHeaders().setContentType(contentType);
+            if (etag != null) {
+                forwarded.getResponse().getHeaders().setETag(etag);
+            }
+            return forwarded.getResponse().writeWith(Mono.just(forwarded.getResponse().bufferFactory().wrap(bytes)));
+        };
+        filter.filter(exchange, downstream).block();
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/patients");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static HttpHeaders headers(String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return headers;
+    }
+
+    private static byte[] bodyBytes(MockServerHttpResponse response) {
+        return DataBufferUtils.join(response.getBody()).map(buffer -> {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            return bytes;
+        }).block();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.identity.IdentityHeaders;
+import com.visor.api_gateway.identity.IdentityResolver;
+import com.visor.api_gateway.identity.RealmRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IdentityEnrichmentFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-04-10T10:00:00Z");
+
+    private final IdentityResolver identityResolver = mock(IdentityResolver.class);
+    private final IdentityHeaders identityHeaders = new IdentityHeaders("gateway-secret");
+    private final IdentityEnrichmentFilter filter =
+            new IdentityEnrichmentFilter(identityResolver, identityHeaders, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldForwardSignedIdentity_forAuthenticatedHospital() {
+        Jwt jwt = jwt(List.of("hospital"));
+        when(identityResolver.resolve(RealmRole.HOSPITAL, "kc-hospital", "token")).thenReturn(Mono.just(7L));
+
+        HttpHeaders forwarded = run(exchange(new JwtAuthenticationToken(jwt)));
+
+        assertThat(forwarded.getFirst(IdentityHeaders.SUBJECT)).isEqualTo("kc-hospital");
+        assertThat(forwarded.getFirst(IdentityHeaders.ROLES)).isEqualTo(Integer.toString(RealmRole.HOSPITAL.bit()));
+        assertThat(forwarded.getFirst(IdentityHeaders.HOSPITAL_ID)).isEqualTo("7");
+        assertThat(forwarded.containsKey(IdentityHeaders.DOCTOR_ID)).isFalse();
+        assertThat(forwarded.getFirst(IdentityHeaders.SIGNATURE)).isEqualTo(identityHeaders.sign(
+                "kc-hospital", RealmRole.HOSPITAL.bit(), null, 7L, NOW.toEpochMilli(), "token"));
+    }
+
+    @Test
+    void shouldSignWithoutId_whenLookupFindsNothing() {
+        when(identityResolver.resolve(any(), any(), any())).thenReturn(Mono.empty());
+
+        HttpHeaders forwarded = run(exchange(new JwtAuthenticationToken(jwt(List.of("doctor")))));
+
+        assertThat(forwarded.containsKey(IdentityHeaders.DOCTOR_ID)).isFalse();
+        assertThat(forwarded.getFirst(IdentityHeaders.SIGNATURE)).isEqualTo(identityHeaders.sign(
+                "kc-hospital", RealmRole.DOCTOR.bit(), null, null, NOW.toEpochMilli(), "token"));
+    }
+
+    @Test
+    void shouldStripClientSuppliedIdentityHeaders_forAnonymousRequests() {
+        HttpHeaders forwarded = run(exchange(null));
+
+        assertThat(forwarded.keySet()).noneMatch(name -> name.startsWith(IdentityHeaders.PREFIX));
+        assertThat(forwarded.getFirst("Accept")).isEqualTo("application/json");
+        verifyNoInteractions(identityResolver);
+    }
+
+    private HttpHeaders run(ServerWebExchange exchange) {
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+        GatewayFilterChain chain = filtered -> {
+            forwarded.set(filtered.getRequest().getHeaders());
+            return Mono.empty();
+        };
+        filter.filter(exchange, chain).block();
+        return forwarded.get();
+    }
+
+    private ServerWebExchange exchange(JwtAuthenticationToken authentication) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/hospitals")
+                .header("Accept", "application/json")
+                .header(IdentityHeaders.HOSPITAL_ID, "1")
+                .header("x-identity-roles", "3"));
+        return authentication == null ? exchange : exchange.mutate().principal(Mono.just(authentication)).build();
+    }
+
+    private Jwt jwt(List<String> roles) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("kc-hospital")
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.visor.api_gateway.filter;
+
+import com.visor.api_gateway.cache.ResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private ResponseCache responseCache;
+    private GatewayFilter filter;
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private String cacheControl = "max-age=60";
+    private String surrogateControl;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(mock(ObjectProvider.class), 1024 * 1024, 64 * 1024, 300_000);
+        ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(responseCache);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setPaths(List.of("/api/hospitals/{id:[0-9]+}"));
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void shouldServeSecondRequestFromCache() {
+        ServerWebExchange first = exchange(get("/api/hospitals/1"), "hospital");
+        ServerWebExchange second = exchange(get("/api/hospitals/1"), "hospital");
+
+        run(first);
+        run(second);
+
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(((MockServerHttpResponse) second.getResponse()).getBodyAsString().block()).isEqualTo("{\"id\":1}");
+        assertThat(second.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(second.getResponse().getHeaders().getETag()).isNotBlank();
+    }
+
+    @Test
+    void shouldAnswerNotModified_whenEtagMatches() {
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+        String etag = responseCache.get(new ResponseCache.Key("", "/api/hospitals/1", null, "roles:2", false)).etag();
+
+        ServerWebExchange conditional = exchange(get("/api/hospitals/1").ifNoneMatch(etag), "hospital");
+        run(conditional);
+
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditional.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(downstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void shouldKeepIdentityClassesApart() {
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+        run(exchange(get("/api/hospitals/1"), "doctor"));
+        run(exchange(get("/api/hospitals/1"), null));
+
+        assertThat(downstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void shouldNotCache_whenServiceForbidsIt() {
+        cacheControl = "no-cache, no-store, max-age=0, must-revalidate";
+
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldCacheOnSurrogateControl_andKeepClientsOnNoStore() {
+        cacheControl = "no-store";
+        surrogateControl = "max-age=60";
+        ServerWebExchange first = exchange(get("/api/hospitals/1"), "hospital");
+        ServerWebExchange second = exchange(get("/api/hospitals/1"), "hospital");
+
+        run(first);
+        run(second);
+
+        assertThat(downstreamCalls).hasValue(1);
+        for (ServerWebExchange exchange : List.of(first, second)) {
+            assertThat(exchange.getResponse().getHeaders().getCacheControl()).isEqualTo("no-store");
+            assertThat(exchange.getResponse().getHeaders().containsKey(ResponseCacheGatewayFilterFactory.SURROGATE_CONTROL)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldNotCache_privateResponsesWithoutSurrogateControl() {
+        cacheControl = "private, max-age=60";
+
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldIgnorePathsThatAreNotConfigured() {
+        run(exchange(get("/api/hospitals/hospital-doctor"), "hospital"));
+        run(exchange(get("/api/hospitals/hospital-doctor"), "hospital"));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldDropEverything_onBusRefresh() {
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+        responseCache.invalidateAll();
+        run(exchange(get("/api/hospitals/1"), "hospital"));
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    private void run(ServerWebExchange exchange) {
+        GatewayFilterChain downstream = forwarded -> {
+            downstreamCalls.incrementAndGet();
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            HttpHeaders headers = forwarded.getResponse().getHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+            headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            if (surrogateControl != null) {
+                headers.set(ResponseCacheGatewayFilterFactory.SURROGATE_CONTROL, surrogateControl);
+            }
+            forwarded.getResponse().setStatusCode(HttpStatus.OK);
+            return forwarded.getResponse().writeWith(Mono.just(forwarded.getResponse().bufferFactory().wrap(body)));
+        };
+        filter.filter(exchange, downstream).block();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> get(String path) {
+        return MockServerHttpRequest.get(path);
+    }
+
+    private static ServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, String role) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        if (role == null) {
+            return exchange;
+        }
+        Jwt jwt = Jwt.withTokenValue("token-" + role)
+                .header("alg", "RS256")
+                .subject("kc-" + role)
+                .claim("realm_access", Map.of("roles", List.of(role)))
+                .build();
+        return exchange.mutate().principal(Mono.just(new JwtAuthenticationToken(jwt))).build();
+    }
+}
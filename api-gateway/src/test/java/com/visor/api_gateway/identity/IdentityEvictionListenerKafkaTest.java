@@ -0,0 +1,67 @@
+package com.visor.api_gateway.identity;
+
+import com.visor.api_gateway.configuration.KafkaConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the listeners against a broker whose topics have more partitions than the owning services
+ * create by default, so an event on any of them still evicts the cached id.
+ */
+@SpringBootTest(classes = {IdentityEvictionListener.class, KafkaConfig.class}, properties = {
+        "spring.cloud.bootstrap.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@EmbeddedKafka(partitions = 5, topics = {"doctor-events", "hospital-events"})
+class IdentityEvictionListenerKafkaTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @MockitoBean
+    private IdentityResolver identityResolver;
+
+    @Test
+    void shouldEvict_forEventsOnEveryPartition() {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 5);
+        }
+
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafka);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps));
+        kafkaTemplate.send("doctor-events", 4, "7", "{\"type\":\"DELETED\",\"id\":7,\"idKeycloak\":\"kc-7\"}");
+        kafkaTemplate.send("hospital-events", 3, "5", "{\"type\":\"DELETED\",\"id\":5,\"idKeycloak\":\"kc-5\"}");
+
+        verify(identityResolver, timeout(TIMEOUT_MS)).evict(RealmRole.DOCTOR, "kc-7");
+        verify(identityResolver, timeout(TIMEOUT_MS)).evict(RealmRole.HOSPITAL, "kc-5");
+    }
+}
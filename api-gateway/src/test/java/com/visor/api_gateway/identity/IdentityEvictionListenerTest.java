@@ -0,0 +1,58 @@
+package com.visor.api_gateway.identity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityEvictionListenerTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final IdentityResolver identityResolver = new IdentityResolver(WebClient.builder()
+            .exchangeFunction(request -> {
+                lookups.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("7")
+                        .build());
+            }), 100, 60_000, 2_000);
+    private final IdentityEvictionListener listener = new IdentityEvictionListener(identityResolver, new ObjectMapper());
+
+    @Test
+    void shouldLookUpAgain_afterDeleteEventForSameSubject() {
+        assertThat(identityResolver.resolve(RealmRole.DOCTOR, "kc-7", "token").block()).isEqualTo(7L);
+        assertThat(identityResolver.resolve(RealmRole.DOCTOR, "kc-7", "token").block()).isEqualTo(7L);
+        assertThat(lookups).hasValue(1);
+
+        listener.onDoctorEvent(record("doctor-events",
+                "{\"type\":\"DELETED\",\"id\":7,\"idKeycloak\":\"kc-7\",\"occurredAt\":\"2025-04-09T12:00:00Z\"}"));
+
+        identityResolver.resolve(RealmRole.DOCTOR, "kc-7", "token").block();
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldKeepOtherRolesAndSkipTombstones() {
+        identityResolver.resolve(RealmRole.HOSPITAL, "kc-7", "token").block();
+
+        listener.onDoctorEvent(record("doctor-events", "{\"type\":\"DELETED\",\"id\":7,\"idKeycloak\":\"kc-7\"}"));
+        listener.onHospitalEvent(record("hospital-events", null));
+        listener.onHospitalEvent(record("hospital-events", "not json"));
+
+        identityResolver.resolve(RealmRole.HOSPITAL, "kc-7", "token").block();
+        assertThat(lookups).hasValue(1);
+    }
+
+    private ConsumerRecord<String, String> record(String topic, String value) {
+        return new ConsumerRecord<>(topic, 0, 0L, "7", value);
+    }
+}
@@ -0,0 +1,150 @@
+package com.visor.api_gateway.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeastLoadedLoadBalancerTest {
+
+    private static final String SERVICE_ID = "test-microservice";
+    private static final int WORKERS = 8;
+    private static final int REQUESTS_PER_WORKER = 40;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    @DisplayName("should send the request to the instance with fewer requests in flight")
+    void choose_shouldPreferFewerInFlight() {
+        AtomicLong nanos = new AtomicLong();
+        InstanceLoadTracker tracker = new InstanceLoadTracker(SERVICE_ID, meterRegistry, 1_000_000_000L,
+                10_000_000L, 1_000_000_000L, nanos::get);
+        ServiceInstance busy = instance("busy", 8081);
+        ServiceInstance idle = instance("idle", 8082);
+        LeastLoadedLoadBalancer balancer = balancer(tracker, busy, idle);
+        for (int i = 0; i < 3; i++) {
+            tracker.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(busy));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(balancer.choose(new DefaultRequest<>()).block().getServer()).isEqualTo(idle);
+        }
+        assertThat(meterRegistry.get("gateway.loadbalancer.in-flight").tag("instance", "busy").gauge().value())
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should steer traffic away from a slow instance among local stubs")
+    void choose_shouldAvoidSlowInstance() throws Exception {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        ServiceInstance fastA = stub("fast-a", 2);
+        ServiceInstance fastB = stub("fast-b", 2);
+        ServiceInstance slow = stub("slow", 150);
+        InstanceLoadTracker tracker = new InstanceLoadTracker(SERVICE_ID, meterRegistry, 200_000_000L,
+                10_000_000L, 1_000_000_000L, System::nanoTime);
+        LeastLoadedLoadBalancer balancer = balancer(tracker, fastA, fastB, slow);
+        HttpClient client = HttpClient.newHttpClient();
+        Map<String, AtomicInteger> served = new ConcurrentHashMap<>();
+
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int w = 0; w < WORKERS; w++) {
+            results.add(workers.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_WORKER; i++) {
+                    Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+                    Response<ServiceInstance> response = balancer.choose(request).block();
+                    tracker.onStartRequest(request, response);
+                    HttpResponse<String> reply = client.send(HttpRequest.newBuilder(response.getServer().getUri()).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+                    served.computeIfAbsent(reply.body(), id -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        workers.shutdown();
+
+        int total = WORKERS * REQUESTS_PER_WORKER;
+        int slowServed = served.getOrDefault("slow", new AtomicInteger()).get();
+        // round-robin would send a third of the traffic to the slow instance
+        assertThat(slowServed).isLessThan(total / 10);
+        assertThat(tracker.load(slow).inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("should let a service opt back into round-robin")
+    void strategy_shouldHonourPerServiceOverride() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.load-balancer.services.patient-microservice.strategy", "round-robin");
+
+        assertThat(LeastLoadedLoadBalancerConfiguration.strategy(environment, "PATIENT-MICROSERVICE"))
+                .isEqualTo(LeastLoadedLoadBalancerConfiguration.ROUND_ROBIN);
+        assertThat(LeastLoadedLoadBalancerConfiguration.strategy(environment, "TEST-MICROSERVICE"))
+                .isEqualTo(LeastLoadedLoadBalancerConfiguration.LEAST_LOADED);
+    }
+
+    private static LeastLoadedLoadBalancer balancer(InstanceLoadTracker tracker, ServiceInstance... instances) {
+        return new LeastLoadedLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances), tracker);
+    }
+
+    private ServiceInstance stub(String id, long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 64);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = id.getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        servers.add(server);
+        return instance(id, server.getAddress().getPort());
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, SERVICE_ID, "localhost", port, false);
+    }
+}
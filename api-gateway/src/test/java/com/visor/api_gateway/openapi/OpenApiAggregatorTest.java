@@ -0,0 +1,108 @@
+package com.visor.api_gateway.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.api_gateway.configuration.OpenAPIConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenApiAggregatorTest {
+
+    private static final String DOCTORS = "http://doctor-microservice/api/doctors/v3/api-docs";
+    private static final String HOSPITALS = "http://hospital-microservice/api/hospitals/v3/api-docs";
+
+    private static final String DOCTOR_SPEC = """
+            {"openapi":"3.0.1","servers":[{"url":"http://10.0.0.4:8081"}],
+             "paths":{"/api/doctors/{id}":{"get":{"responses":{"200":{"content":{"application/json":
+               {"schema":{"$ref":"#/components/schemas/TestDTO"}}}}}}}},
+             "components":{"schemas":{"TestDTO":{"type":"object","properties":{"id":{"type":"integer"}}},
+               "ErrorDTO":{"type":"object"}}}}
+            """;
+    private static final String HOSPITAL_SPEC = """
+            {"openapi":"3.0.1","servers":[{"url":"http://10.0.0.7:8083"}],
+             "paths":{"/api/hospitals/{id}":{"get":{"responses":{"200":{"content":{"application/json":
+               {"schema":{"$ref":"#/components/schemas/TestDTO"}}}}}}}},
+             "components":{"schemas":{"TestDTO":{"type":"object","properties":{"passcode":{"type":"string"}}},
+               "ErrorDTO":{"type":"object"}}}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+    private boolean hospitalsDown;
+    private OpenApiAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+            String url = request.url().toString();
+            fetches.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+            if (url.equals(HOSPITALS) && hospitalsDown) {
+                return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(url.equals(DOCTORS) ? DOCTOR_SPEC : HOSPITAL_SPEC)
+                    .build());
+        });
+        aggregator = new OpenApiAggregator(webClient, new OpenAPIConfiguration().gateWayOpenApi(),
+                List.of(DOCTORS, HOSPITALS), 1000, 60_000);
+    }
+
+    @Test
+    void shouldMergeSpecs_andRenameConflictingSchemas() throws IOException {
+        JsonNode merged = objectMapper.readTree(aggregator.document().block().body());
+
+        assertThat(merged.path("info").path("title").asText()).startsWith("Demo Application Microservices APIs");
+        assertThat(merged.path("servers").get(0).path("url").asText()).isEqualTo("/");
+        assertThat(merged.path("paths").has("/api/doctors/{id}")).isTrue();
+        assertThat(merged.path("components").path("schemas").has("TestDTO")).isTrue();
+        assertThat(merged.path("components").path("schemas").has("HospitalTestDTO")).isTrue();
+        assertThat(merged.path("components").path("schemas").has("HospitalErrorDTO")).isFalse();
+        assertThat(merged.at("/paths/~1api~1hospitals~1{id}/get/responses/200/content/application~1json/schema/$ref")
+                .asText()).isEqualTo("#/components/schemas/HospitalTestDTO");
+        assertThat(merged.at("/paths/~1api~1doctors~1{id}/get/responses/200/content/application~1json/schema/$ref")
+                .asText()).isEqualTo("#/components/schemas/TestDTO");
+    }
+
+    @Test
+    void shouldServeFromMemory_withEtagRevalidation() {
+        WebTestClient client = WebTestClient.bindToController(new AggregatedApiDocsController(aggregator)).build();
+
+        String etag = client.get().uri("/v3/aggregated-api-docs").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+        client.get().uri("/v3/aggregated-api-docs").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+
+        assertThat(etag).isNotBlank();
+        assertThat(fetches.get(DOCTORS)).hasValue(1);
+        assertThat(fetches.get(HOSPITALS)).hasValue(1);
+    }
+
+    @Test
+    void shouldKeepLastSpec_whenServiceIsDownOnBusRefresh() throws IOException {
+        aggregator.document().block();
+        hospitalsDown = true;
+
+        JsonNode merged = objectMapper.readTree(aggregator.refresh().block().body());
+
+        assertThat(fetches.get(HOSPITALS)).hasValue(2);
+        assertThat(merged.path("paths").has("/api/hospitals/{id}")).isTrue();
+    }
+}
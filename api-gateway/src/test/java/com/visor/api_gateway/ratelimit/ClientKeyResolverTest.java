@@ -0,0 +1,37 @@
+package com.visor.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientKeyResolverTest {
+
+    @Test
+    void shouldKeyAuthenticatedCallersBySubject() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("kc-doctor").build();
+        ServerWebExchange exchange = exchange("203.0.113.9").mutate()
+                .principal(Mono.just(new JwtAuthenticationToken(jwt))).build();
+
+        assertThat(new ClientKeyResolver(0).resolve(exchange).block()).isEqualTo("sub:kc-doctor");
+    }
+
+    @Test
+    void shouldIgnoreForwardedFor_unlessProxiesAreTrusted() {
+        assertThat(new ClientKeyResolver(0).resolve(exchange("203.0.113.9")).block()).isEqualTo("ip:10.0.0.5");
+        assertThat(new ClientKeyResolver(1).resolve(exchange("203.0.113.9")).block()).isEqualTo("ip:203.0.113.9");
+    }
+
+    private static MockServerWebExchange exchange(String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/tests/passcode/ABC123")
+                .remoteAddress(new InetSocketAddress("10.0.0.5", 51000))
+                .header("X-Forwarded-For", forwardedFor));
+    }
+}
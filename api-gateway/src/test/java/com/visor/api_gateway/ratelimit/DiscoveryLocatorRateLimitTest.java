@@ -0,0 +1,83 @@
+package com.visor.api_gateway.ratelimit;
+
+import com.visor.api_gateway.cache.InFlightRequests;
+import com.visor.api_gateway.cache.ResponseCache;
+import com.visor.api_gateway.filter.CoalesceRequestsGatewayFilterFactory;
+import com.visor.api_gateway.filter.ResponseCacheGatewayFilterFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.ssl.SslAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.HttpHandlerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.cloud.client.discovery.simple.reactive.SimpleReactiveDiscoveryClientAutoConfiguration;
+import org.springframework.cloud.commons.util.UtilAutoConfiguration;
+import org.springframework.cloud.gateway.config.GatewayAutoConfiguration;
+import org.springframework.cloud.gateway.discovery.GatewayDiscoveryClientAutoConfiguration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gateway's own {@code application.properties} routes, so the paths the discovery
+ * locator exposes under {@code /<service-id>/} are checked against the same limits as the
+ * explicit routes.
+ */
+class DiscoveryLocatorRateLimitTest {
+
+    private final ReactiveWebApplicationContextRunner contextRunner = new ReactiveWebApplicationContextRunner()
+            .withInitializer(context -> context.getEnvironment().getPropertySources().addLast(applicationProperties()))
+            .withPropertyValues("spring.cloud.discovery.client.simple.instances[TEST-MICROSERVICE][0].uri=http://localhost:9")
+            .withConfiguration(AutoConfigurations.of(WebFluxAutoConfiguration.class, HttpHandlerAutoConfiguration.class, SslAutoConfiguration.class,
+                    GatewayAutoConfiguration.class, GatewayDiscoveryClientAutoConfiguration.class,
+                    SimpleReactiveDiscoveryClientAutoConfiguration.class, UtilAutoConfiguration.class))
+            .withUserConfiguration(TokenBucketRateLimiter.class, ClientKeyResolver.class,
+                    OrderedRequestRateLimiterGatewayFilterFactory.class, ResponseCache.class,
+                    InFlightRequests.class, ResponseCacheGatewayFilterFactory.class,
+                    CoalesceRequestsGatewayFilterFactory.class);
+
+    @Test
+    void shouldThrottleLocatorRoutes_withTheDefaultLimit() {
+        contextRunner.run(context -> {
+            WebTestClient client = WebTestClient.bindToApplicationContext(context).build();
+
+            assertThat(allowedBeforeRejection(client, "/TEST-MICROSERVICE/api/tests/7")).isBetween(40, 100);
+        });
+    }
+
+    @Test
+    void shouldThrottleLocatorPasscodeLookups_inThePasscodeBucket() {
+        contextRunner.run(context -> {
+            WebTestClient client = WebTestClient.bindToApplicationContext(context).build();
+
+            assertThat(allowedBeforeRejection(client, "/TEST-MICROSERVICE/api/tests/passcode/ABC123")).isBetween(10, 20);
+            client.get().uri("/api/tests/passcode/XYZ789").exchange().expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        });
+    }
+
+    // the bucket keeps refilling while the loop runs, so a few more than the burst may get through
+    private static int allowedBeforeRejection(WebTestClient client, String path) {
+        for (int allowed = 0; allowed < 1000; allowed++) {
+            HttpStatus status = HttpStatus.valueOf(client.get().uri(path).exchange().returnResult(Void.class)
+                    .getStatus().value());
+            if (status == HttpStatus.TOO_MANY_REQUESTS) {
+                return allowed;
+            }
+        }
+        return -1;
+    }
+
+    private static ResourcePropertySource applicationProperties() {
+        try {
+            return new ResourcePropertySource(new ClassPathResource("application.properties"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.visor.api_gateway.ratelimit;
+
+import com.visor.api_gateway.cache.InFlightRequests;
+import com.visor.api_gateway.filter.CoalesceRequestsGatewayFilterFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.core.Ordered;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class OrderedRequestRateLimiterGatewayFilterFactoryTest {
+
+    private final OrderedRequestRateLimiterGatewayFilterFactory factory = new OrderedRequestRateLimiterGatewayFilterFactory(
+            new TokenBucketRateLimiter(null, null, new TokenBucketRateLimiter.Config(2, 4, 1), 100, 60_000, () -> 0L),
+            new ClientKeyResolver(0));
+
+    @Test
+    void shouldKeepTheBuiltInName() {
+        assertThat(factory.name()).isEqualTo("RequestRateLimiter");
+    }
+
+    @Test
+    void shouldRunBeforeCoalescing() {
+        GatewayFilter limiter = factory.apply(new RequestRateLimiterGatewayFilterFactory.Config());
+        GatewayFilter coalescing = new CoalesceRequestsGatewayFilterFactory(
+                new InFlightRequests(mock(ObjectProvider.class), 500, 1024, 1024))
+                .apply(new CoalesceRequestsGatewayFilterFactory.Config());
+
+        assertThat(((Ordered) limiter).getOrder()).isLessThan(((Ordered) coalescing).getOrder());
+    }
+}
@@ -0,0 +1,116 @@
+package com.visor.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final TokenBucketRateLimiter rateLimiter = rateLimiter(1000);
+
+    @Test
+    void shouldAllowBurstThenReject() {
+        for (int i = 0; i < 4; i++) {
+            Response response = rateLimiter.tryAcquire("tests", "ip:10.0.0.1");
+            assertThat(response.isAllowed()).isTrue();
+            assertThat(response.getHeaders()).containsEntry(TokenBucketRateLimiter.REMAINING_HEADER, Integer.toString(3 - i));
+        }
+
+        Response rejected = rateLimiter.tryAcquire("tests", "ip:10.0.0.1");
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getHeaders())
+                .containsEntry(TokenBucketRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(HttpHeaders.RETRY_AFTER, "1");
+    }
+
+    @Test
+    void shouldRefillAtReplenishRate() {
+        drain("tests", "ip:10.0.0.1");
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(499));
+        assertThat(rateLimiter.tryAcquire("tests", "ip:10.0.0.1").isAllowed()).isFalse();
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(rateLimiter.tryAcquire("tests", "ip:10.0.0.1").isAllowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire("tests", "ip:10.0.0.1").isAllowed()).isFalse();
+    }
+
+    @Test
+    void shouldKeepClientsAndRoutesApart() {
+        drain("tests", "ip:10.0.0.1");
+
+        assertThat(rateLimiter.tryAcquire("tests", "ip:10.0.0.2").isAllowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire("doctors", "ip:10.0.0.1").isAllowed()).isTrue();
+    }
+
+    @Test
+    void shouldApplyRouteOverrides_andFallBackToDefaultsForUnsetValues() {
+        rateLimiter.getConfig().put("passcode", new TokenBucketRateLimiter.Config(0, 1, 1));
+
+        Response first = rateLimiter.tryAcquire("passcode", "ip:10.0.0.1");
+
+        assertThat(first.isAllowed()).isTrue();
+        assertThat(first.getHeaders())
+                .containsEntry(TokenBucketRateLimiter.BURST_CAPACITY_HEADER, "1")
+                .containsEntry(TokenBucketRateLimiter.REPLENISH_RATE_HEADER, "2");
+        assertThat(rateLimiter.tryAcquire("passcode", "ip:10.0.0.1").isAllowed()).isFalse();
+    }
+
+    @Test
+    void shouldBoundTrackedKeys() {
+        TokenBucketRateLimiter bounded = rateLimiter(100);
+
+        for (int i = 0; i < 10_000; i++) {
+            bounded.tryAcquire("tests", "ip:10.0." + (i >> 8) + "." + (i & 255));
+        }
+
+        assertThat(bounded.trackedKeys()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldNeverHandOutMoreThanTheBurstUnderContention() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(null, null,
+                new TokenBucketRateLimiter.Config(1, 500, 1), 1000, 60_000, nanos::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 250; i++) {
+                    if (limiter.tryAcquire("tests", "sub:scraper").isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed).hasValue(500);
+    }
+
+    private void drain(String routeId, String key) {
+        while (rateLimiter.tryAcquire(routeId, key).isAllowed()) {
+            // take every token of the burst
+        }
+    }
+
+    private TokenBucketRateLimiter rateLimiter(long maxKeys) {
+        return new TokenBucketRateLimiter(null, null, new TokenBucketRateLimiter.Config(2, 4, 1),
+                maxKeys, 60_000, nanos::get);
+    }
+}
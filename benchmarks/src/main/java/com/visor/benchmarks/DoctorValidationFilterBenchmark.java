@@ -0,0 +1,70 @@
+package com.visor.benchmarks;
+
+import com.visor.doctor_microservice.configuration.DoctorValidationFilter;
+import com.visor.doctor_microservice.configuration.RealmRoleAuthenticationConverter;
+import com.visor.doctor_microservice.repository.DoctorRepository;
+import com.visor.doctor_microservice.service.DoctorService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DoctorValidationFilter#doFilter} for a doctor that already exists, i.e. the check every doctor
+ * request pays when it does not come through the gateway. The repository answers from memory, as the
+ * second-level cache does once the doctor has been seen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoctorValidationFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    private DoctorValidationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        DoctorRepository doctorRepository = Stubs.repository(DoctorRepository.class,
+                Map.of("existsByIdKeycloakAndDeletedAtIsNull", args -> true));
+        filter = new DoctorValidationFilter(doctorRepository, new DoctorService(doctorRepository));
+        request = new MockHttpServletRequest("GET", "/api/doctors/keycloak/kc-doctor");
+        response = new MockHttpServletResponse();
+        SecurityContextHolder.getContext().setAuthentication(new RealmRoleAuthenticationConverter(256)
+                .convert(RoleMappingBenchmark.jwt("kc-doctor", List.of("offline_access", "doctor"))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        filter.doFilter(request, response, CHAIN);
+        return response;
+    }
+}
@@ -0,0 +1,92 @@
+package com.visor.benchmarks;
+
+import com.visor.doctor_microservice.entity.Doctor;
+import com.visor.doctor_microservice.mapper.DoctorMapper;
+import com.visor.hospital_microservice.entity.Hospital;
+import com.visor.hospital_microservice.mapper.HospitalMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The property copy of {@code patchDoctor} and {@code patchHospital}: the generated mappers against the
+ * reflective {@link BeanWrapperImpl} path they replaced, kept here as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatchBenchmark {
+
+    private static final List<String> RESTRICTED = List.of("id", "idKeycloak", "createdAt", "deletedAt");
+
+    private Doctor partialDoctor;
+    private Doctor doctor;
+    private Hospital partialHospital;
+    private Hospital hospital;
+
+    @Setup
+    public void setUp() {
+        partialDoctor = Doctor.builder().licenseNumber("ABC123").phoneNumber("+54912345678").build();
+        doctor = Doctor.builder().id(1L).idKeycloak("kc-doctor").firstName("Diego").lastName("Bustos")
+                .dateOfBirth(LocalDate.of(2000, 2, 16)).gender("Male").email("diegombustos16@gmail.com")
+                .createdAt(Instant.now()).build();
+        partialHospital = Hospital.builder().name("Hospital Central").phoneNumber("+54912345678").build();
+        hospital = Hospital.builder().id(1L).idKeycloak("kc-hospital").name("Hospital").address("Mendoza")
+                .email("diegombustos16@gmail.com").createdAt(Instant.now()).build();
+    }
+
+    @Benchmark
+    public Doctor doctorMapper() {
+        DoctorMapper.INSTANCE.patch(partialDoctor, doctor);
+        return doctor;
+    }
+
+    @Benchmark
+    public Doctor doctorBeanWrapper() {
+        BeanUtils.copyProperties(partialDoctor, doctor, nullOrRestrictedProperties(partialDoctor));
+        return doctor;
+    }
+
+    @Benchmark
+    public Hospital hospitalMapper() {
+        HospitalMapper.INSTANCE.patch(partialHospital, hospital);
+        return hospital;
+    }
+
+    @Benchmark
+    public Hospital hospitalBeanWrapper() {
+        BeanUtils.copyProperties(partialHospital, hospital, nullOrRestrictedProperties(partialHospital));
+        return hospital;
+    }
+
+    private static String[] nullOrRestrictedProperties(Object source) {
+        BeanWrapper wrapper = new BeanWrapperImpl(source);
+        List<String> nullOrRestricted = new ArrayList<>();
+        for (var pd : wrapper.getPropertyDescriptors()) {
+            String propertyName = pd.getName();
+            if (wrapper.getPropertyValue(propertyName) == null || RESTRICTED.contains(propertyName)) {
+                nullOrRestricted.add(propertyName);
+            }
+        }
+        return nullOrRestricted.toArray(new String[0]);
+    }
+}
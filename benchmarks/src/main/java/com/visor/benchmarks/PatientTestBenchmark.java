@@ -0,0 +1,61 @@
+package com.visor.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.test_microservice.dto.PatientTestDTO;
+import com.visor.test_microservice.service.TestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening a test by passcode: assembling the {@link PatientTestDTO} in
+ * {@link TestService#getPatientTestByPasscode} and writing it with an {@link ObjectMapper} set up like
+ * Spring Boot's. The sizes go from a single X-ray to a CT study of three 300-slice stacks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientTestBenchmark {
+
+    @Param({"1", "3"})
+    private int stacks;
+
+    @Param({"1", "300"})
+    private int slices;
+
+    private TestService testService;
+    private ObjectMapper objectMapper;
+    private PatientTestDTO dto;
+
+    @Setup
+    public void setUp() {
+        testService = PatientTestFixture.testService(stacks, slices);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        dto = testService.getPatientTestByPasscode(PatientTestFixture.PASSCODE);
+    }
+
+    @Benchmark
+    public PatientTestDTO assembleByPasscode() {
+        return testService.getPatientTestByPasscode(PatientTestFixture.PASSCODE);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+}
@@ -0,0 +1,89 @@
+package com.visor.benchmarks;
+
+import com.visor.test_microservice.entity.FileAttachment;
+import com.visor.test_microservice.entity.ImageFile;
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.entity.TestEntity;
+import com.visor.test_microservice.repository.FileAttachmentRepository;
+import com.visor.test_microservice.repository.ImageFileRepository;
+import com.visor.test_microservice.repository.ImageStackRepository;
+import com.visor.test_microservice.repository.TestRepository;
+import com.visor.test_microservice.service.TestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A test as stored by test-microservice: {@code stacks} image stacks of {@code slices} slices each,
+ * plus a few attachments, served to {@link TestService} from memory.
+ */
+final class PatientTestFixture {
+
+    static final String PASSCODE = "a1b2c3d4e5";
+    private static final String TEST_ID = "67cb1a468fd12818a2a57235";
+    private static final String BUCKET_URL = "https://medical-test-visor.s3.us-east-1.amazonaws.com/";
+
+    private PatientTestFixture() {
+    }
+
+    static TestService testService(int stacks, int slices) {
+        Instant createdAt = Instant.parse("2025-03-07T14:21:08.512Z");
+        TestEntity test = new TestEntity();
+        test.setId(TEST_ID);
+        test.setDoctorId(12L);
+        test.setPatientId(4821L);
+        test.setHospitalId(3L);
+        test.setCreatedAt(createdAt);
+        test.setPassCode(PASSCODE);
+
+        List<ImageStack> imageStacks = new ArrayList<>(stacks);
+        List<List<ImageFile>> imageFiles = new ArrayList<>(stacks);
+        for (int s = 0; s < stacks; s++) {
+            ImageStack stack = new ImageStack();
+            stack.setId(String.valueOf(s));
+            stack.setStackName("Series " + (s + 1));
+            stack.setTestId(TEST_ID);
+            stack.setCreatedAt(createdAt);
+            imageStacks.add(stack);
+
+            List<ImageFile> files = new ArrayList<>(slices);
+            for (int i = 0; i < slices; i++) {
+                ImageFile file = new ImageFile();
+                file.setId(TEST_ID.substring(0, 16) + String.format("%08x", s * slices + i));
+                file.setFileUrl(BUCKET_URL + "tests/" + TEST_ID + "/stacks/" + s + "/slice-" + String.format("%04d", i) + ".dcm");
+                file.setImageStackId(stack.getId());
+                file.setCreatedAt(createdAt);
+                files.add(file);
+            }
+            imageFiles.add(files);
+        }
+
+        List<FileAttachment> attachments = new ArrayList<>();
+        for (String name : List.of("Doctor Report", "Consent Form")) {
+            FileAttachment attachment = new FileAttachment();
+            attachment.setId(name.replace(' ', '-'));
+            attachment.setFileName(name);
+            attachment.setFileUrl(BUCKET_URL + "tests/" + TEST_ID + "/attachments/" + attachment.getId() + ".pdf");
+            attachment.setTestId(TEST_ID);
+            attachment.setCreatedAt(createdAt);
+            attachments.add(attachment);
+        }
+
+        TestService service = new TestService(
+                Stubs.repository(ImageStackRepository.class,
+                        Map.of("findByTestIdAndDeletedAtIsNull", args -> imageStacks)),
+                Stubs.repository(ImageFileRepository.class,
+                        Map.of("findByImageStackIdAndDeletedAtIsNull", args -> imageFiles.get(Integer.parseInt((String) args[0])))),
+                Stubs.repository(FileAttachmentRepository.class,
+                        Map.of("findByTestIdAndDeletedAtIsNull", args -> attachments)),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "testRepository", Stubs.repository(TestRepository.class,
+                Map.of("findByPassCodeAndDeletedAtIsNull", args -> Optional.of(test))));
+        return service;
+    }
+}
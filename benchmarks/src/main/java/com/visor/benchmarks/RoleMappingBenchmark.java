@@ -0,0 +1,79 @@
+package com.visor.benchmarks;
+
+import com.visor.doctor_microservice.configuration.RealmRole;
+import com.visor.doctor_microservice.configuration.RealmRoleAuthenticationConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code jwtAuthenticationConverter} bean turning a verified token into an authentication and the
+ * role check that follows it, against the stream-based {@link JwtAuthenticationConverter} the services
+ * used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleMappingBenchmark {
+
+    private Jwt jwt;
+    private RealmRoleAuthenticationConverter realmRoleConverter;
+    private JwtAuthenticationConverter streamConverter;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        jwt = jwt("kc-doctor", List.of("default-roles-visor", "offline_access", "uma_authorization", "doctor"));
+        realmRoleConverter = new RealmRoleAuthenticationConverter(256);
+        streamConverter = new JwtAuthenticationConverter();
+        streamConverter.setJwtGrantedAuthoritiesConverter(token -> {
+            Map<String, Object> realmAccess = token.getClaim("realm_access");
+            List<String> roles = (List<String>) realmAccess.get("roles");
+            return roles.stream()
+                    .map(role -> "ROLE_" + role)
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Benchmark
+    public boolean realmRoleConverter() {
+        return RealmRole.DOCTOR.isGrantedTo(realmRoleConverter.convert(jwt));
+    }
+
+    @Benchmark
+    public boolean streamConverter() {
+        return streamConverter.convert(jwt).getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_doctor"));
+    }
+
+    static Jwt jwt(String subject, List<String> roles) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(subject)
+                .claim("email", subject + "@visor.test")
+                .claim("realm_access", Map.of("roles", roles))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
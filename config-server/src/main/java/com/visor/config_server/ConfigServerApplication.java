@@ -2,6 +2,9 @@ package com.visor.config_server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.cloud.config.server.EnableConfigServer;
 
 @SpringBootApplication
@@ -9,7 +12,14 @@ import org.springframework.cloud.config.server.EnableConfigServer;
 public class ConfigServerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ConfigServerApplication.class, args);
+		SpringApplication application = new SpringApplication(ConfigServerApplication.class);
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		if (environment.matchesProfiles("fast-startup")) {
+			// read through the actuator startup endpoint
+			application.setApplicationStartup(new BufferingApplicationStartup(10000));
+		}
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,39 @@
+package com.visor.config_server.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.stream.binding.BindingsLifecycleController;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * The deferred cloud bus consumer of the {@code fast-startup} profile (see the README's Fast startup section).
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "startup.deferred-bus.enabled", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> deferredBusStart(
+            ObjectProvider<BindingsLifecycleController> bindings,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor) {
+        return event -> bindings.ifAvailable(controller -> taskExecutor.execute(() -> {
+            try {
+                controller.start(BusConstants.INPUT);
+                log.info("Started the deferred cloud bus consumer");
+            } catch (RuntimeException e) {
+                log.warn("Could not start the deferred cloud bus consumer, config refresh events are not received", e);
+            }
+        }));
+    }
+}
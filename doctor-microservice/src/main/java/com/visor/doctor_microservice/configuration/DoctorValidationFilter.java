@@ -57,18 +57,16 @@ public class DoctorValidationFilter extends GenericFilterBean {
             String firstName = jwt.getClaim("given_name");
             String lastName = jwt.getClaim("family_name");
 
-            boolean isDoctor = jwtAuth.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_doctor"));
+            boolean isDoctor = RealmRole.DOCTOR.isGrantedTo(jwtAuth);
 
-            boolean isHospital = jwtAuth.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_hospital"));
+            boolean isHospital = RealmRole.HOSPITAL.isGrantedTo(jwtAuth);
 
             if (isHospital && !matchesAllowedPatterns(path)) {
                 ((HttpServletResponse) response).sendError(HttpServletResponse.SC_FORBIDDEN, "Acceso restringido.");
                 return;
             }
 
-            if (isDoctor) {
+            if (isDoctor && !isResolvedByGateway(request)) {
                 if (!doctorRepository.existsByIdKeycloakAndDeletedAtIsNull(keycloakId)) {
                     if (!doctorRepository.existsByIdKeycloakAndDeletedAtIsNotNull(keycloakId)) {
                         Doctor newDoctor = new Doctor();
@@ -88,6 +86,16 @@ public class DoctorValidationFilter extends GenericFilterBean {
         chain.doFilter(request, response);
     }
 
+    /**
+     * The api-gateway resolves an id only for a user that was active when it looked it up, and drops
+     * it from its cache when the user's domain event arrives, so the lookups below can be skipped when
+     * it signed one. A user deleted in the meantime is still let through until that event reaches it.
+     */
+    private boolean isResolvedByGateway(ServletRequest request) {
+        GatewayIdentity identity = GatewayIdentity.from(request);
+        return identity != null && identity.doctorId() != null;
+    }
+
     private boolean matchesAllowedPatterns(String path) {
         return HOSPITAL_ALLOWED_PATTERNS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
     }
@@ -0,0 +1,74 @@
+package com.visor.doctor_microservice.configuration;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+/**
+ * Keycloak realm roles the services authorize on. Each role owns one bit of the mask carried by
+ * {@link RealmRoleAuthenticationToken} and a single shared {@link GrantedAuthority} instance.
+ */
+public enum RealmRole {
+
+    DOCTOR("doctor"),
+    HOSPITAL("hospital");
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final String roleName;
+    private final int bit;
+    private final GrantedAuthority authority;
+
+    RealmRole(String roleName) {
+        this.roleName = roleName;
+        this.bit = 1 << ordinal();
+        this.authority = new SimpleGrantedAuthority("ROLE_" + roleName);
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public GrantedAuthority authority() {
+        return authority;
+    }
+
+    public boolean isIn(int roles) {
+        return (roles & bit) != 0;
+    }
+
+    public static RealmRole fromName(String roleName) {
+        for (RealmRole role : values()) {
+            if (role.roleName.equals(roleName)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * True when the authentication was produced by {@link RealmRoleAuthenticationConverter} and
+     * carries {@code role}.
+     */
+    public boolean isGrantedTo(Authentication authentication) {
+        return authentication instanceof RealmRoleAuthenticationToken token && isIn(token.getRoles());
+    }
+
+    /**
+     * Request authorization equivalent to {@code hasAnyRole(...)} that tests the role mask instead
+     * of scanning the authorities.
+     */
+    public static AuthorizationManager<RequestAuthorizationContext> anyOf(RealmRole... roles) {
+        int mask = 0;
+        for (RealmRole role : roles) {
+            mask |= role.bit;
+        }
+        int required = mask;
+        return (authentication, context) -> authentication.get() instanceof RealmRoleAuthenticationToken token
+                && (token.getRoles() & required) != 0 ? GRANTED : DENIED;
+    }
+}
@@ -1,18 +1,22 @@
 package com.visor.doctor_microservice.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -25,7 +29,8 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   GatewayTrustAuthenticationManagerResolver authenticationManagerResolver) throws Exception {
 
         http.authorizeHttpRequests(auth -> auth
                         .requestMatchers(
@@ -34,33 +39,53 @@ public class SecurityConfiguration {
                                 "/api/doctors/swagger-resources/**",
                                 "/api/doctors/webjars/**"
                         ).permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/doctors/**").hasAnyRole("doctor", "hospital")
-                        .anyRequest().hasRole("doctor"))
+                        .requestMatchers(EndpointRequest.to("prometheus")).permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/doctors/**").access(RealmRole.anyOf(RealmRole.DOCTOR, RealmRole.HOSPITAL))
+                        .anyRequest().access(RealmRole.anyOf(RealmRole.DOCTOR)))
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                        .authenticationManagerResolver(authenticationManagerResolver)
                 )
                 .addFilterBefore(doctorValidationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Maps {@code realm_access.roles} to authorities and a role mask, resolved once per distinct role
+     * list (see {@link RealmRoleAuthenticationConverter}).
+     */
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-            if (realmAccess == null || realmAccess.isEmpty()) return List.of();
-
-            List<String> roles = (List<String>) realmAccess.get("roles");
-            if (roles == null) return List.of();
+    public RealmRoleAuthenticationConverter jwtAuthenticationConverter() {
+        return new RealmRoleAuthenticationConverter(256);
+    }
 
-            return roles.stream()
-                    .map(role -> "ROLE_" + role)
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
-        });
+    /**
+     * Verifies tokens against the issuer, resolved lazily so startup does not depend on Keycloak,
+     * and skips verification for tokens already verified (see {@link CachingJwtDecoder}).
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(OAuth2ResourceServerProperties properties,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${security.jwt-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${security.jwt-cache.max-ttl:PT5M}") Duration maxTtl) {
+        String issuerUri = properties.getJwt().getIssuerUri();
+        CachingJwtDecoder decoder = new CachingJwtDecoder(
+                new SupplierJwtDecoder(() -> JwtDecoders.fromIssuerLocation(issuerUri)), maximumSize, maxTtl);
+        meterRegistry.ifAvailable(decoder::bindTo);
+        return decoder;
+    }
 
-        return converter;
+    /**
+     * Lets requests signed by the api-gateway skip signature verification when
+     * {@code security.gateway-trust.enabled} is set (see {@link GatewayTrustAuthenticationManagerResolver}).
+     */
+    @Bean
+    public GatewayTrustAuthenticationManagerResolver authenticationManagerResolver(
+            JwtDecoder jwtDecoder,
+            @Value("${security.gateway-trust.enabled:false}") boolean enabled,
+            @Value("${security.gateway-trust.secret:}") String secret,
+            @Value("${security.gateway-trust.max-age-ms:30000}") long maxAgeMillis) {
+        return new GatewayTrustAuthenticationManagerResolver(jwtDecoder, jwtAuthenticationConverter(), enabled, secret,
+                maxAgeMillis);
     }
 }
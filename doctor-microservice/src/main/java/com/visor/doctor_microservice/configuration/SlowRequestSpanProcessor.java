@@ -0,0 +1,145 @@
+package com.visor.doctor_microservice.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs the span breakdown of requests slower than a threshold.
+ *
+ * <p>Spans are held per trace until the trace's local root ends: the server span of a request, or
+ * the consumer span of a Kafka record. If the root took at least the threshold, its spans are logged
+ * as a tree, each with its offset from the start of the request and its duration, under the trace id
+ * that also tags the request's other log lines. Traces whose root never ends here are bounded by
+ * {@code maximumTraces} and dropped after {@code maximumAge}. Roots that are not requests, such as
+ * connections opened at startup or scheduled jobs, are never logged.
+ *
+ * <p>Only sampled requests get here: the spans of the others are not recorded, so a slow request is
+ * logged with the probability set by {@code management.tracing.sampling.probability}.
+ */
+public class SlowRequestSpanProcessor implements SpanProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestSpanProcessor.class);
+
+    private static final Set<SpanKind> REQUEST_KINDS = EnumSet.of(SpanKind.SERVER, SpanKind.CONSUMER);
+
+    private static final List<AttributeKey<String>> DETAIL_ATTRIBUTES = List.of(
+            AttributeKey.stringKey("jdbc.query[0]"),
+            AttributeKey.stringKey("db.operation"),
+            AttributeKey.stringKey("http.url"),
+            AttributeKey.stringKey("uri"));
+
+    private final long thresholdNanos;
+    private final Cache<String, Queue<SpanData>> pending;
+
+    public SlowRequestSpanProcessor(Duration threshold, long maximumTraces, Duration maximumAge) {
+        this.thresholdNanos = threshold.toNanos();
+        this.pending = Caffeine.newBuilder()
+                .maximumSize(maximumTraces)
+                .expireAfterWrite(maximumAge)
+                .build();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData data = span.toSpanData();
+        if (!isLocalRoot(data.getParentSpanContext())) {
+            pending.get(data.getTraceId(), traceId -> new ConcurrentLinkedQueue<>()).add(data);
+            return;
+        }
+        Queue<SpanData> children = pending.asMap().remove(data.getTraceId());
+        if (REQUEST_KINDS.contains(data.getKind()) && duration(data) >= thresholdNanos && log.isWarnEnabled()) {
+            log.warn("Slow request {} took {} ms, trace {}:\n{}", data.getName(), millis(duration(data)),
+                    data.getTraceId(), breakdown(data, children == null ? List.of() : children));
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.invalidateAll();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static boolean isLocalRoot(SpanContext parent) {
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    static String breakdown(SpanData root, Iterable<SpanData> spans) {
+        Map<String, List<SpanData>> childrenByParent = new HashMap<>();
+        for (SpanData span : spans) {
+            childrenByParent.computeIfAbsent(span.getParentSpanId(), parent -> new ArrayList<>()).add(span);
+        }
+        childrenByParent.values().forEach(children -> children.sort(Comparator.comparingLong(SpanData::getStartEpochNanos)));
+
+        StringBuilder out = new StringBuilder();
+        append(out, root, root.getStartEpochNanos(), 0, childrenByParent);
+        return out.toString().stripTrailing();
+    }
+
+    private static void append(StringBuilder out, SpanData span, long requestStart, int depth,
+                               Map<String, List<SpanData>> childrenByParent) {
+        out.append("  ".repeat(depth + 1))
+                .append('+').append(millis(span.getStartEpochNanos() - requestStart)).append(" ms ")
+                .append(span.getName())
+                .append(" (").append(millis(duration(span))).append(" ms)");
+        for (AttributeKey<String> key : DETAIL_ATTRIBUTES) {
+            String detail = span.getAttributes().get(key);
+            if (detail != null) {
+                out.append(' ').append(detail);
+                break;
+            }
+        }
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            out.append(" [error]");
+        }
+        out.append('\n');
+        for (SpanData child : childrenByParent.getOrDefault(span.getSpanId(), List.of())) {
+            append(out, child, requestStart, depth + 1, childrenByParent);
+        }
+    }
+
+    private static long duration(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
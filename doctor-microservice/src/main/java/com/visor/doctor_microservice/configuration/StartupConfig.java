@@ -0,0 +1,75 @@
+package com.visor.doctor_microservice.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.stream.binding.BindingsLifecycleController;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.List;
+
+/**
+ * Lazy beans and the deferred cloud bus consumer of the {@code fast-startup} profile (see the README's Fast
+ * startup section).
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfig.class);
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyStartupBeans(Environment environment) {
+        List<String> prefixes = Binder.get(environment)
+                .bind("startup.lazy-types", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            if (prefixes.isEmpty()) {
+                return;
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String type = declaringClassName(beanFactory, definition);
+                if (type != null && prefixes.stream().anyMatch(type::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    /** The bean's class, or for a {@code @Bean} method the configuration class that declares it. */
+    private static String declaringClassName(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (definition.getFactoryBeanName() != null && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            return beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+        return definition.getBeanClassName();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "startup.deferred-bus.enabled", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> deferredBusStart(
+            ObjectProvider<BindingsLifecycleController> bindings,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor) {
+        return event -> bindings.ifAvailable(controller -> taskExecutor.execute(() -> {
+            try {
+                controller.start(BusConstants.INPUT);
+                log.info("Started the deferred cloud bus consumer");
+            } catch (RuntimeException e) {
+                log.warn("Could not start the deferred cloud bus consumer, config refresh events are not received", e);
+            }
+        }));
+    }
+}
@@ -0,0 +1,69 @@
+package com.visor.doctor_microservice.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL statements run on one thread between {@link StatementCounter#start()} and {@link #close()},
+ * grouped by shape. Bind parameters are already placeholders; literals, {@code IN} lists of any
+ * length and whitespace are normalized as well, so the same query run once per loaded row shows up
+ * as one shape with a high count.
+ */
+public final class StatementCounts implements AutoCloseable {
+
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final StatementCounts previous;
+    private final Map<String, Integer> byShape = new LinkedHashMap<>();
+    private int total;
+
+    StatementCounts(StatementCounts previous) {
+        this.previous = previous;
+    }
+
+    void record(String sql) {
+        total++;
+        byShape.merge(shape(sql), 1, Integer::sum);
+    }
+
+    StatementCounts previous() {
+        return previous;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    /** Statement count per shape, in the order each shape first ran. */
+    public Map<String, Integer> byShape() {
+        return Collections.unmodifiableMap(byShape);
+    }
+
+    /** The shape that ran most often, if any statement ran at all. */
+    public Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return byShape.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+
+    static String shape(String sql) {
+        String shape = LITERAL.matcher(sql).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    @Override
+    public void close() {
+        StatementCounter.end(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder().append(total).append(" statements");
+        byShape.forEach((shape, count) -> out.append("\n  ").append(count).append("x ").append(shape));
+        return out.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.visor.doctor_microservice.controller;
 
+import com.visor.doctor_microservice.configuration.GatewayIdentity;
 import com.visor.doctor_microservice.entity.Doctor;
 import com.visor.doctor_microservice.service.DoctorService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,17 +11,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 @RestController
 @RequestMapping("/api/doctors")
 @RequiredArgsConstructor
 public class DoctorController {
 
+    private static final CacheControl READ_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate();
+    private static final String GATEWAY_CACHE_CONTROL = "max-age=60";
+
     private final DoctorService doctorService;
 
     @Operation(summary = "Get All Doctors",
@@ -46,7 +52,7 @@ public class DoctorController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id) {
-        return ResponseEntity.ok(doctorService.getDoctorById(id));
+        return ResponseEntity.ok().cacheControl(READ_CACHE_CONTROL).header("Surrogate-Control", GATEWAY_CACHE_CONTROL).body(doctorService.getDoctorById(id));
     }
 
     @Operation(summary = "Get Doctor by Keycloak ID",
@@ -90,7 +96,7 @@ public class DoctorController {
 
         if (authentication instanceof JwtAuthenticationToken jwtAuth) {
             String keycloakId = jwtAuth.getToken().getSubject();
-            Long idDoctor = doctorService.getDoctorIdByKeycloakId(keycloakId);
+            Long idDoctor = GatewayIdentity.currentDoctorId(() -> doctorService.getDoctorIdByKeycloakId(keycloakId));
 
             doctor.setId(idDoctor);
             doctor.setIdKeycloak(keycloakId);
@@ -114,7 +120,7 @@ public class DoctorController {
 
         if (authentication instanceof JwtAuthenticationToken jwtAuth) {
             String keycloakId = jwtAuth.getToken().getSubject();
-            Long idDoctor = doctorService.getDoctorIdByKeycloakId(keycloakId);
+            Long idDoctor = GatewayIdentity.currentDoctorId(() -> doctorService.getDoctorIdByKeycloakId(keycloakId));
 
             doctorService.deleteDoctor(idDoctor);
             return ResponseEntity.noContent().build();
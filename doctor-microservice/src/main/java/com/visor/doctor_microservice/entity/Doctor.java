@@ -1,15 +1,24 @@
 package com.visor.doctor_microservice.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.visor.doctor_microservice.event.DoctorEntityListener;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
+@NaturalIdCache(region = "doctor-natural-id")
+@EntityListeners(DoctorEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +31,7 @@ public class Doctor {
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, updatable = false, unique = true)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private String idKeycloak;
@@ -0,0 +1,30 @@
+package com.visor.doctor_microservice.event;
+
+import com.visor.doctor_microservice.entity.Doctor;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns doctor writes into {@link DoctorEvent}s. A soft delete is an update that sets
+ * {@code deletedAt}, so it is published as {@link DomainEventType#DELETED}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    public void onCreated(Doctor doctor) {
+        applicationEventPublisher.publishEvent(DoctorEvent.of(DomainEventType.CREATED, doctor));
+    }
+
+    @PostUpdate
+    public void onUpdated(Doctor doctor) {
+        DomainEventType type = doctor.getDeletedAt() == null ? DomainEventType.UPDATED : DomainEventType.DELETED;
+        applicationEventPublisher.publishEvent(DoctorEvent.of(type, doctor));
+    }
+}
@@ -0,0 +1,24 @@
+package com.visor.doctor_microservice.event;
+
+import com.visor.doctor_microservice.entity.Doctor;
+
+import java.time.Instant;
+
+public record DoctorEvent(DomainEventType type, Long id, String idKeycloak, Instant occurredAt) implements DomainEvent {
+
+    public static final String TOPIC = "doctor-events";
+
+    public static DoctorEvent of(DomainEventType type, Doctor doctor) {
+        return new DoctorEvent(type, doctor.getId(), doctor.getIdKeycloak(), Instant.now());
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(id);
+    }
+}
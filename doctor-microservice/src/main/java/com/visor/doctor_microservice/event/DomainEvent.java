@@ -0,0 +1,12 @@
+package com.visor.doctor_microservice.event;
+
+/**
+ * Event published to a compacted Kafka topic. The key is the entity id, so compaction keeps the
+ * latest state of every entity and a new consumer can rebuild it by reading the topic from the start.
+ */
+public interface DomainEvent {
+
+    String topic();
+
+    String key();
+}
@@ -0,0 +1,42 @@
+package com.visor.doctor_microservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends domain events to Kafka once the transaction that produced them has committed, so
+ * consumers never see a write that was rolled back. Payloads are plain JSON without type
+ * headers, which keeps consumers free of this service's classes.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(DomainEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event, e);
+        }
+
+        kafkaTemplate.send(event.topic(), event.key(), payload)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish {} to {}", event, event.topic(), ex);
+                    }
+                });
+    }
+}
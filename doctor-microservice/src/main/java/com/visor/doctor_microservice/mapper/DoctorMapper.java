@@ -0,0 +1,26 @@
+package com.visor.doctor_microservice.mapper;
+
+import com.visor.doctor_microservice.entity.Doctor;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Partial update of a {@link Doctor}, generated at compile time. Null properties of the source are
+ * skipped, and the restricted properties are never copied.
+ */
+@Mapper
+public interface DoctorMapper {
+
+    DoctorMapper INSTANCE = Mappers.getMapper(DoctorMapper.class);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "idKeycloak", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    void patch(Doctor partial, @MappingTarget Doctor existing);
+}
@@ -0,0 +1,13 @@
+package com.visor.doctor_microservice.repository;
+
+import com.visor.doctor_microservice.entity.Doctor;
+
+import java.util.Optional;
+
+/**
+ * Loads a doctor by its Keycloak id through Hibernate's natural-id API, which is answered from
+ * the second-level cache once the doctor has been seen, whether or not it is soft-deleted.
+ */
+public interface DoctorNaturalIdRepository {
+    Optional<Doctor> findByNaturalIdKeycloak(String idKeycloak);
+}
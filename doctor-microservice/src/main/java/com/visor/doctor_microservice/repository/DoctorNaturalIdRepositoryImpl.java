@@ -0,0 +1,21 @@
+package com.visor.doctor_microservice.repository;
+
+import com.visor.doctor_microservice.entity.Doctor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class DoctorNaturalIdRepositoryImpl implements DoctorNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Doctor> findByNaturalIdKeycloak(String idKeycloak) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Doctor.class).loadOptional(idKeycloak);
+    }
+}
@@ -1,27 +1,49 @@
 package com.visor.doctor_microservice.repository;
 
 import com.visor.doctor_microservice.entity.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * The soft-delete lookups by id and Keycloak id resolve the doctor by primary key or natural id and
+ * check {@code deletedAt} on the cached entity, so a repeat lookup issues no SQL. The license number
+ * can be patched, so it is not a natural id; its lookup goes through the query cache, which any
+ * write to the table invalidates. Writes made by another instance are seen once the cached entries
+ * and query results expire, see {@code application.conf}.
+ */
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, DoctorNaturalIdRepository {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Doctor> findByLicenseNumberAndDeletedAtIsNull(String licenseNumber);
 
-    boolean existsByIdAndDeletedAtIsNull(Long id);
+    default boolean existsByIdAndDeletedAtIsNull(Long id) {
+        return findByIdAndDeletedAtIsNull(id).isPresent();
+    }
 
-    boolean existsByIdKeycloakAndDeletedAtIsNull(String id);
+    default boolean existsByIdKeycloakAndDeletedAtIsNull(String id) {
+        return findByIdKeycloakAndDeletedAtIsNull(id).isPresent();
+    }
 
-    boolean existsByIdKeycloakAndDeletedAtIsNotNull(String id);
+    default boolean existsByIdKeycloakAndDeletedAtIsNotNull(String id) {
+        return findByNaturalIdKeycloak(id).filter(doctor -> doctor.getDeletedAt() != null).isPresent();
+    }
 
     Optional<Doctor> findById(Long id);
 
-    Optional<Doctor> findByIdAndDeletedAtIsNull(Long id);
+    default Optional<Doctor> findByIdAndDeletedAtIsNull(Long id) {
+        return findById(id).filter(doctor -> doctor.getDeletedAt() == null);
+    }
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List <Doctor> findAllByDeletedAtIsNull();
 
-    Optional<Doctor> findByIdKeycloakAndDeletedAtIsNull(String id);
+    default Optional<Doctor> findByIdKeycloakAndDeletedAtIsNull(String id) {
+        return findByNaturalIdKeycloak(id).filter(doctor -> doctor.getDeletedAt() == null);
+    }
 }
@@ -2,6 +2,7 @@ package com.visor.doctor_microservice.service;
 
 
 import com.visor.doctor_microservice.entity.Doctor;
+import com.visor.doctor_microservice.mapper.DoctorMapper;
 import com.visor.doctor_microservice.exception.DuplicateResourceException;
 import com.visor.doctor_microservice.repository.DoctorRepository;
 import jakarta.transaction.Transactional;
@@ -9,12 +10,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import com.visor.doctor_microservice.exception.ResourceNotFoundException;
-import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -60,7 +57,7 @@ public class DoctorService {
         Doctor existing = doctorRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No active doctor found with ID: " + id));
 
-        BeanUtils.copyProperties(partialDoctor, existing, getNullOrRestrictedProperties(partialDoctor));
+        DoctorMapper.INSTANCE.patch(partialDoctor, existing);
         return doctorRepository.save(existing);
     }
 
@@ -72,21 +69,4 @@ public class DoctorService {
         doctor.setDeletedAt(Instant.now());
         doctorRepository.save(doctor);
     }
-
-    private String[] getNullOrRestrictedProperties(Object source) {
-        final BeanWrapper wrapper = new BeanWrapperImpl(source);
-
-        List<String> nullOrRestricted = new ArrayList<>();
-
-        for (var pd : wrapper.getPropertyDescriptors()) {
-            String propertyName = pd.getName();
-            Object value = wrapper.getPropertyValue(propertyName);
-
-            if (value == null || List.of("id", "idKeycloak", "createdAt", "deletedAt").contains(propertyName)) {
-                nullOrRestricted.add(propertyName);
-            }
-        }
-
-        return nullOrRestricted.toArray(new String[0]);
-    }
 }
@@ -0,0 +1,14 @@
+-- Schema as previously generated by Hibernate. Existing databases are baselined at this version.
+CREATE TABLE doctor (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_keycloak    VARCHAR(255)                NOT NULL UNIQUE,
+    license_number VARCHAR(50) UNIQUE,
+    first_name     VARCHAR(100),
+    last_name      VARCHAR(100),
+    date_of_birth  DATE,
+    gender         VARCHAR(255),
+    email          VARCHAR(255)                NOT NULL UNIQUE,
+    phone_number   VARCHAR(255) UNIQUE,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    deleted_at     TIMESTAMP(6) WITH TIME ZONE
+);
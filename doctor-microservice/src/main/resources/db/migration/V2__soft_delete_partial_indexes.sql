@@ -0,0 +1,8 @@
+-- Every lookup filters on deleted_at IS NULL, so index only the live rows.
+-- id is included so existsByIdKeycloakAndDeletedAtIsNull is answered by an index-only scan.
+CREATE UNIQUE INDEX doctor_live_id_keycloak_idx ON doctor (id_keycloak) INCLUDE (id) WHERE deleted_at IS NULL;
+
+CREATE UNIQUE INDEX doctor_live_license_number_idx ON doctor (license_number) WHERE deleted_at IS NULL;
+
+-- existsByIdAndDeletedAtIsNull without a heap visit to read deleted_at.
+CREATE UNIQUE INDEX doctor_live_id_idx ON doctor (id) WHERE deleted_at IS NULL;
@@ -0,0 +1,101 @@
+package com.visor.doctor_microservice.repository;
+
+import com.visor.doctor_microservice.entity.Doctor;
+import com.visor.doctor_microservice.service.DoctorService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each repository call runs in its own session, so anything not issuing SQL on the repeat lookups
+ * was answered by the second-level or query cache.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import(DoctorService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DoctorSecondLevelCacheTest {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = UUID.randomUUID().toString();
+        doctor = doctorRepository.save(Doctor.builder().idKeycloak(suffix).licenseNumber("LIC-" + suffix.substring(0, 8))
+                .email(suffix + "@example.com").firstName("Diego").build());
+    }
+
+    @Test
+    @DisplayName("should answer repeat lookups by id, Keycloak id, license number and the active listing without SQL")
+    void repeatLookups_shouldIssueNoSql() {
+        doctorRepository.findByIdKeycloakAndDeletedAtIsNull(doctor.getIdKeycloak());
+        doctorRepository.findByIdAndDeletedAtIsNull(doctor.getId());
+        doctorRepository.findByLicenseNumberAndDeletedAtIsNull(doctor.getLicenseNumber());
+        doctorRepository.findAllByDeletedAtIsNull();
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(doctorService.getDoctorIdByKeycloakId(doctor.getIdKeycloak())).isEqualTo(doctor.getId());
+            assertThat(doctorService.getDoctorById(doctor.getId()).getFirstName()).isEqualTo("Diego");
+            assertThat(doctorService.getDoctorByLicenseNumber(doctor.getLicenseNumber()).getId()).isEqualTo(doctor.getId());
+            assertThat(doctorService.getAllDoctors()).extracting(Doctor::getId).contains(doctor.getId());
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    @DisplayName("should drop cached license number and listing results when the license number is patched")
+    void cachedQueries_shouldReflectPatchedLicenseNumber() {
+        String oldLicense = doctor.getLicenseNumber();
+        String newLicense = oldLicense + "-N";
+        doctorRepository.findByLicenseNumberAndDeletedAtIsNull(oldLicense);
+        doctorRepository.findByLicenseNumberAndDeletedAtIsNull(newLicense);
+        doctorRepository.findAllByDeletedAtIsNull();
+
+        doctorService.patchDoctor(doctor.getId(), Doctor.builder().licenseNumber(newLicense).build());
+
+        assertThat(doctorRepository.findByLicenseNumberAndDeletedAtIsNull(oldLicense)).isEmpty();
+        assertThat(doctorRepository.findByLicenseNumberAndDeletedAtIsNull(newLicense)).get()
+                .extracting(Doctor::getId).isEqualTo(doctor.getId());
+        assertThat(doctorService.getAllDoctors()).filteredOn(listed -> listed.getId().equals(doctor.getId()))
+                .extracting(Doctor::getLicenseNumber).containsExactly(newLicense);
+    }
+
+    @Test
+    @DisplayName("should see soft deletes through the entity, natural id and query caches")
+    void cachedLookups_shouldReflectSoftDelete() {
+        doctorService.getDoctorById(doctor.getId());
+        doctorRepository.findByIdKeycloakAndDeletedAtIsNull(doctor.getIdKeycloak());
+        doctorRepository.findByLicenseNumberAndDeletedAtIsNull(doctor.getLicenseNumber());
+        doctorRepository.findAllByDeletedAtIsNull();
+
+        doctorService.deleteDoctor(doctor.getId());
+
+        assertThat(doctorRepository.findByIdAndDeletedAtIsNull(doctor.getId())).isEmpty();
+        assertThat(doctorRepository.existsByIdKeycloakAndDeletedAtIsNull(doctor.getIdKeycloak())).isFalse();
+        assertThat(doctorRepository.existsByIdKeycloakAndDeletedAtIsNotNull(doctor.getIdKeycloak())).isTrue();
+        assertThat(doctorRepository.findByLicenseNumberAndDeletedAtIsNull(doctor.getLicenseNumber())).isEmpty();
+        assertThat(doctorService.getAllDoctors()).extracting(Doctor::getId).doesNotContain(doctor.getId());
+    }
+}
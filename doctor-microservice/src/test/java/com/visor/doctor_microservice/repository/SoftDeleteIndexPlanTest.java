@@ -0,0 +1,89 @@
+package com.visor.doctor_microservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against a real Postgres and checks that the queries of {@link DoctorRepository}
+ * that still filter on {@code deleted_at} are planned on the partial index meant for them. The SQL
+ * mirrors what Hibernate generates. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SoftDeleteIndexPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            // most rows are soft-deleted, as in a long-lived database
+            statement.execute("""
+                    INSERT INTO doctor (id_keycloak, license_number, email, created_at, deleted_at)
+                    SELECT 'kc-' || n, 'LIC-' || n, 'doctor' || n || '@example.com', now(),
+                           CASE WHEN n % 100 = 0 THEN NULL ELSE now() END
+                    FROM generate_series(1, 50000) n""");
+            statement.execute("VACUUM ANALYZE doctor");
+        }
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("findByLicenseNumberAndDeletedAtIsNull",
+                        "select d1_0.* from doctor d1_0 where d1_0.license_number=? and d1_0.deleted_at is null",
+                        new Object[]{"LIC-100"}, "doctor_live_license_number_idx"),
+                Arguments.of("findAllByDeletedAtIsNull",
+                        "select d1_0.* from doctor d1_0 where d1_0.deleted_at is null",
+                        new Object[]{}, "doctor_live_id_idx"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    @DisplayName("should plan soft-delete queries on their partial index")
+    void hotQuery_shouldUsePartialIndex(String name, String sql, Object[] parameters, String index) throws SQLException {
+        String plan = explain(sql, parameters);
+
+        assertThat(plan).as(name).doesNotContain("Seq Scan").contains(index);
+    }
+
+    private static String explain(String sql, Object[] parameters) throws SQLException {
+        try (Connection connection = connection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
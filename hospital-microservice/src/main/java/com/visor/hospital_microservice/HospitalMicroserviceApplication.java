@@ -2,6 +2,10 @@ package com.visor.hospital_microservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @EnableFeignClients
@@ -9,7 +13,18 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 public class HospitalMicroserviceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(HospitalMicroserviceApplication.class, args);
+		SpringApplication application = new SpringApplication(HospitalMicroserviceApplication.class);
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		if (environment.matchesProfiles("fast-startup")) {
+			// read through the actuator startup endpoint
+			application.setApplicationStartup(new BufferingApplicationStartup(10000));
+		}
+		ConfigurableApplicationContext context = application.run(args);
+		// the CDS training run: -Dspring.context.exit=onRefresh would stop in the bootstrap context already
+		if (environment.getProperty("startup.exit-when-ready", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -3,6 +3,10 @@ package com.visor.hospital_microservice.advice;
 import com.visor.hospital_microservice.exception.DuplicateResourceException;
 import com.visor.hospital_microservice.exception.ForbiddenOperationException;
 import com.visor.hospital_microservice.exception.ResourceNotFoundException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -44,6 +49,17 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(NoFallbackAvailableException.class)
+    public ResponseEntity<ErrorResponse> handleDependencyFailure(NoFallbackAvailableException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                || cause instanceof TimeoutException || cause instanceof RetryableException) {
+            return buildErrorResponse("Dependency unavailable: " + cause.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return buildErrorResponse("Unexpected error: " + (cause != null ? cause.getMessage() : ex.getMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
         return buildErrorResponse("Unexpected error: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -1,6 +1,15 @@
 package com.visor.hospital_microservice.configuration;
 
 import feign.RequestInterceptor;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
@@ -22,4 +31,39 @@ public class FeignClientConfig {
             }
         };
     }
+
+    @Bean
+    public Retryer feignRetryer(@Value("${feign-retry.max-attempts:3}") int maxAttempts,
+                                @Value("${feign-retry.initial-backoff-ms:100}") long initialBackoffMillis,
+                                @Value("${feign-retry.max-backoff-ms:1000}") long maxBackoffMillis) {
+        return new IdempotentRetryer(maxAttempts, initialBackoffMillis, maxBackoffMillis);
+    }
+
+    @Bean
+    public ErrorDecoder feignErrorDecoder() {
+        return new RetryableStatusErrorDecoder();
+    }
+
+    /**
+     * Tunes the pooled Apache HttpClient 5 transport. Pooled connections are kept alive for at most
+     * {@code feign-http.keep-alive-ms}, below Tomcat's idle timeout, so a connection the server
+     * already closed is never reused. The transport still retries an idempotent request once when a
+     * pooled connection turns out to be stale; retries on status codes are left to {@link IdempotentRetryer}.
+     */
+    @Bean
+    public HttpClientBuilderCustomizer feignHttpClientCustomizer(@Value("${feign-http.keep-alive-ms:15000}") long keepAliveMillis) {
+        TimeValue keepAlive = TimeValue.ofMilliseconds(keepAliveMillis);
+        return builder -> builder
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return advertised.compareTo(keepAlive) < 0 ? advertised : keepAlive;
+                })
+                .evictIdleConnections(keepAlive)
+                .setRetryStrategy(new DefaultHttpRequestRetryStrategy(1, TimeValue.ZERO_MILLISECONDS) {
+                    @Override
+                    public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+                        return false;
+                    }
+                });
+    }
 }
@@ -0,0 +1,56 @@
+package com.visor.hospital_microservice.configuration;
+
+import jakarta.servlet.ServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * Caller identity asserted by the api-gateway through signed {@code X-Identity-*} headers. Only
+ * present on a request when gateway trust is enabled and the signature checked out (see
+ * {@link GatewayTrustAuthenticationManagerResolver}). The ids are null when the gateway could not
+ * resolve them.
+ */
+public record GatewayIdentity(String subject, int roles, Long doctorId, Long hospitalId) {
+
+    public static final String HEADER_PREFIX = "X-Identity-";
+    public static final String SUBJECT = HEADER_PREFIX + "Subject";
+    public static final String ROLES = HEADER_PREFIX + "Roles";
+    public static final String DOCTOR_ID = HEADER_PREFIX + "Doctor-Id";
+    public static final String HOSPITAL_ID = HEADER_PREFIX + "Hospital-Id";
+    public static final String TIMESTAMP = HEADER_PREFIX + "Timestamp";
+    public static final String SIGNATURE = HEADER_PREFIX + "Signature";
+
+    static final String ATTRIBUTE = GatewayIdentity.class.getName();
+
+    public static GatewayIdentity from(ServletRequest request) {
+        return (GatewayIdentity) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Identity asserted for the request bound to the current thread, or {@code null} outside a request.
+     */
+    public static GatewayIdentity current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? (GatewayIdentity) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+
+    /**
+     * Id of the calling doctor as resolved by the gateway, or the result of {@code lookup} when the
+     * gateway did not resolve one.
+     */
+    public static Long currentDoctorId(Supplier<Long> lookup) {
+        GatewayIdentity identity = current();
+        return identity != null && identity.doctorId() != null ? identity.doctorId() : lookup.get();
+    }
+
+    /**
+     * Id of the calling hospital as resolved by the gateway, or the result of {@code lookup} when the
+     * gateway did not resolve one.
+     */
+    public static Long currentHospitalId(Supplier<Long> lookup) {
+        GatewayIdentity identity = current();
+        return identity != null && identity.hospitalId() != null ? identity.hospitalId() : lookup.get();
+    }
+}
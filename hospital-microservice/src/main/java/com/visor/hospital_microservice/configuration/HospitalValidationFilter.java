@@ -54,18 +54,16 @@ public class HospitalValidationFilter extends GenericFilterBean {
             String name = jwt.getClaim("name");
             String email = jwt.getClaim("email");
 
-            boolean isDoctor = jwtAuth.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_doctor"));
+            boolean isDoctor = RealmRole.DOCTOR.isGrantedTo(jwtAuth);
 
-            boolean isHospital = jwtAuth.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_hospital"));
+            boolean isHospital = RealmRole.HOSPITAL.isGrantedTo(jwtAuth);
 
             if (isDoctor && !matchesAllowedPatterns(path)) {
                 ((HttpServletResponse) response).sendError(HttpServletResponse.SC_FORBIDDEN, "Acceso restringido.");
                 return;
             }
 
-            if (isHospital) {
+            if (isHospital && !isResolvedByGateway(request)) {
                 if (!hospitalRepository.existsByIdKeycloakAndDeletedAtIsNull(keycloakId)) {
                     if (!hospitalRepository.existsByIdKeycloakAndDeletedAtIsNotNull(keycloakId)) {
                         Hospital newHospital = new Hospital();
@@ -85,6 +83,16 @@ public class HospitalValidationFilter extends GenericFilterBean {
         chain.doFilter(request, response);
     }
 
+    /**
+     * The api-gateway resolves an id only for a user that was active when it looked it up, and drops
+     * it from its cache when the user's domain event arrives, so the lookups below can be skipped when
+     * it signed one. A user deleted in the meantime is still let through until that event reaches it.
+     */
+    private boolean isResolvedByGateway(ServletRequest request) {
+        GatewayIdentity identity = GatewayIdentity.from(request);
+        return identity != null && identity.hospitalId() != null;
+    }
+
     private boolean matchesAllowedPatterns(String path) {
         return DOCTOR_ALLOWED_PATTERNS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
     }
@@ -0,0 +1,68 @@
+package com.visor.hospital_microservice.configuration;
+
+import com.visor.hospital_microservice.event.HospitalDoctorEvent;
+import com.visor.hospital_microservice.event.HospitalEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+/**
+ * Kafka setup for domain events. The cloud bus binder defaults Boot's producer to byte-array
+ * serializers, so events get their own String producer instead of the auto-configured one. Sends are
+ * observed, so each record carries the trace context of the request that published it.
+ */
+@Configuration
+public class KafkaConfig {
+
+    @Value("${domain-events.partitions:3}")
+    private int partitions;
+
+    @Value("${domain-events.replicas:1}")
+    private int replicas;
+
+    @Bean
+    public ProducerFactory<String, String> domainEventProducerFactory(KafkaProperties kafkaProperties,
+                                                                      ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> properties = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        return new DefaultKafkaProducerFactory<>(properties);
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> domainEventKafkaTemplate(ProducerFactory<String, String> domainEventProducerFactory) {
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(domainEventProducerFactory);
+        kafkaTemplate.setObservationEnabled(true);
+        return kafkaTemplate;
+    }
+
+    @Bean
+    public NewTopic hospitalEventsTopic() {
+        return compacted(HospitalEvent.TOPIC);
+    }
+
+    @Bean
+    public NewTopic hospitalDoctorEventsTopic() {
+        return compacted(HospitalDoctorEvent.TOPIC);
+    }
+
+    private NewTopic compacted(String name) {
+        return TopicBuilder.name(name)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.visor.hospital_microservice.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request runs, from the security filters to the response, and warns
+ * when a request runs more than {@code jpa.query-budget.max-statements} of them or the same statement
+ * shape more than {@code jpa.query-budget.max-repeats} times, the usual sign of a lookup per loaded row.
+ * The per-request count is recorded as {@code jpa.request.statements} and each overrun as
+ * {@code jpa.query.budget.exceeded}, both tagged with the matched URI pattern. Opt-in through
+ * {@code jpa.query-budget.enabled}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "jpa.query-budget.enabled", havingValue = "true")
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${jpa.query-budget.max-statements:10}") int maxStatements,
+                             @Value("${jpa.query-budget.max-repeats:3}") int maxRepeats) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounts counts = StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            counts.close();
+            check(request, counts);
+        }
+    }
+
+    private void check(HttpServletRequest request, StatementCounts counts) {
+        if (counts.total() == 0) {
+            return;
+        }
+        String uri = uri(request);
+        DistributionSummary.builder("jpa.request.statements")
+                .description("SQL statements run per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(counts.total());
+
+        if (counts.total() > maxStatements) {
+            exceeded(uri, "statements");
+            log.warn("{} {} ran {} SQL statements, over the budget of {}:\n{}",
+                    request.getMethod(), uri, counts.total(), maxStatements, counts);
+        }
+        Map.Entry<String, Integer> mostRepeated = counts.mostRepeated().orElseThrow();
+        if (mostRepeated.getValue() > maxRepeats) {
+            exceeded(uri, "repeats");
+            log.warn("{} {} ran the same SQL statement {} times, possible N+1: {}",
+                    request.getMethod(), uri, mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+
+    private void exceeded(String uri, String reason) {
+        Counter.builder("jpa.query.budget.exceeded")
+                .description("Requests that ran more SQL statements than their budget")
+                .tag("uri", uri)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
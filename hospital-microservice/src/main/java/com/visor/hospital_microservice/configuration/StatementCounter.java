@@ -0,0 +1,42 @@
+package com.visor.hospital_microservice.configuration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that tallies the SQL prepared on the current thread while a
+ * {@link StatementCounts} is open, and otherwise only pays a thread-local lookup. Registered through
+ * {@code hibernate.session_factory.statement_inspector}, so Hibernate creates it by class name and
+ * the tally lives in a static thread-local rather than in the instance.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<StatementCounts> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Starts counting the statements of the current thread until the returned counts are closed.
+     * Counting can be nested, in which case a statement is added to every open counts.
+     */
+    public static StatementCounts start() {
+        StatementCounts counts = new StatementCounts(CURRENT.get());
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    static void end(StatementCounts counts) {
+        if (CURRENT.get() == counts) {
+            if (counts.previous() == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(counts.previous());
+            }
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (StatementCounts counts = CURRENT.get(); counts != null; counts = counts.previous()) {
+            counts.record(sql);
+        }
+        return sql;
+    }
+}
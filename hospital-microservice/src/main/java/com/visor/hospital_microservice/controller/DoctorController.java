@@ -1,5 +1,6 @@
 package com.visor.hospital_microservice.controller;
 
+import com.visor.hospital_microservice.configuration.GatewayIdentity;
 import com.visor.hospital_microservice.dto.DoctorDTO;
 import com.visor.hospital_microservice.service.DoctorService;
 import com.visor.hospital_microservice.service.HospitalService;
@@ -63,7 +64,7 @@ public class DoctorController {
     @GetMapping("/hospital")
     public ResponseEntity<List<DoctorDTO>> getAllDoctorsByHospital() {
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         List<DoctorDTO> doctors = doctorService.getAllDoctorsByHospital(hospitalIdFromJwt);
         return ResponseEntity.ok(doctors);
@@ -1,5 +1,6 @@
 package com.visor.hospital_microservice.controller;
 
+import com.visor.hospital_microservice.configuration.GatewayIdentity;
 import com.visor.hospital_microservice.entity.Hospital;
 import com.visor.hospital_microservice.service.HospitalService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -18,12 +20,16 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/hospitals")
 public class HospitalController {
 
+    private static final CacheControl READ_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate();
+    private static final String GATEWAY_CACHE_CONTROL = "max-age=60";
+
     private final HospitalService hospitalService;
 
     public HospitalController(HospitalService hospitalService) {
@@ -74,7 +80,22 @@ public class HospitalController {
     @GetMapping("/{id}")
     public ResponseEntity<Hospital> getHospitalById(
             @PathVariable Long id) {
-        return ResponseEntity.ok(hospitalService.getHospitalById(id));
+        return ResponseEntity.ok().cacheControl(READ_CACHE_CONTROL).header("Surrogate-Control", GATEWAY_CACHE_CONTROL).body(hospitalService.getHospitalById(id));
+    }
+
+    @Operation(
+            summary = "Get Hospital by Keycloak ID",
+            description = "Retrieves the hospital ID linked to the given Keycloak user ID (subject claim).",
+            security = @SecurityRequirement(name = "security_auth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hospital ID retrieved"),
+            @ApiResponse(responseCode = "404", description = "Hospital not found for Keycloak ID",
+                    content = @Content(examples = @ExampleObject(value = "{\"message\": \"No active hospital found with Keycloak ID: abc-123\"}")))
+    })
+    @GetMapping("/exist/{keycloakId}")
+    public ResponseEntity<Long> getHospitalByKeycloakId(@PathVariable String keycloakId) {
+        return ResponseEntity.ok(hospitalService.getHospitalIdByKeycloakId(keycloakId));
     }
 
     @Operation(
@@ -107,7 +128,7 @@ public class HospitalController {
             @Valid @RequestBody Hospital hospital) {
 
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         hospital.setId(hospitalIdFromJwt);
         hospital.setIdKeycloak(keycloakId);
@@ -141,7 +162,7 @@ public class HospitalController {
     @DeleteMapping
     public ResponseEntity<Void> deleteHospital(Authentication authentication) {
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         hospitalService.deleteHospital(hospitalIdFromJwt);
         return ResponseEntity.ok().build();
@@ -1,6 +1,8 @@
 package com.visor.hospital_microservice.controller;
 
+import com.visor.hospital_microservice.configuration.GatewayIdentity;
 import com.visor.hospital_microservice.client.DoctorClient;
+import com.visor.hospital_microservice.dto.HospitalMembersDTO;
 import com.visor.hospital_microservice.entity.HospitalDoctor;
 import com.visor.hospital_microservice.service.HospitalDoctorService;
 import com.visor.hospital_microservice.service.HospitalService;
@@ -73,7 +75,7 @@ public class HospitalDoctorController {
     public ResponseEntity<HospitalDoctor> createHospitalDoctorAssociation(
             @RequestParam Long doctorId) {
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         return ResponseEntity.ok(hospitalDoctorService.createHospitalDoctor(doctorId, hospitalIdFromJwt));
     }
@@ -92,7 +94,7 @@ public class HospitalDoctorController {
     @GetMapping("")
     public List<HospitalDoctor> getHospitalDoctor() {
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         return hospitalDoctorService.getAllHospitalDoctorsByHospitalId(hospitalIdFromJwt);
     }
@@ -152,6 +154,30 @@ public class HospitalDoctorController {
         return ResponseEntity.ok(associations.isPresent());
     }
 
+    @Operation(
+            summary = "Get Hospital-Doctor Membership Snapshot",
+            description = "Returns every active hospital-doctor association grouped by hospital, with doctor ids sorted in ascending order. Used by other services to seed local membership indexes, which are then kept current by hospital-doctor events.",
+            security = @SecurityRequirement(name = "security_auth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Snapshot retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "[{\"hospitalId\": 1, \"doctorIds\": [1, 4, 9]}, {\"hospitalId\": 2, \"doctorIds\": [4]}]"
+                            )
+                    )),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Unexpected error occurred\"}"
+                            )
+                    ))
+    })
+    @GetMapping("/snapshot")
+    public ResponseEntity<List<HospitalMembersDTO>> getHospitalDoctorSnapshot() {
+        return ResponseEntity.ok(hospitalDoctorService.getActiveMembershipSnapshot());
+    }
+
     @Operation(
             summary = "Update Hospital-Doctor Association",
             description = "Updates an existing hospital-doctor association. The hospital ID is derived from the current user's Keycloak session, and the doctor information is validated via the DoctorClient.",
@@ -183,7 +209,7 @@ public class HospitalDoctorController {
             @Valid @RequestBody HospitalDoctor hospitalDoctor) {
 
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         return ResponseEntity.ok(hospitalDoctorService.updateHospitalDoctor(id, hospitalDoctor, hospitalIdFromJwt));
     }
@@ -214,7 +240,7 @@ public class HospitalDoctorController {
     public ResponseEntity<HospitalDoctor> deleteHospitalDoctor(
             @PathVariable Long id) {
         String keycloakId = ((JwtAuthenticationToken) SecurityContextHolder.getContext().getAuthentication()).getToken().getSubject();
-        Long hospitalIdFromJwt = hospitalService.getHospitalIdByKeycloakId(keycloakId);
+        Long hospitalIdFromJwt = GatewayIdentity.currentHospitalId(() -> hospitalService.getHospitalIdByKeycloakId(keycloakId));
 
         return ResponseEntity.ok(hospitalDoctorService.deleteHospitalDoctor(id, hospitalIdFromJwt));
     }
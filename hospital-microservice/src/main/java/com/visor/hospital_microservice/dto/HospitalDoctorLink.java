@@ -0,0 +1,10 @@
+package com.visor.hospital_microservice.dto;
+
+/**
+ * Projection of an active hospital-doctor association, used to build membership snapshots.
+ */
+public interface HospitalDoctorLink {
+    Long getHospitalId();
+
+    Long getDoctorId();
+}
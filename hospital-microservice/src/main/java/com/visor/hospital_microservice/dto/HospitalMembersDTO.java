@@ -0,0 +1,17 @@
+package com.visor.hospital_microservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalMembersDTO {
+    @Schema(example = "1")
+    private Long hospitalId;
+
+    @Schema(description = "Ids of the doctors actively associated with the hospital, in ascending order", example = "[1, 4, 9]")
+    private long[] doctorIds;
+}
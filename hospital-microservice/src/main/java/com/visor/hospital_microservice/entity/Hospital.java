@@ -1,15 +1,24 @@
 package com.visor.hospital_microservice.entity;
 
+import com.visor.hospital_microservice.event.HospitalEntityListener;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hospital")
+@NaturalIdCache(region = "hospital-natural-id")
+@EntityListeners(HospitalEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +30,7 @@ public class Hospital {
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, updatable = false, unique = true)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private String idKeycloak;
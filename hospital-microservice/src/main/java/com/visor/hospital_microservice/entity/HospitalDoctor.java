@@ -1,5 +1,7 @@
 package com.visor.hospital_microservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.visor.hospital_microservice.event.HospitalDoctorEntityListener;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,6 +10,7 @@ import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 
 @Entity
+@EntityListeners(HospitalDoctorEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,8 +38,28 @@ public class HospitalDoctor {
     @Schema(example = "1")
     private Long doctorId;
 
+    @Transient
+    @JsonIgnore
+    private Long loadedHospitalId;
+
+    @Transient
+    @JsonIgnore
+    private Long loadedDoctorId;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = Instant.now();
     }
+
+    /**
+     * Remembers the persisted pair, so an update that moves the association can report where it came from.
+     * Entity listeners run before this callback, so they still see the previous pair on update.
+     */
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberPersistedPair() {
+        this.loadedHospitalId = hospitalId;
+        this.loadedDoctorId = doctorId;
+    }
 }
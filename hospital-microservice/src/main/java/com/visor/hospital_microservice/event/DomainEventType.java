@@ -0,0 +1,7 @@
+package com.visor.hospital_microservice.event;
+
+public enum DomainEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,30 @@
+package com.visor.hospital_microservice.event;
+
+import com.visor.hospital_microservice.entity.HospitalDoctor;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns hospital-doctor membership writes into {@link HospitalDoctorEvent}s. A soft delete is an
+ * update that sets {@code deletedAt}, so it is published as {@link DomainEventType#DELETED}.
+ */
+@Component
+@RequiredArgsConstructor
+public class HospitalDoctorEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    public void onCreated(HospitalDoctor hospitalDoctor) {
+        applicationEventPublisher.publishEvent(HospitalDoctorEvent.of(DomainEventType.CREATED, hospitalDoctor));
+    }
+
+    @PostUpdate
+    public void onUpdated(HospitalDoctor hospitalDoctor) {
+        DomainEventType type = hospitalDoctor.getDeletedAt() == null ? DomainEventType.UPDATED : DomainEventType.DELETED;
+        applicationEventPublisher.publishEvent(HospitalDoctorEvent.of(type, hospitalDoctor));
+    }
+}
@@ -0,0 +1,37 @@
+package com.visor.hospital_microservice.event;
+
+import com.visor.hospital_microservice.entity.HospitalDoctor;
+
+import java.time.Instant;
+
+/**
+ * Hospital-doctor association event. When an update moves the association to another pair,
+ * {@code previousHospitalId} and {@code previousDoctorId} carry the pair it was moved from.
+ */
+public record HospitalDoctorEvent(DomainEventType type, Long id, Long hospitalId, Long doctorId,
+                                  Long previousHospitalId, Long previousDoctorId, Instant occurredAt)
+        implements DomainEvent {
+
+    public static final String TOPIC = "hospital-doctor-events";
+
+    public static HospitalDoctorEvent of(DomainEventType type, HospitalDoctor hospitalDoctor) {
+        boolean moved = hospitalDoctor.getLoadedDoctorId() != null
+                && (!hospitalDoctor.getLoadedDoctorId().equals(hospitalDoctor.getDoctorId())
+                || !hospitalDoctor.getLoadedHospitalId().equals(hospitalDoctor.getHospitalId()));
+
+        return new HospitalDoctorEvent(type, hospitalDoctor.getId(), hospitalDoctor.getHospitalId(), hospitalDoctor.getDoctorId(),
+                moved ? hospitalDoctor.getLoadedHospitalId() : null,
+                moved ? hospitalDoctor.getLoadedDoctorId() : null,
+                Instant.now());
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.visor.hospital_microservice.event;
+
+import com.visor.hospital_microservice.entity.Hospital;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns hospital writes into {@link HospitalEvent}s. A soft delete is an update that sets
+ * {@code deletedAt}, so it is published as {@link DomainEventType#DELETED}.
+ */
+@Component
+@RequiredArgsConstructor
+public class HospitalEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    public void onCreated(Hospital hospital) {
+        applicationEventPublisher.publishEvent(HospitalEvent.of(DomainEventType.CREATED, hospital));
+    }
+
+    @PostUpdate
+    public void onUpdated(Hospital hospital) {
+        DomainEventType type = hospital.getDeletedAt() == null ? DomainEventType.UPDATED : DomainEventType.DELETED;
+        applicationEventPublisher.publishEvent(HospitalEvent.of(type, hospital));
+    }
+}
@@ -0,0 +1,24 @@
+package com.visor.hospital_microservice.event;
+
+import com.visor.hospital_microservice.entity.Hospital;
+
+import java.time.Instant;
+
+public record HospitalEvent(DomainEventType type, Long id, String idKeycloak, Instant occurredAt) implements DomainEvent {
+
+    public static final String TOPIC = "hospital-events";
+
+    public static HospitalEvent of(DomainEventType type, Hospital hospital) {
+        return new HospitalEvent(type, hospital.getId(), hospital.getIdKeycloak(), Instant.now());
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(id);
+    }
+}
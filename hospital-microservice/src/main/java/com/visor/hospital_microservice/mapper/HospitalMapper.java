@@ -0,0 +1,26 @@
+package com.visor.hospital_microservice.mapper;
+
+import com.visor.hospital_microservice.entity.Hospital;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Applies a PATCH body to a stored {@link Hospital}: null properties are skipped, and the identity
+ * and lifecycle properties are never taken from the request.
+ */
+@Mapper
+public interface HospitalMapper {
+
+    HospitalMapper INSTANCE = Mappers.getMapper(HospitalMapper.class);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "idKeycloak", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    void patch(Hospital partial, @MappingTarget Hospital existing);
+}
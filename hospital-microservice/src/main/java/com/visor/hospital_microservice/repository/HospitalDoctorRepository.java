@@ -1,5 +1,6 @@
 package com.visor.hospital_microservice.repository;
 
+import com.visor.hospital_microservice.dto.HospitalDoctorLink;
 import com.visor.hospital_microservice.entity.HospitalDoctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -14,4 +15,6 @@ public interface HospitalDoctorRepository extends JpaRepository<HospitalDoctor,
     Optional<HospitalDoctor> findByIdAndDeletedAtIsNull (Long hospitalDoctorId);
 
     List<HospitalDoctor> findAllByHospitalIdAndDeletedAtIsNull(Long hospitalId);
+
+    List<HospitalDoctorLink> findAllByDeletedAtIsNullOrderByHospitalIdAscDoctorIdAsc();
 }
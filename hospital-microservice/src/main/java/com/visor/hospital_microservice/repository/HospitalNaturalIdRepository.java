@@ -0,0 +1,13 @@
+package com.visor.hospital_microservice.repository;
+
+import com.visor.hospital_microservice.entity.Hospital;
+
+import java.util.Optional;
+
+/**
+ * Loads a hospital by its Keycloak id through Hibernate's natural-id API, which is answered from
+ * the second-level cache once the hospital has been seen, whether or not it is soft-deleted.
+ */
+public interface HospitalNaturalIdRepository {
+    Optional<Hospital> findByNaturalIdKeycloak(String idKeycloak);
+}
@@ -0,0 +1,21 @@
+package com.visor.hospital_microservice.repository;
+
+import com.visor.hospital_microservice.entity.Hospital;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class HospitalNaturalIdRepositoryImpl implements HospitalNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Hospital> findByNaturalIdKeycloak(String idKeycloak) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Hospital.class).loadOptional(idKeycloak);
+    }
+}
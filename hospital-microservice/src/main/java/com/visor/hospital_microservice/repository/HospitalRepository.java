@@ -5,12 +5,26 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface HospitalRepository extends JpaRepository<Hospital, Long> {
-    boolean existsByIdKeycloakAndDeletedAtIsNull(String id);
+/**
+ * The soft-delete lookups resolve the hospital by primary key or natural id and check
+ * {@code deletedAt} on the cached entity, so a repeat lookup issues no SQL. Patches and soft
+ * deletes update the cached entity on commit. Writes made by another instance are seen once the
+ * cached entries expire, see {@code application.conf}.
+ */
+public interface HospitalRepository extends JpaRepository<Hospital, Long>, HospitalNaturalIdRepository {
+    default boolean existsByIdKeycloakAndDeletedAtIsNull(String id) {
+        return findByIdKeycloakAndDeletedAtIsNull(id).isPresent();
+    }
 
-    boolean existsByIdKeycloakAndDeletedAtIsNotNull(String id);
+    default boolean existsByIdKeycloakAndDeletedAtIsNotNull(String id) {
+        return findByNaturalIdKeycloak(id).filter(hospital -> hospital.getDeletedAt() != null).isPresent();
+    }
 
-    Optional<Hospital> findByIdAndDeletedAtIsNull(Long id);
+    default Optional<Hospital> findByIdAndDeletedAtIsNull(Long id) {
+        return findById(id).filter(hospital -> hospital.getDeletedAt() == null);
+    }
 
-    Optional<Hospital> findByIdKeycloakAndDeletedAtIsNull(String id);
+    default Optional<Hospital> findByIdKeycloakAndDeletedAtIsNull(String id) {
+        return findByNaturalIdKeycloak(id).filter(hospital -> hospital.getDeletedAt() == null);
+    }
 }
@@ -2,6 +2,8 @@ package com.visor.hospital_microservice.service;
 
 import com.visor.hospital_microservice.client.DoctorClient;
 import com.visor.hospital_microservice.dto.DoctorDTO;
+import com.visor.hospital_microservice.dto.HospitalDoctorLink;
+import com.visor.hospital_microservice.dto.HospitalMembersDTO;
 import com.visor.hospital_microservice.entity.HospitalDoctor;
 import com.visor.hospital_microservice.exception.ForbiddenOperationException;
 import com.visor.hospital_microservice.exception.ResourceNotFoundException;
@@ -12,6 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.List;
 
@@ -49,6 +53,38 @@ public class HospitalDoctorService {
         return hospitalDoctorRepository.findByDoctorIdAndHospitalIdAndDeletedAtIsNull(doctorId, hospitalId);
     }
 
+    /**
+     * Returns every active association grouped by hospital, with sorted and de-duplicated doctor ids.
+     * Used by other services to seed local membership indexes, which then follow hospital-doctor events.
+     */
+    public List<HospitalMembersDTO> getActiveMembershipSnapshot() {
+        List<HospitalMembersDTO> snapshot = new ArrayList<>();
+        Long currentHospitalId = null;
+        long[] doctorIds = new long[16];
+        int size = 0;
+
+        for (HospitalDoctorLink link : hospitalDoctorRepository.findAllByDeletedAtIsNullOrderByHospitalIdAscDoctorIdAsc()) {
+            if (!link.getHospitalId().equals(currentHospitalId)) {
+                if (currentHospitalId != null) {
+                    snapshot.add(new HospitalMembersDTO(currentHospitalId, Arrays.copyOf(doctorIds, size)));
+                }
+                currentHospitalId = link.getHospitalId();
+                size = 0;
+            }
+            if (size > 0 && doctorIds[size - 1] == link.getDoctorId()) {
+                continue;
+            }
+            if (size == doctorIds.length) {
+                doctorIds = Arrays.copyOf(doctorIds, size * 2);
+            }
+            doctorIds[size++] = link.getDoctorId();
+        }
+        if (currentHospitalId != null) {
+            snapshot.add(new HospitalMembersDTO(currentHospitalId, Arrays.copyOf(doctorIds, size)));
+        }
+        return snapshot;
+    }
+
     public HospitalDoctor updateHospitalDoctor(Long id, HospitalDoctor hospitalDoctor, Long hospitalIdFromJwt) {
 
         hospitalDoctor.setHospitalId(hospitalIdFromJwt);
@@ -1,19 +1,16 @@
 package com.visor.hospital_microservice.service;
 
 import com.visor.hospital_microservice.entity.Hospital;
+import com.visor.hospital_microservice.mapper.HospitalMapper;
 import com.visor.hospital_microservice.exception.DuplicateResourceException;
 import com.visor.hospital_microservice.exception.ResourceNotFoundException;
 import com.visor.hospital_microservice.repository.HospitalRepository;
 import jakarta.transaction.Transactional;
-import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -52,7 +49,7 @@ public class HospitalService {
         Hospital existing = hospitalRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No active hospital found with ID: " + id));
 
-        BeanUtils.copyProperties(partialHospital, existing, getNullOrRestrictedProperties(partialHospital));
+        HospitalMapper.INSTANCE.patch(partialHospital, existing);
         return hospitalRepository.save(existing);
     }
 
@@ -65,21 +62,4 @@ public class HospitalService {
         hospitalRepository.save(hospital);
     }
 
-    private String[] getNullOrRestrictedProperties(Object source) {
-        final BeanWrapper wrapper = new BeanWrapperImpl(source);
-
-        List<String> nullOrRestricted = new ArrayList<>();
-
-        for (var pd : wrapper.getPropertyDescriptors()) {
-            String propertyName = pd.getName();
-            Object value = wrapper.getPropertyValue(propertyName);
-
-            if (value == null || List.of("id", "idKeycloak", "createdAt", "deletedAt").contains(propertyName)) {
-                nullOrRestricted.add(propertyName);
-            }
-        }
-
-        return nullOrRestricted.toArray(new String[0]);
-    }
-
 }
@@ -0,0 +1,19 @@
+-- Schema as previously generated by Hibernate. Existing databases are baselined at this version.
+CREATE TABLE hospital (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_keycloak  VARCHAR(255)                NOT NULL UNIQUE,
+    name         VARCHAR(100),
+    address      VARCHAR(100),
+    phone_number VARCHAR(255),
+    email        VARCHAR(255),
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    deleted_at   TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE hospital_doctor (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP(6) WITH TIME ZONE,
+    deleted_at  TIMESTAMP(6) WITH TIME ZONE,
+    hospital_id BIGINT NOT NULL,
+    doctor_id   BIGINT NOT NULL
+);
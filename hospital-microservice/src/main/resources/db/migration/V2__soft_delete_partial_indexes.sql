@@ -0,0 +1,9 @@
+-- Every lookup filters on deleted_at IS NULL, so index only the live rows.
+-- id is included so existsByIdKeycloakAndDeletedAtIsNull is answered by an index-only scan.
+CREATE UNIQUE INDEX hospital_live_id_keycloak_idx ON hospital (id_keycloak) INCLUDE (id) WHERE deleted_at IS NULL;
+
+-- Serves the pair lookup, the per-hospital listing and, index-only, the ordered membership snapshot.
+CREATE INDEX hospital_doctor_live_pair_idx ON hospital_doctor (hospital_id, doctor_id) WHERE deleted_at IS NULL;
+
+-- existsByIdAndDeletedAtIsNull without a heap visit to read deleted_at.
+CREATE UNIQUE INDEX hospital_doctor_live_id_idx ON hospital_doctor (id) WHERE deleted_at IS NULL;
@@ -0,0 +1,3 @@
+-- Keycloak id lookups resolve the natural id with "where id_keycloak=?" and check deleted_at on the
+-- cached entity, so they use the unique index of the baseline and this partial index is never read.
+DROP INDEX IF EXISTS hospital_live_id_keycloak_idx;
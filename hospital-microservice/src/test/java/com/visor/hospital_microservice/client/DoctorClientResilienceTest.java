@@ -0,0 +1,352 @@
+package com.visor.hospital_microservice.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.visor.hospital_microservice.configuration.FeignClientConfig;
+import com.visor.hospital_microservice.configuration.ResilienceConfig;
+import com.visor.hospital_microservice.dto.DoctorDTO;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadMetricsAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerMetricsAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the real Feign client through the circuit breaker, bulkhead, time limiter and retryer
+ * against a local stub server that injects failures and latency.
+ */
+@SpringBootTest(classes = DoctorClientResilienceTest.ClientConfig.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.cloud.openfeign.circuitbreaker.enabled=true",
+                "spring.cloud.openfeign.circuitbreaker.group.enabled=true",
+                "spring.cloud.circuitbreaker.resilience4j.enable-semaphore-default-bulkhead=true",
+                "spring.cloud.openfeign.httpclient.hc5.connection-request-timeout=100",
+                "spring.cloud.openfeign.httpclient.hc5.connection-request-timeout-unit=milliseconds",
+                "spring.cloud.openfeign.client.config.doctor-microservice.connect-timeout=200",
+                "spring.cloud.openfeign.client.config.doctor-microservice.read-timeout=300",
+                "feign-retry.max-attempts=3",
+                "feign-retry.initial-backoff-ms=10",
+                "feign-retry.max-backoff-ms=20",
+                "resilience4j.circuitbreaker.instances.doctor-microservice.sliding-window-size=4",
+                "resilience4j.circuitbreaker.instances.doctor-microservice.minimum-number-of-calls=4",
+                "resilience4j.circuitbreaker.instances.doctor-microservice.failure-rate-threshold=50",
+                "resilience4j.circuitbreaker.instances.doctor-microservice.wait-duration-in-open-state=PT1M",
+                "resilience4j.circuitbreaker.instances.doctor-microservice.ignore-exceptions=feign.FeignException$FeignClientException",
+                "resilience4j.bulkhead.instances.doctor-microservice.max-concurrent-calls=2",
+                "resilience4j.bulkhead.instances.doctor-microservice.max-wait-duration=PT0S",
+                "resilience4j.timelimiter.instances.doctor-microservice.timeout-duration=PT2S"
+        })
+@ImportAutoConfiguration({
+        JacksonAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class,
+        FeignAutoConfiguration.class,
+        MetricsAutoConfiguration.class,
+        CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class,
+        ObservationAutoConfiguration.class,
+        CircuitBreakerAutoConfiguration.class,
+        CircuitBreakerMetricsAutoConfiguration.class,
+        BulkheadAutoConfiguration.class,
+        BulkheadMetricsAutoConfiguration.class,
+        TimeLimiterAutoConfiguration.class,
+        Resilience4JAutoConfiguration.class
+})
+public class DoctorClientResilienceTest {
+
+    private static final String DOCTOR_JSON = "{\"id\":7,\"firstName\":\"Diego\",\"lastName\":\"Bustos\"}";
+
+    private static final HttpServer server = startServer();
+    private static final AtomicReference<StubResponse> behaviour = new AtomicReference<>();
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final AtomicReference<String> lastAuthorization = new AtomicReference<>();
+
+    @Autowired
+    private DoctorClient doctorClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.openfeign.client.config.doctor-microservice.url",
+                () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker("doctor-microservice").reset();
+        hits.set(0);
+        lastAuthorization.set(null);
+        behaviour.set(exchange -> respond(exchange, 200, DOCTOR_JSON));
+        SecurityContextHolder.clearContext();
+    }
+
+    @Nested
+    @DisplayName("Retries")
+    class RetryTests {
+
+        @Test
+        @DisplayName("should retry GETs on 503 and forward the caller's token from the time limiter thread")
+        void getDoctorById_shouldRetryUnavailableAndKeepSecurityContext() {
+            AtomicInteger calls = new AtomicInteger();
+            behaviour.set(exchange -> {
+                if (calls.incrementAndGet() < 3) {
+                    respond(exchange, 503, "");
+                } else {
+                    respond(exchange, 200, DOCTOR_JSON);
+                }
+            });
+            Jwt jwt = Jwt.withTokenValue("token-123").header("alg", "none").claim("sub", "doctor").build();
+            SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+            Optional<DoctorDTO> doctor = doctorClient.getDoctorById(7L);
+
+            assertThat(doctor).map(DoctorDTO::getId).contains(7L);
+            assertThat(hits).hasValue(3);
+            assertThat(lastAuthorization).hasValue("Bearer token-123");
+        }
+
+        @Test
+        @DisplayName("should not retry client errors nor count them as breaker failures")
+        void getDoctorById_shouldNotRetryOrTripOnNotFound() {
+            behaviour.set(exchange -> respond(exchange, 404, ""));
+
+            for (int i = 0; i < 6; i++) {
+                assertThatThrownBy(() -> doctorClient.getDoctorById(7L))
+                        .isInstanceOf(NoFallbackAvailableException.class)
+                        .hasCauseInstanceOf(FeignException.NotFound.class);
+            }
+
+            assertThat(hits).hasValue(6);
+            assertThat(circuitBreakerRegistry.circuitBreaker("doctor-microservice").getState())
+                    .isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        @DisplayName("should give up after the read timeout on every attempt of a slow call")
+        void getDoctorById_shouldFailFast_whenDependencyIsSlow() {
+            behaviour.set(exchange -> {
+                sleep(1_000);
+                respond(exchange, 200, DOCTOR_JSON);
+            });
+
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> doctorClient.getDoctorById(7L))
+                    .isInstanceOf(NoFallbackAvailableException.class)
+                    .hasCauseInstanceOf(RetryableException.class);
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2_000);
+            assertThat(hits).hasValue(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("should time every call by templated path and status")
+        void getDoctorById_shouldRecordClientTimer() {
+            long before = successfulGets();
+
+            doctorClient.getDoctorById(7L);
+            doctorClient.getDoctorById(8L);
+
+            assertThat(successfulGets() - before).isEqualTo(2);
+        }
+
+        private long successfulGets() {
+            Timer timer = meterRegistry.find("http.client.requests")
+                    .tags("http.method", "GET", "http.url", "/api/doctors/{id}", "http.status_code", "200")
+                    .timer();
+            return timer == null ? 0 : timer.count();
+        }
+    }
+
+    @Nested
+    @DisplayName("Circuit breaker")
+    class CircuitBreakerTests {
+
+        @Test
+        @DisplayName("should open after repeated server errors and reject calls without reaching the server")
+        void getDoctorById_shouldOpenBreaker_onServerErrors() {
+            behaviour.set(exchange -> respond(exchange, 500, ""));
+
+            for (int i = 0; i < 4; i++) {
+                assertThatThrownBy(() -> doctorClient.getDoctorById(7L))
+                        .hasCauseInstanceOf(FeignException.InternalServerError.class);
+            }
+            int hitsWhenOpened = hits.get();
+
+            assertThatThrownBy(() -> doctorClient.getDoctorById(7L))
+                    .isInstanceOf(NoFallbackAvailableException.class)
+                    .hasCauseInstanceOf(CallNotPermittedException.class);
+
+            assertThat(hits).hasValue(hitsWhenOpened);
+            assertThat(circuitBreakerRegistry.circuitBreaker("doctor-microservice").getState())
+                    .isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+                    .tags("name", "doctor-microservice", "state", "open").gauge().value()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls")
+                    .tag("name", "doctor-microservice").counter().count()).isGreaterThanOrEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulkhead")
+    class BulkheadTests {
+
+        @Test
+        @DisplayName("should reject calls above the concurrency limit and count the rejections")
+        void getDoctorById_shouldRejectWhenBulkheadIsFull() throws Exception {
+            CountDownLatch inFlight = new CountDownLatch(2);
+            CountDownLatch release = new CountDownLatch(1);
+            behaviour.set(exchange -> {
+                inFlight.countDown();
+                await(release);
+                respond(exchange, 200, DOCTOR_JSON);
+            });
+            double rejectedBefore = meterRegistry.get("resilience4j.bulkhead.rejected.calls")
+                    .tag("name", "doctor-microservice").counter().count();
+
+            ExecutorService callers = Executors.newFixedThreadPool(2);
+            try {
+                List<Future<Optional<DoctorDTO>>> slowCalls = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    slowCalls.add(callers.submit(() -> doctorClient.getDoctorById(7L)));
+                }
+                assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+                assertThatThrownBy(() -> doctorClient.getDoctorById(7L))
+                        .isInstanceOf(NoFallbackAvailableException.class)
+                        .hasCauseInstanceOf(BulkheadFullException.class);
+
+                release.countDown();
+                for (Future<Optional<DoctorDTO>> call : slowCalls) {
+                    call.get(5, TimeUnit.SECONDS);
+                }
+            } finally {
+                release.countDown();
+                callers.shutdownNow();
+            }
+
+            assertThat(meterRegistry.get("resilience4j.bulkhead.rejected.calls")
+                    .tag("name", "doctor-microservice").counter().count()).isEqualTo(rejectedBefore + 1);
+        }
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = DoctorClient.class)
+    @Import({FeignClientConfig.class, ResilienceConfig.class})
+    static class ClientConfig {
+    }
+
+    @FunctionalInterface
+    private interface StubResponse {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            httpServer.setExecutor(Executors.newCachedThreadPool());
+            httpServer.createContext("/", exchange -> {
+                hits.incrementAndGet();
+                lastAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+                try {
+                    behaviour.get().handle(exchange);
+                } finally {
+                    exchange.close();
+                }
+            });
+            httpServer.start();
+            return httpServer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.visor.hospital_microservice.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-04-10T10:00:00Z");
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private final AtomicLong ticker = new AtomicLong();
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5),
+                Clock.fixed(NOW, ZoneOffset.UTC), ticker::get);
+    }
+
+    @Test
+    @DisplayName("should verify a token once and serve repeated calls from the cache")
+    void decode_shouldVerifyOnce_forRepeatedToken() {
+        Jwt jwt = jwt("token-a", NOW.plusSeconds(60));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode(new String("token-a"))).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("should verify the token again once it has expired")
+    void decode_shouldReverify_afterTokenExpiry() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(60)));
+
+        decoder.decode("token-a");
+        ticker.addAndGet(Duration.ofSeconds(61).toNanos());
+        decoder.decode("token-a");
+
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("should never keep a token longer than the configured max ttl")
+    void decode_shouldCapLifetime_atMaxTtl() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plus(Duration.ofHours(8))));
+
+        decoder.decode("token-a");
+        ticker.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+        decoder.decode("token-a");
+
+        verify(delegate, times(2)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("should not cache tokens that fail verification")
+    void decode_shouldNotCacheFailures() {
+        when(delegate.decode("forged")).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("forged");
+        assertThat(decoder.estimatedSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("should publish hit and miss counts")
+    void bindTo_shouldExposeCacheMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        decoder.bindTo(meterRegistry);
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(60)));
+
+        decoder.decode("token-a");
+        decoder.decode("token-a");
+
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "jwt.decoder", "result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "jwt.decoder", "result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("doctor")
+                .issuedAt(NOW.minusSeconds(10))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.visor.hospital_microservice.configuration;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class GatewayTrustAuthenticationManagerResolverTest {
+
+    private static final String SECRET = "gateway-secret";
+    private static final Instant NOW = Instant.parse("2025-04-10T10:00:00Z");
+
+    @Mock
+    private JwtDecoder jwtDecoder;
+
+    private GatewayTrustAuthenticationManagerResolver resolver;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        resolver = resolver(true);
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), new JWTClaimsSet.Builder()
+                .subject("kc-hospital")
+                .issueTime(Date.from(Instant.now().minusSeconds(10)))
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .claim("realm_access", Map.of("roles", List.of("hospital")))
+                .build());
+        jwt.sign(new MACSigner("a-signing-key-that-is-at-least-32-bytes"));
+        token = jwt.serialize();
+    }
+
+    @Test
+    @DisplayName("should authenticate without verifying the token when the gateway signature is valid")
+    void resolve_shouldTrustSignedRequest() {
+        MockHttpServletRequest request = signedRequest(NOW.toEpochMilli(), "7");
+
+        Authentication authentication = resolver.resolve(request)
+                .authenticate(new BearerTokenAuthenticationToken(token));
+
+        assertThat(authentication).isInstanceOf(RealmRoleAuthenticationToken.class);
+        assertThat(((RealmRoleAuthenticationToken) authentication).hasRole(RealmRole.HOSPITAL)).isTrue();
+        assertThat(GatewayIdentity.from(request)).isEqualTo(
+                new GatewayIdentity("kc-hospital", RealmRole.HOSPITAL.bit(), null, 7L));
+        verifyNoInteractions(jwtDecoder);
+    }
+
+    @Test
+    @DisplayName("should fall back to full verification when a signed header was altered")
+    void resolve_shouldRejectTamperedHeaders() {
+        MockHttpServletRequest request = signedRequest(NOW.toEpochMilli(), "7");
+        request.removeHeader(GatewayIdentity.HOSPITAL_ID);
+        request.addHeader(GatewayIdentity.HOSPITAL_ID, "8");
+
+        assertFullyVerified(request);
+    }
+
+    @Test
+    @DisplayName("should fall back to full verification when the signature is too old")
+    void resolve_shouldRejectStaleSignature() {
+        assertFullyVerified(signedRequest(NOW.minusSeconds(31).toEpochMilli(), "7"));
+    }
+
+    @Test
+    @DisplayName("should ignore gateway headers when trust is disabled")
+    void resolve_shouldIgnoreHeaders_whenDisabled() {
+        resolver = resolver(false);
+
+        assertFullyVerified(signedRequest(NOW.toEpochMilli(), "7"));
+    }
+
+    private void assertFullyVerified(MockHttpServletRequest request) {
+        assertThat(resolver.resolve(request)).isSameAs(resolver.resolve(new MockHttpServletRequest()));
+        assertThat(GatewayIdentity.from(request)).isNull();
+    }
+
+    private GatewayTrustAuthenticationManagerResolver resolver(boolean enabled) {
+        return new GatewayTrustAuthenticationManagerResolver(jwtDecoder, new RealmRoleAuthenticationConverter(16),
+                enabled, SECRET, 30_000, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private MockHttpServletRequest signedRequest(long timestamp, String hospitalId) {
+        String roles = Integer.toString(RealmRole.HOSPITAL.bit());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hospitals");
+        request.addHeader("Authorization", "Bearer " + token);
+        request.addHeader(GatewayIdentity.SUBJECT, "kc-hospital");
+        request.addHeader(GatewayIdentity.ROLES, roles);
+        request.addHeader(GatewayIdentity.HOSPITAL_ID, hospitalId);
+        request.addHeader(GatewayIdentity.TIMESTAMP, Long.toString(timestamp));
+        request.addHeader(GatewayIdentity.SIGNATURE,
+                sign("kc-hospital\n" + roles + "\n\n" + hospitalId + "\n" + timestamp + "\n" + token));
+        return request;
+    }
+
+    private static String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.visor.hospital_microservice.configuration;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds virtual threads pinned to their carrier by sampling JSON thread dumps while work runs. A
+ * virtual thread that blocks while it holds a monitor, or from inside a native frame, cannot unmount
+ * and parks the carrier instead, which shows in its stack as {@code VirtualThread.parkOnCarrierThread}.
+ * Each distinct pinned stack is reported once. Needs a Java 21 runtime.
+ */
+final class PinnedThreadDetector implements AutoCloseable {
+
+    private static final String PINNED_FRAME = "java.lang.VirtualThread.parkOnCarrierThread";
+    private static final Pattern NAME = Pattern.compile("^\\s*\"name\": \"(.*)\",?$");
+    private static final Pattern FRAME = Pattern.compile("^\\s*\"(.*)\",?$");
+
+    private final Path dumps;
+    private final AtomicInteger samples = new AtomicInteger();
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pinned-thread-detector");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PinnedThreadDetector() throws IOException {
+        this.dumps = Files.createTempDirectory("thread-dumps");
+    }
+
+    /** A detector that only samples when {@link #sample()} is called. */
+    static PinnedThreadDetector create() throws IOException {
+        return new PinnedThreadDetector();
+    }
+
+    /** A detector that also samples in the background every {@code interval}. */
+    static PinnedThreadDetector sampling(Duration interval) throws IOException {
+        PinnedThreadDetector detector = new PinnedThreadDetector();
+        detector.sampler.scheduleWithFixedDelay(detector::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return detector;
+    }
+
+    void sample() {
+        Path dump = dumps.resolve("dump-" + samples.incrementAndGet() + ".json");
+        try {
+            ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "threadDumpToFile",
+                    new Object[]{new String[]{"-format=json", dump.toString()}},
+                    new String[]{String[].class.getName()});
+            pinned.addAll(pinnedStacks(Files.readAllLines(dump)));
+            Files.delete(dump);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not take a thread dump", e);
+        }
+    }
+
+    int samples() {
+        return samples.get();
+    }
+
+    Set<String> pinnedStacks() {
+        return Set.copyOf(pinned);
+    }
+
+    /**
+     * Reads the dump line by line rather than as JSON: the JDK 21 writer leaves a trailing comma after
+     * the last frame of a stack.
+     */
+    static List<String> pinnedStacks(List<String> dump) {
+        List<String> stacks = new ArrayList<>();
+        String thread = null;
+        List<String> frames = null;
+        for (String line : dump) {
+            Matcher name = NAME.matcher(line);
+            if (name.matches()) {
+                thread = name.group(1);
+            } else if (line.trim().equals("\"stack\": [")) {
+                frames = new ArrayList<>();
+            } else if (frames != null && line.trim().startsWith("]")) {
+                if (frames.stream().anyMatch(frame -> frame.contains(PINNED_FRAME))) {
+                    stacks.add(thread + "\n\tat " + String.join("\n\tat ", frames));
+                }
+                frames = null;
+            } else if (frames != null) {
+                Matcher frame = FRAME.matcher(line);
+                if (frame.matches()) {
+                    frames.add(frame.group(1).replace("\\/", "/"));
+                }
+            }
+        }
+        return stacks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sampler.shutdownNow();
+        try {
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try (var leftovers = Files.list(dumps)) {
+            for (Path dump : leftovers.toList()) {
+                Files.deleteIfExists(dump);
+            }
+        }
+        Files.delete(dumps);
+    }
+}
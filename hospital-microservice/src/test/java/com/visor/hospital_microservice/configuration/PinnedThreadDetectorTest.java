@@ -0,0 +1,103 @@
+package com.visor.hospital_microservice.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PinnedThreadDetectorTest {
+
+    @Test
+    @DisplayName("should report the stack of a virtual thread parked on its carrier")
+    void pinnedStacks_shouldReportParkOnCarrierThread() {
+        List<String> dump = List.of(
+                "         {",
+                "           \"tid\": \"13\",",
+                "           \"name\": \"pinned\",",
+                "           \"stack\": [",
+                "              \"java.base\\/java.lang.VirtualThread.parkOnCarrierThread(VirtualThread.java:665)\",",
+                "              \"java.base\\/java.lang.VirtualThread.parkNanos(VirtualThread.java:636)\",",
+                "              \"org.postgresql.core.PGStream.receiveChar(PGStream.java:372)\",",
+                "           ]",
+                "         },",
+                "         {",
+                "           \"tid\": \"14\",",
+                "           \"name\": \"unmounted\",",
+                "           \"stack\": [",
+                "              \"java.base\\/java.lang.VirtualThread.park(VirtualThread.java:582)\",",
+                "           ]",
+                "         }");
+
+        assertThat(PinnedThreadDetector.pinnedStacks(dump)).containsExactly("""
+                pinned
+                \tat java.base/java.lang.VirtualThread.parkOnCarrierThread(VirtualThread.java:665)
+                \tat java.base/java.lang.VirtualThread.parkNanos(VirtualThread.java:636)
+                \tat org.postgresql.core.PGStream.receiveChar(PGStream.java:372)""");
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("should detect a virtual thread that blocks while holding a monitor")
+    void sample_shouldDetectPinnedVirtualThread() throws Exception {
+        Object monitor = new Object();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("pinned-");
+
+        try (PinnedThreadDetector detector = PinnedThreadDetector.create()) {
+            executor.execute(() -> {
+                synchronized (monitor) {
+                    holding.countDown();
+                    awaitQuietly(release);
+                }
+            });
+            assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+            // the thread may not have parked yet when the latch opens
+            for (int attempt = 0; attempt < 50 && detector.pinnedStacks().isEmpty(); attempt++) {
+                detector.sample();
+                TimeUnit.MILLISECONDS.sleep(20);
+            }
+            release.countDown();
+
+            assertThat(detector.pinnedStacks()).singleElement().asString()
+                    .startsWith("pinned-")
+                    .contains("parkOnCarrierThread", PinnedThreadDetectorTest.class.getName());
+        }
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("should not report a virtual thread that unmounts while it waits")
+    void sample_shouldIgnoreUnmountedVirtualThread() throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("unmounted-");
+
+        try (PinnedThreadDetector detector = PinnedThreadDetector.create()) {
+            executor.execute(() -> {
+                waiting.countDown();
+                awaitQuietly(release);
+            });
+            assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+            detector.sample();
+            release.countDown();
+
+            assertThat(detector.pinnedStacks()).isEmpty();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
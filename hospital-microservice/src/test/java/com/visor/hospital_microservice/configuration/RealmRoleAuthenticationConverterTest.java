@@ -0,0 +1,118 @@
+package com.visor.hospital_microservice.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RealmRoleAuthenticationConverterTest {
+
+    private final RealmRoleAuthenticationConverter converter = new RealmRoleAuthenticationConverter(16);
+
+    @Test
+    @DisplayName("should map realm roles to authorities and a role mask")
+    void convert_shouldMapRealmRoles() {
+        RealmRoleAuthenticationToken token = convert(jwt(List.of("hospital", "offline_access")));
+
+        assertThat(token.getName()).isEqualTo("kc-1");
+        assertThat(token.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_hospital", "ROLE_offline_access");
+        assertThat(token.hasRole(RealmRole.HOSPITAL)).isTrue();
+        assertThat(token.hasRole(RealmRole.DOCTOR)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should resolve each distinct role list once and share the authority instances")
+    void convert_shouldReuseResolvedAuthorities() {
+        RealmRoleAuthenticationToken first = convert(jwt(new ArrayList<>(List.of("doctor", "offline_access"))));
+        RealmRoleAuthenticationToken second = convert(jwt(new ArrayList<>(List.of("doctor", "offline_access"))));
+
+        List<GrantedAuthority> firstAuthorities = List.copyOf(first.getAuthorities());
+        List<GrantedAuthority> secondAuthorities = List.copyOf(second.getAuthorities());
+        assertThat(firstAuthorities.get(0)).isSameAs(RealmRole.DOCTOR.authority());
+        assertThat(secondAuthorities.get(1)).isSameAs(firstAuthorities.get(1));
+        assertThat(converter.estimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should produce no roles when the realm_access claim is missing")
+    void convert_shouldHandleMissingRealmAccess() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("kc-1")
+                .issuedAt(Instant.now()).build();
+
+        RealmRoleAuthenticationToken token = convert(jwt);
+
+        assertThat(token.getAuthorities()).isEmpty();
+        assertThat(token.getRoles()).isZero();
+    }
+
+    @Test
+    @DisplayName("should grant request access only when one of the required roles is present")
+    void anyOf_shouldTestRoleMask() {
+        AuthorizationManager<RequestAuthorizationContext> doctorOrHospital =
+                RealmRole.anyOf(RealmRole.DOCTOR, RealmRole.HOSPITAL);
+        AuthorizationManager<RequestAuthorizationContext> hospitalOnly = RealmRole.anyOf(RealmRole.HOSPITAL);
+        RealmRoleAuthenticationToken doctor = convert(jwt(List.of("doctor")));
+        AnonymousAuthenticationToken anonymous = new AnonymousAuthenticationToken("key", "anonymous",
+                AuthorityUtils.createAuthorityList("ROLE_hospital"));
+
+        assertThat(doctorOrHospital.check(() -> doctor, null).isGranted()).isTrue();
+        assertThat(hospitalOnly.check(() -> doctor, null).isGranted()).isFalse();
+        assertThat(hospitalOnly.check(() -> anonymous, null).isGranted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should grant service-only requests to service accounts and not to users")
+    void anyOf_shouldKeepServiceRoleApart() {
+        AuthorizationManager<RequestAuthorizationContext> serviceOnly = RealmRole.anyOf(RealmRole.SERVICE);
+        RealmRoleAuthenticationToken service = convert(jwt(List.of("service")));
+        RealmRoleAuthenticationToken doctor = convert(jwt(List.of("doctor")));
+        RealmRoleAuthenticationToken hospital = convert(jwt(List.of("hospital")));
+
+        assertThat(serviceOnly.check(() -> service, null).isGranted()).isTrue();
+        assertThat(serviceOnly.check(() -> doctor, null).isGranted()).isFalse();
+        assertThat(serviceOnly.check(() -> hospital, null).isGranted()).isFalse();
+        assertThat(service.hasRole(RealmRole.DOCTOR) || service.hasRole(RealmRole.HOSPITAL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should grant own-subject requests only for the caller's own Keycloak id")
+    void ownSubject_shouldMatchTheCallersSubject() {
+        AuthorizationManager<RequestAuthorizationContext> ownHospital = RealmRole.ownSubject(RealmRole.HOSPITAL, "keycloakId");
+        RealmRoleAuthenticationToken hospital = convert(jwt(List.of("hospital")));
+        RealmRoleAuthenticationToken doctor = convert(jwt(List.of("doctor")));
+
+        assertThat(ownHospital.check(() -> hospital, context("kc-1")).isGranted()).isTrue();
+        assertThat(ownHospital.check(() -> hospital, context("kc-2")).isGranted()).isFalse();
+        assertThat(ownHospital.check(() -> doctor, context("kc-1")).isGranted()).isFalse();
+    }
+
+    private static RequestAuthorizationContext context(String keycloakId) {
+        return new RequestAuthorizationContext(new MockHttpServletRequest(), Map.of("keycloakId", keycloakId));
+    }
+
+    private RealmRoleAuthenticationToken convert(Jwt jwt) {
+        return (RealmRoleAuthenticationToken) converter.convert(jwt);
+    }
+
+    static Jwt jwt(List<String> roles) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("kc-1")
+                .issuedAt(Instant.now())
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.visor.hospital_microservice.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class StatementCounterTest {
+
+    private final StatementCounter inspector = new StatementCounter();
+
+    @Test
+    @DisplayName("should count statements only while counts are open")
+    void inspect_shouldCountOnlyWhileOpen() {
+        inspector.inspect("select 1");
+        StatementCounts counts;
+        try (StatementCounts open = StatementCounter.start()) {
+            counts = open;
+            assertThat(inspector.inspect("select h1_0.id from hospital h1_0 where h1_0.id=?"))
+                    .isEqualTo("select h1_0.id from hospital h1_0 where h1_0.id=?");
+        }
+        inspector.inspect("select 2");
+
+        assertThat(counts.total()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should group statements that differ only in literals, IN list length or whitespace")
+    void inspect_shouldGroupByShape() {
+        try (StatementCounts counts = StatementCounter.start()) {
+            inspector.inspect("select d.id from doctor d where d.id in (?, ?, ?)");
+            inspector.inspect("select d.id from doctor d where d.id in (?)");
+            inspector.inspect("select d.id\n  from doctor d where d.id in (?,?)");
+            inspector.inspect("select h.id from hospital h where h.name = 'Central' and h.id = 42");
+
+            assertThat(counts.total()).isEqualTo(4);
+            assertThat(counts.byShape()).containsExactly(
+                    entry("select d.id from doctor d where d.id in (?)", 3),
+                    entry("select h.id from hospital h where h.name = ? and h.id = ?", 1));
+            assertThat(counts.mostRepeated()).contains(entry("select d.id from doctor d where d.id in (?)", 3));
+        }
+    }
+
+    @Test
+    @DisplayName("should add a statement to every open counts when counting is nested")
+    void inspect_shouldCountIntoEveryOpenCounts() {
+        try (StatementCounts request = StatementCounter.start()) {
+            inspector.inspect("select 1");
+            try (StatementCounts section = StatementCounter.start()) {
+                inspector.inspect("select 2");
+                assertThat(section.total()).isEqualTo(1);
+            }
+            inspector.inspect("select 3");
+            assertThat(request.total()).isEqualTo(3);
+        }
+    }
+}
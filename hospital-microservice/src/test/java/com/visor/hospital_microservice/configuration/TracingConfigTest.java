@@ -0,0 +1,32 @@
+package com.visor.hospital_microservice.configuration;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(TracingConfig.class);
+
+    @Test
+    void shouldLogSlowRequestsByDefault_withoutTheJsonSpanLog() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(SlowRequestSpanProcessor.class);
+            assertThat(context).doesNotHaveBean(SpanExporter.class);
+        });
+    }
+
+    @Test
+    void shouldFollowTheTracingSwitches() {
+        contextRunner.withPropertyValues("tracing.slow-request.enabled=false", "tracing.otlp-json-log.enabled=true")
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(SlowRequestSpanProcessor.class);
+                    assertThat(context).hasSingleBean(SpanExporter.class);
+                });
+    }
+}
@@ -0,0 +1,87 @@
+package com.visor.hospital_microservice.configuration;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs queries from many more virtual threads than there are pooled connections, the way requests
+ * reach the database with {@code spring.threads.virtual.enabled}, and fails if Hikari or the Postgres
+ * driver pins a carrier thread while waiting for a connection or for the server. Skipped when Docker
+ * is not available or the runtime is older than Java 21.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadJdbcPinningTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int CALLERS = 40;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(POSTGRES.getJdbcUrl());
+        config.setUsername(POSTGRES.getUsername());
+        config.setPassword(POSTGRES.getPassword());
+        config.setMaximumPoolSize(POOL_SIZE);
+        dataSource = new HikariDataSource(config);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @AfterAll
+    static void closeDataSource() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("should not pin carrier threads while virtual threads wait on the pool and the driver")
+    void queries_shouldNotPinCarrierThreads() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("jdbc-");
+
+        try (PinnedThreadDetector detector = PinnedThreadDetector.sampling(Duration.ofMillis(20))) {
+            List<CompletableFuture<Void>> callers = new ArrayList<>();
+            for (int caller = 0; caller < CALLERS; caller++) {
+                long hospitalId = caller;
+                callers.add(CompletableFuture.runAsync(() -> {
+                    jdbc.queryForList("select hd1_0.doctor_id from hospital_doctor hd1_0 "
+                            + "where hd1_0.hospital_id=? and hd1_0.deleted_at is null", Long.class, hospitalId);
+                    jdbc.execute("select pg_sleep(0.1)");
+                }, executor));
+            }
+            // with few carriers pinning can stall the callers for good, so report the stacks either way
+            CompletableFuture.allOf(callers.toArray(CompletableFuture[]::new))
+                    .completeOnTimeout(null, 30, TimeUnit.SECONDS)
+                    .exceptionally(failure -> null)
+                    .join();
+
+            assertThat(detector.samples()).isPositive();
+            assertThat(detector.pinnedStacks()).isEmpty();
+            assertThat(callers).allSatisfy(caller -> assertThat(caller).isCompleted());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.visor.hospital_microservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.hospital_microservice.configuration.GatewayIdentity;
 import com.visor.hospital_microservice.entity.Hospital;
 import com.visor.hospital_microservice.exception.ResourceNotFoundException;
 import com.visor.hospital_microservice.repository.HospitalRepository;
@@ -22,6 +23,8 @@ import java.util.Map;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -97,6 +100,8 @@ public class HospitalControllerTest {
                             jwt.claim("realm_access", Map.of("roles", List.of("HOSPITAL")));
                         })))
                 .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=60, private"))
+                .andExpect(header().string("Surrogate-Control", "max-age=60"))
                 .andExpect(jsonPath("$.address").value("Mendoza"));
     }
 
@@ -134,6 +139,34 @@ public class HospitalControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    // --- GET /api/hospitals/exist/{keycloakId} ---
+
+    @Test
+    void shouldGetHospitalIdByKeycloakId() throws Exception {
+        when(hospitalService.getHospitalIdByKeycloakId("keycloak-id-123")).thenReturn(1L);
+
+        mockMvc.perform(get("/api/hospitals/exist/keycloak-id-123")
+                        .with(jwt().jwt(jwt -> {
+                            jwt.claim("sub", "keycloak-id-123");
+                            jwt.claim("realm_access", Map.of("roles", List.of("HOSPITAL")));
+                        })))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+    }
+
+    @Test
+    void shouldReturn404IfHospitalNotFoundByKeycloakId() throws Exception {
+        when(hospitalService.getHospitalIdByKeycloakId("unknown"))
+                .thenThrow(new ResourceNotFoundException("No active hospital found with Keycloak ID: unknown"));
+
+        mockMvc.perform(get("/api/hospitals/exist/unknown")
+                        .with(jwt().jwt(jwt -> {
+                            jwt.claim("sub", "unknown");
+                            jwt.claim("realm_access", Map.of("roles", List.of("HOSPITAL")));
+                        })))
+                .andExpect(status().isNotFound());
+    }
+
     // --- PATCH /api/hospitals/{id} ---
 
     @Test
@@ -238,6 +271,20 @@ public class HospitalControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void shouldDeleteHospitalResolvedByGatewayWithoutLookup() throws Exception {
+        mockMvc.perform(delete("/api/hospitals")
+                        .requestAttr(GatewayIdentity.class.getName(), new GatewayIdentity("keycloak-id-123", 0, null, 7L))
+                        .with(jwt().jwt(jwt -> {
+                            jwt.claim("sub", "keycloak-id-123");
+                            jwt.claim("realm_access", Map.of("roles", List.of("HOSPITAL")));
+                        })))
+                .andExpect(status().isOk());
+
+        verify(hospitalService).deleteHospital(7L);
+        verify(hospitalService, never()).getHospitalIdByKeycloakId(any());
+    }
+
     @Test
     void shouldReturn403IfNoJwtAuthenticationWhenDeleting() throws Exception {
         mockMvc.perform(delete("/api/hospitals"))
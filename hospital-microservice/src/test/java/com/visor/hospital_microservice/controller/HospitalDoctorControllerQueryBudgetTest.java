@@ -0,0 +1,92 @@
+package com.visor.hospital_microservice.controller;
+
+import com.visor.hospital_microservice.client.DoctorClient;
+import com.visor.hospital_microservice.entity.Hospital;
+import com.visor.hospital_microservice.entity.HospitalDoctor;
+import com.visor.hospital_microservice.repository.HospitalDoctorRepository;
+import com.visor.hospital_microservice.repository.HospitalRepository;
+import com.visor.hospital_microservice.service.HospitalDoctorService;
+import com.visor.hospital_microservice.service.HospitalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.visor.hospital_microservice.controller.QueryBudget.assertThatQueries;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the hospital-doctor endpoints against an embedded database and checks how many SQL statements
+ * each request costs, so a lookup per association fails here instead of showing up under load.
+ */
+@WebMvcTest(controllers = HospitalDoctorController.class,
+        properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@AutoConfigureDataJpa
+@AutoConfigureTestDatabase
+@Import({HospitalService.class, HospitalDoctorService.class})
+public class HospitalDoctorControllerQueryBudgetTest {
+
+    private static final int DOCTORS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private HospitalDoctorRepository hospitalDoctorRepository;
+
+    @MockitoBean
+    private DoctorClient doctorClient;
+
+    private Hospital hospital;
+
+    @BeforeEach
+    void setUp() {
+        hospital = hospitalRepository.save(Hospital.builder().idKeycloak(UUID.randomUUID().toString()).name("Central").build());
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            hospitalDoctorRepository.save(HospitalDoctor.builder().hospitalId(hospital.getId()).doctorId(doctorId).build());
+        }
+    }
+
+    @Test
+    @DisplayName("should list a hospital's doctor associations with a fixed number of statements")
+    void getHospitalDoctor_shouldStayWithinQueryBudget() throws Exception {
+        assertThatQueries(() -> mockMvc.perform(get("/api/hospitals/hospital-doctor").with(hospitalToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(DOCTORS)))
+                .hasAtMostStatements(3)
+                .hasNoStatementRepeatedMoreThan(1);
+    }
+
+    @Test
+    @DisplayName("should build the membership snapshot in one statement whatever the number of hospitals")
+    void getHospitalDoctorSnapshot_shouldStayWithinQueryBudget() throws Exception {
+        assertThatQueries(() -> mockMvc.perform(get("/api/hospitals/hospital-doctor/snapshot").with(hospitalToken()))
+                .andExpect(status().isOk()))
+                .hasAtMostStatements(2)
+                .hasNoStatementRepeatedMoreThan(1);
+    }
+
+    private RequestPostProcessor hospitalToken() {
+        return jwt().jwt(jwt -> {
+            jwt.claim("sub", hospital.getIdKeycloak());
+            jwt.claim("realm_access", Map.of("roles", List.of("HOSPITAL")));
+        });
+    }
+}
@@ -2,6 +2,7 @@ package com.visor.hospital_microservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.visor.hospital_microservice.client.DoctorClient;
+import com.visor.hospital_microservice.dto.HospitalMembersDTO;
 import com.visor.hospital_microservice.entity.HospitalDoctor;
 import com.visor.hospital_microservice.exception.ResourceNotFoundException;
 import com.visor.hospital_microservice.repository.HospitalDoctorRepository;
@@ -261,6 +262,23 @@ public class HospitalDoctorControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    // --- GET /api/hospitals/hospital-doctor/snapshot ---
+
+    @Test
+    void shouldGetHospitalDoctorSnapshot() throws Exception {
+        when(hospitalDoctorService.getActiveMembershipSnapshot())
+                .thenReturn(List.of(new HospitalMembersDTO(1L, new long[]{1L, 4L})));
+
+        mockMvc.perform(get("/api/hospitals/hospital-doctor/snapshot")
+                        .with(jwt().jwt(jwt -> {
+                            jwt.claim("sub", "service-account-test-microservice");
+                            jwt.claim("realm_access", Map.of("roles", List.of("service")));
+                        })))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hospitalId").value(1))
+                .andExpect(jsonPath("$[0].doctorIds[1]").value(4));
+    }
+
     // --- PUT /api/hospitals/hospital-doctor/{id} ---
     @Test
     void shouldUpdateHospitalDoctor() throws Exception {
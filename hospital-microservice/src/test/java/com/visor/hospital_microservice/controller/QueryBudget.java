@@ -0,0 +1,48 @@
+package com.visor.hospital_microservice.controller;
+
+import com.visor.hospital_microservice.configuration.StatementCounter;
+import com.visor.hospital_microservice.configuration.StatementCounts;
+import org.assertj.core.api.AbstractAssert;
+
+/**
+ * Query budget assertions for tests that reach a real database. The statements are counted by
+ * {@link StatementCounter}, which the application properties register with Hibernate:
+ * <pre>{@code
+ * assertThatQueries(() -> mockMvc.perform(get("/api/hospitals/hospital-doctor")))
+ *         .hasAtMostStatements(3)
+ *         .hasNoStatementRepeatedMoreThan(1);
+ * }</pre>
+ */
+public final class QueryBudget extends AbstractAssert<QueryBudget, StatementCounts> {
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    private QueryBudget(StatementCounts counts) {
+        super(counts, QueryBudget.class);
+    }
+
+    public static QueryBudget assertThatQueries(Work work) throws Exception {
+        try (StatementCounts counts = StatementCounter.start()) {
+            work.run();
+            return new QueryBudget(counts);
+        }
+    }
+
+    public QueryBudget hasAtMostStatements(int maxStatements) {
+        if (actual.total() > maxStatements) {
+            failWithMessage("Expected at most %d SQL statements but %s", maxStatements, actual);
+        }
+        return this;
+    }
+
+    public QueryBudget hasNoStatementRepeatedMoreThan(int maxRepeats) {
+        actual.mostRepeated()
+                .filter(mostRepeated -> mostRepeated.getValue() > maxRepeats)
+                .ifPresent(mostRepeated -> failWithMessage("Expected no SQL statement to run more than %d times but %s",
+                        maxRepeats, actual));
+        return this;
+    }
+}
@@ -0,0 +1,48 @@
+package com.visor.hospital_microservice.repository;
+
+import com.visor.hospital_microservice.entity.Hospital;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A soft delete made by another instance goes straight to the database and never reaches this
+ * instance's second-level cache, so it is only seen once the cached entries expire. The regions
+ * expire after a second here, instead of the minute of {@code application.conf}.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.javax.cache.uri=second-level-cache-expiry.conf"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HospitalSecondLevelCacheExpiryTest {
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("should see a soft delete made by another instance once the cached entries expire")
+    void cachedLookups_shouldExpireAfterOtherInstanceDeletes() throws InterruptedException {
+        Hospital hospital = hospitalRepository.save(
+                Hospital.builder().idKeycloak(UUID.randomUUID().toString()).name("Central").build());
+        assertThat(hospitalRepository.findByIdKeycloakAndDeletedAtIsNull(hospital.getIdKeycloak())).isPresent();
+        assertThat(hospitalRepository.findByIdAndDeletedAtIsNull(hospital.getId())).isPresent();
+
+        jdbcTemplate.update("update hospital set deleted_at = current_timestamp where id = ?", hospital.getId());
+        assertThat(hospitalRepository.findByIdAndDeletedAtIsNull(hospital.getId())).isPresent();
+
+        TimeUnit.MILLISECONDS.sleep(1500);
+        assertThat(hospitalRepository.findByIdAndDeletedAtIsNull(hospital.getId())).isEmpty();
+        assertThat(hospitalRepository.findByIdKeycloakAndDeletedAtIsNull(hospital.getIdKeycloak())).isEmpty();
+        assertThat(hospitalRepository.existsByIdKeycloakAndDeletedAtIsNotNull(hospital.getIdKeycloak())).isTrue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.visor.hospital_microservice.repository;
+
+import com.visor.hospital_microservice.entity.Hospital;
+import com.visor.hospital_microservice.service.HospitalService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each repository call runs in its own session, so anything not issuing SQL on the repeat lookups
+ * was answered by the second-level cache.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import(HospitalService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HospitalSecondLevelCacheTest {
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+    @Autowired
+    private HospitalService hospitalService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Hospital hospital;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        hospital = hospitalRepository.save(Hospital.builder().idKeycloak(UUID.randomUUID().toString()).name("Central").build());
+    }
+
+    @Test
+    @DisplayName("should answer repeat lookups by id and Keycloak id without SQL")
+    void repeatLookups_shouldIssueNoSql() {
+        hospitalRepository.findByIdKeycloakAndDeletedAtIsNull(hospital.getIdKeycloak());
+        hospitalRepository.findByIdAndDeletedAtIsNull(hospital.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(hospitalService.getHospitalIdByKeycloakId(hospital.getIdKeycloak())).isEqualTo(hospital.getId());
+            assertThat(hospitalService.getHospitalById(hospital.getId()).getName()).isEqualTo("Central");
+            assertThat(hospitalRepository.existsByIdKeycloakAndDeletedAtIsNull(hospital.getIdKeycloak())).isTrue();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    @DisplayName("should see patches and soft deletes through the cache")
+    void cachedLookups_shouldReflectPatchAndSoftDelete() {
+        hospitalService.getHospitalById(hospital.getId());
+        hospitalRepository.findByIdKeycloakAndDeletedAtIsNull(hospital.getIdKeycloak());
+
+        hospitalService.patchHospital(hospital.getId(), Hospital.builder().name("Renamed").build());
+        assertThat(hospitalService.getHospitalById(hospital.getId()).getName()).isEqualTo("Renamed");
+
+        hospitalService.deleteHospital(hospital.getId());
+        assertThat(hospitalRepository.findByIdAndDeletedAtIsNull(hospital.getId())).isEmpty();
+        assertThat(hospitalRepository.existsByIdKeycloakAndDeletedAtIsNull(hospital.getIdKeycloak())).isFalse();
+        assertThat(hospitalRepository.existsByIdKeycloakAndDeletedAtIsNotNull(hospital.getIdKeycloak())).isTrue();
+    }
+}
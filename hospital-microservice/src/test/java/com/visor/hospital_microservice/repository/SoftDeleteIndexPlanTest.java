@@ -0,0 +1,100 @@
+package com.visor.hospital_microservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against a real Postgres and fails when a hot repository query is planned as a
+ * sequential scan, e.g. because a partial index no longer matches its predicate. The SQL mirrors what
+ * Hibernate generates for the natural-id resolution of {@link HospitalRepository} and the derived
+ * queries of {@link HospitalDoctorRepository}. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SoftDeleteIndexPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            // most rows are soft-deleted, as in a long-lived database
+            statement.execute("""
+                    INSERT INTO hospital (id_keycloak, name, created_at, deleted_at)
+                    SELECT 'kc-' || n, 'Hospital ' || n, now(), CASE WHEN n % 10 = 0 THEN NULL ELSE now() END
+                    FROM generate_series(1, 20000) n""");
+            statement.execute("""
+                    INSERT INTO hospital_doctor (hospital_id, doctor_id, created_at, deleted_at)
+                    SELECT n % 2000, n, now(), CASE WHEN n % 10 = 0 THEN NULL ELSE now() END
+                    FROM generate_series(1, 50000) n""");
+            statement.execute("VACUUM ANALYZE hospital");
+            statement.execute("VACUUM ANALYZE hospital_doctor");
+        }
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("findByNaturalIdKeycloak",
+                        "select h1_0.id from hospital h1_0 where h1_0.id_keycloak=?",
+                        new Object[]{"kc-10"}),
+                Arguments.of("existsByIdAndDeletedAtIsNull",
+                        "select hd1_0.id from hospital_doctor hd1_0 where hd1_0.id=? and hd1_0.deleted_at is null fetch first ? rows only",
+                        new Object[]{10L, 1}),
+                Arguments.of("findByDoctorIdAndHospitalIdAndDeletedAtIsNull",
+                        "select hd1_0.* from hospital_doctor hd1_0 where hd1_0.doctor_id=? and hd1_0.hospital_id=? and hd1_0.deleted_at is null",
+                        new Object[]{2010L, 10L}),
+                Arguments.of("findAllByHospitalIdAndDeletedAtIsNull",
+                        "select hd1_0.* from hospital_doctor hd1_0 where hd1_0.hospital_id=? and hd1_0.deleted_at is null",
+                        new Object[]{10L}));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    @DisplayName("should plan hot soft-delete queries on an index")
+    void hotQuery_shouldNotSeqScan(String name, String sql, Object[] parameters) throws SQLException {
+        String plan = explain(sql, parameters);
+
+        assertThat(plan).as(name).doesNotContain("Seq Scan").contains("Index");
+    }
+
+    private static String explain(String sql, Object[] parameters) throws SQLException {
+        try (Connection connection = connection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
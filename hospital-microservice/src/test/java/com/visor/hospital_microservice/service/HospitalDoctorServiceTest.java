@@ -2,6 +2,8 @@ package com.visor.hospital_microservice.service;
 
 import com.visor.hospital_microservice.client.DoctorClient;
 import com.visor.hospital_microservice.dto.DoctorDTO;
+import com.visor.hospital_microservice.dto.HospitalDoctorLink;
+import com.visor.hospital_microservice.dto.HospitalMembersDTO;
 import com.visor.hospital_microservice.entity.HospitalDoctor;
 import com.visor.hospital_microservice.exception.ResourceNotFoundException;
 import com.visor.hospital_microservice.repository.HospitalDoctorRepository;
@@ -265,6 +267,52 @@ class HospitalDoctorServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Membership snapshot")
+    class MembershipSnapshotTests {
+
+        @Test
+        @DisplayName("should group active associations by hospital and drop duplicate doctors")
+        void getActiveMembershipSnapshot_shouldGroupByHospital() {
+            given(hospitalDoctorRepository.findAllByDeletedAtIsNullOrderByHospitalIdAscDoctorIdAsc()).willReturn(List.of(
+                    link(1L, 3L), link(1L, 5L), link(1L, 5L), link(2L, 3L)));
+
+            List<HospitalMembersDTO> snapshot = hospitalDoctorService.getActiveMembershipSnapshot();
+
+            assertThat(snapshot)
+                    .asInstanceOf(InstanceOfAssertFactories.list(HospitalMembersDTO.class))
+                    .hasSize(2);
+            assertThat(snapshot.get(0).getHospitalId()).isEqualTo(1L);
+            assertThat(snapshot.get(0).getDoctorIds()).containsExactly(3L, 5L);
+            assertThat(snapshot.get(1).getHospitalId()).isEqualTo(2L);
+            assertThat(snapshot.get(1).getDoctorIds()).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("should return an empty snapshot when there are no active associations")
+        void getActiveMembershipSnapshot_shouldReturnEmpty_whenNoAssociations() {
+            given(hospitalDoctorRepository.findAllByDeletedAtIsNullOrderByHospitalIdAscDoctorIdAsc()).willReturn(List.of());
+
+            assertThat(hospitalDoctorService.getActiveMembershipSnapshot())
+                    .asInstanceOf(InstanceOfAssertFactories.list(HospitalMembersDTO.class))
+                    .isEmpty();
+        }
+
+        private HospitalDoctorLink link(Long hospitalId, Long doctorId) {
+            return new HospitalDoctorLink() {
+                @Override
+                public Long getHospitalId() {
+                    return hospitalId;
+                }
+
+                @Override
+                public Long getDoctorId() {
+                    return doctorId;
+                }
+            };
+        }
+    }
+
     private DoctorDTO buildDoctorDTO(Long id) {
         return DoctorDTO.builder()
                 .id(id)
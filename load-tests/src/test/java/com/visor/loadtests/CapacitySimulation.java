@@ -0,0 +1,102 @@
+package com.visor.loadtests;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.visor.loadtests.LoadEnvironment.DOCTOR;
+import static com.visor.loadtests.LoadEnvironment.HOSPITAL;
+import static io.gatling.javaapi.core.CoreDsl.bodyString;
+import static io.gatling.javaapi.core.CoreDsl.group;
+import static io.gatling.javaapi.core.CoreDsl.incrementConcurrentUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * How many concurrent requests the hospital and doctor services carry before latency or errors give
+ * way, for comparing platform and virtual request threads under the same heap. Each virtual user
+ * onboards a hospital with one doctor, then loops over blocking JDBC reads on both services with no
+ * think time. Users are added in steps and never leave, so every level of the report holds a fixed
+ * number of requests in flight. Run it once with and once without {@code -Dload.virtual-threads},
+ * with {@code load.java-home} pointing at a Java 21 runtime and the same {@code load.service-heap}.
+ * <p>
+ * The steps are shaped with {@code -Dload.capacity.step}, {@code -Dload.capacity.levels} and
+ * {@code -Dload.capacity.level-seconds}.
+ */
+public class CapacitySimulation extends Simulation {
+
+    private static final int STEP = Integer.getInteger("load.capacity.step", 50);
+    private static final int LEVELS = Integer.getInteger("load.capacity.levels", 6);
+    private static final Duration LEVEL = Duration.ofSeconds(Integer.getInteger("load.capacity.level-seconds", 30));
+    private static final Duration RAMP = Duration.ofSeconds(10);
+
+    private final LoadEnvironment environment = LoadEnvironment.start(List.of(DOCTOR, HOSPITAL));
+    private final String doctorUrl = environment.baseUrl(DOCTOR);
+    private final String hospitalUrl = environment.baseUrl(HOSPITAL);
+
+    private final Iterator<Map<String, Object>> clinicians = Stream.generate(() -> {
+        String id = UUID.randomUUID().toString();
+        String doctor = "capacity-doctor-" + id;
+        String hospital = "capacity-hospital-" + id;
+        return Map.<String, Object>of(
+                "doctorSubject", doctor,
+                "doctorToken", environment.signer().token(doctor, "doctor"),
+                "hospitalToken", environment.signer().token(hospital, "hospital"),
+                "hospitalSubject", hospital);
+    }).iterator();
+
+    private final ChainBuilder onboard = group(HOSPITAL).on(
+                    http("hospital id by keycloak id").get(hospitalUrl + "/api/hospitals/exist/#{hospitalSubject}")
+                            .header("Authorization", "Bearer #{hospitalToken}")
+                            .check(status().is(200)))
+            .group(DOCTOR).on(
+                    http("doctor id by keycloak id").get(doctorUrl + "/api/doctors/exist/#{doctorSubject}")
+                            .header("Authorization", "Bearer #{doctorToken}")
+                            .check(bodyString().saveAs("doctorId")))
+            .group(HOSPITAL).on(
+                    http("associate doctor").post(hospitalUrl + "/api/hospitals/hospital-doctor")
+                            .queryParam("doctorId", "#{doctorId}")
+                            .header("Authorization", "Bearer #{hospitalToken}"));
+
+    private final ChainBuilder read = group(HOSPITAL).on(
+                    http("list doctor associations").get(hospitalUrl + "/api/hospitals/hospital-doctor")
+                            .header("Authorization", "Bearer #{hospitalToken}")
+                            .check(status().is(200)))
+            .group(DOCTOR).on(
+                    http("doctor id by keycloak id").get(doctorUrl + "/api/doctors/exist/#{doctorSubject}")
+                            .header("Authorization", "Bearer #{doctorToken}")
+                            .check(status().is(200)));
+
+    private final ScenarioBuilder concurrentRequests = scenario("Concurrent requests")
+            .feed(clinicians)
+            .exec(onboard)
+            .forever().on(read);
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .acceptHeader("application/json")
+            .userAgentHeader("visor-load-tests");
+
+    {
+        setUp(concurrentRequests.injectClosed(incrementConcurrentUsers(STEP)
+                        .times(LEVELS)
+                        .eachLevelLasting(LEVEL)
+                        .separatedByRampsLasting(RAMP)
+                        .startingFrom(0)))
+                .protocols(httpProtocol)
+                .maxDuration(LEVEL.plus(RAMP).multipliedBy(LEVELS));
+    }
+
+    @Override
+    public void after() {
+        environment.close();
+    }
+}
@@ -0,0 +1,146 @@
+package com.visor.loadtests;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.visor.loadtests.LoadEnvironment.DOCTOR;
+import static com.visor.loadtests.LoadEnvironment.HOSPITAL;
+import static com.visor.loadtests.LoadEnvironment.PATIENT;
+import static com.visor.loadtests.LoadEnvironment.TEST;
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.bodyString;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.group;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.ByteArrayBodyPart;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * The clinical workflow end to end, one virtual user per new hospital and doctor: the hospital and
+ * doctor are created on first sight of their tokens, the doctor joins the hospital and registers a
+ * patient, creates a test, uploads an image stack slice by slice and opens the test by its passcode,
+ * and the hospital lists its doctors. Requests are grouped by the service that serves them, so the
+ * report gives latency percentiles and throughput per service.
+ * <p>
+ * Load is shaped with {@code -Dload.users}, {@code -Dload.ramp-seconds}, {@code -Dload.slices},
+ * {@code -Dload.slice-bytes} and {@code -Dload.opens}.
+ */
+public class ClinicalWorkflowSimulation extends Simulation {
+
+    private static final int USERS = Integer.getInteger("load.users", 10);
+    private static final Duration RAMP = Duration.ofSeconds(Integer.getInteger("load.ramp-seconds", 30));
+    private static final int SLICES = Integer.getInteger("load.slices", 300);
+    private static final int SLICE_BYTES = Integer.getInteger("load.slice-bytes", 64 * 1024);
+    private static final int OPENS = Integer.getInteger("load.opens", 5);
+
+    private static final AtomicLong IDENTIFICATION_NUMBERS = new AtomicLong(System.currentTimeMillis());
+
+    private final LoadEnvironment environment = LoadEnvironment.start();
+    private final String testUrl = environment.baseUrl(TEST);
+    private final String doctorUrl = environment.baseUrl(DOCTOR);
+    private final String hospitalUrl = environment.baseUrl(HOSPITAL);
+    private final String patientUrl = environment.baseUrl(PATIENT);
+    private final byte[] slice = randomSlice();
+
+    private final Iterator<Map<String, Object>> clinicians = Stream.generate(() -> {
+        String id = UUID.randomUUID().toString();
+        String doctor = "load-doctor-" + id;
+        String hospital = "load-hospital-" + id;
+        return Map.<String, Object>of(
+                "doctorSubject", doctor,
+                "doctorToken", environment.signer().token(doctor, "doctor"),
+                "hospitalSubject", hospital,
+                "hospitalToken", environment.signer().token(hospital, "hospital"),
+                "identificationNumber", Long.toString(IDENTIFICATION_NUMBERS.incrementAndGet()));
+    }).iterator();
+
+    private final ChainBuilder onboard = group(HOSPITAL).on(
+                    http("hospital id by keycloak id").get(hospitalUrl + "/api/hospitals/exist/#{hospitalSubject}")
+                            .header("Authorization", "Bearer #{hospitalToken}")
+                            .check(bodyString().saveAs("hospitalId")))
+            .group(DOCTOR).on(
+                    http("doctor id by keycloak id").get(doctorUrl + "/api/doctors/exist/#{doctorSubject}")
+                            .header("Authorization", "Bearer #{doctorToken}")
+                            .check(bodyString().saveAs("doctorId")))
+            .group(HOSPITAL).on(
+                    http("associate doctor").post(hospitalUrl + "/api/hospitals/hospital-doctor")
+                            .queryParam("doctorId", "#{doctorId}")
+                            .header("Authorization", "Bearer #{hospitalToken}"))
+            .group(PATIENT).on(
+                    http("create patient").post(patientUrl + "/api/patients")
+                            .header("Authorization", "Bearer #{doctorToken}")
+                            .body(StringBody("""
+                                    {"identificationNumber": "#{identificationNumber}", "firstName": "Load",
+                                     "lastName": "Patient", "gender": "Female",
+                                     "email": "#{identificationNumber}@load.visor.test"}"""))
+                            .asJson()
+                            .check(jsonPath("$.id").saveAs("patientId")));
+
+    private final ChainBuilder examine = group(TEST).on(
+            exec(http("create test").post(testUrl + "/api/tests")
+                    .header("Authorization", "Bearer #{doctorToken}")
+                    .body(StringBody("{\"patientId\": #{patientId}, \"hospitalId\": #{hospitalId}}"))
+                    .asJson()
+                    .check(status().is(201), jsonPath("$.id").saveAs("testId"), jsonPath("$.passCode").saveAs("passcode")))
+            .exec(http("create image stack").post(testUrl + "/api/tests/image-stacks")
+                    .header("Authorization", "Bearer #{doctorToken}")
+                    .body(StringBody("{\"stackName\": \"Load stack\", \"testId\": \"#{testId}\"}"))
+                    .asJson()
+                    .check(status().is(201), jsonPath("$.id").saveAs("imageStackId")))
+            .repeat(SLICES, "slice").on(
+                    http("upload slice").post(testUrl + "/api/tests/image-files")
+                            .header("Authorization", "Bearer #{doctorToken}")
+                            .formParam("imageStackId", "#{imageStackId}")
+                            .bodyPart(ByteArrayBodyPart("file", slice)
+                                    .fileName("slice-#{slice}.dcm")
+                                    .contentType("application/dicom"))
+                            .asMultipartForm()
+                            .check(status().is(201)))
+            .repeat(OPENS).on(
+                    http("open by passcode").get(testUrl + "/api/tests/passcode/#{passcode}")
+                            .check(status().is(200))));
+
+    private final ChainBuilder review = group(HOSPITAL).on(
+            http("list hospital doctors").get(hospitalUrl + "/api/hospitals/doctors/hospital")
+                    .header("Authorization", "Bearer #{hospitalToken}")
+                    .check(status().is(200)));
+
+    private final ScenarioBuilder clinicalWorkflow = scenario("Clinical workflow")
+            .feed(clinicians)
+            .exec(onboard, examine, review);
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .acceptHeader("application/json")
+            .userAgentHeader("visor-load-tests");
+
+    {
+        setUp(clinicalWorkflow.injectOpen(rampUsers(USERS).during(RAMP)))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    @Override
+    public void after() {
+        environment.close();
+    }
+
+    private static byte[] randomSlice() {
+        byte[] bytes = new byte[SLICE_BYTES];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
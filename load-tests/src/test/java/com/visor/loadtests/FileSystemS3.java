@@ -0,0 +1,178 @@
+package com.visor.loadtests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the S3 bucket, reached by {@code S3Service} through {@code aws.s3.endpoint} with
+ * path-style addressing. Objects are written under a local directory; only the calls the test service
+ * makes are understood: PutObject, GetObject, DeleteObject and a quiet DeleteObjects.
+ */
+final class FileSystemS3 implements AutoCloseable {
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>", Pattern.DOTALL);
+
+    private final Path root;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    FileSystemS3(Path root, int port) throws IOException {
+        this.root = Files.createDirectories(root);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long storedBytes() {
+        return storedBytes.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            Path object = root.resolve(path.substring(1)).normalize();
+            if (!object.startsWith(root)) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> put(exchange, object);
+                case "GET", "HEAD" -> get(exchange, object);
+                case "DELETE" -> {
+                    Files.deleteIfExists(object);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                case "POST" -> deleteObjects(exchange, object);
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private void put(HttpExchange exchange, Path object) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if ((contentEncoding != null && contentEncoding.contains("aws-chunked"))
+                || (contentSha256 != null && contentSha256.startsWith("STREAMING-"))) {
+            body = decodeAwsChunked(body);
+        }
+        Files.createDirectories(object.getParent());
+        Files.write(object, body);
+        storedBytes.addAndGet(body.length);
+
+        exchange.getResponseHeaders().set("ETag", "\"" + md5(body) + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void get(HttpExchange exchange, Path object) throws IOException {
+        if (!Files.isRegularFile(object)) {
+            byte[] error = "<Error><Code>NoSuchKey</Code></Error>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(404, error.length);
+            exchange.getResponseBody().write(error);
+            return;
+        }
+        long size = Files.size(object);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", Long.toString(size));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, size);
+        try (OutputStream out = exchange.getResponseBody()) {
+            Files.copy(object, out);
+        }
+    }
+
+    /** {@code POST /bucket?delete}; the service always asks for quiet mode, so success is an empty result. */
+    private void deleteObjects(HttpExchange exchange, Path bucket) throws IOException {
+        if (!"delete".equals(exchange.getRequestURI().getRawQuery())) {
+            exchange.sendResponseHeaders(501, -1);
+            return;
+        }
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher keys = DELETE_KEY.matcher(body);
+        while (keys.find()) {
+            Path object = bucket.resolve(keys.group(1)).normalize();
+            if (object.startsWith(bucket)) {
+                Files.deleteIfExists(object);
+            }
+        }
+        byte[] result = "<DeleteResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"/>".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, result.length);
+        exchange.getResponseBody().write(result);
+    }
+
+    /**
+     * Strips the {@code aws-chunked} framing the SDK uses to stream a payload with a trailing checksum:
+     * {@code <hex size>[;chunk-signature=...]\r\n<data>\r\n} repeated, ended by a zero-size chunk and trailers.
+     */
+    private static byte[] decodeAwsChunked(byte[] framed) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(framed.length);
+        InputStream in = new ByteArrayInputStream(framed);
+        while (true) {
+            String header = readLine(in);
+            int extension = header.indexOf(';');
+            int size = HexFormat.fromHexDigits(extension < 0 ? header.trim() : header.substring(0, extension).trim());
+            if (size == 0) {
+                return payload.toByteArray();
+            }
+            payload.write(in.readNBytes(size));
+            readLine(in);
+        }
+    }
+
+    private static String md5(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        if (c == -1 && line.isEmpty()) {
+            throw new IOException("Truncated aws-chunked payload");
+        }
+        return line.toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+}
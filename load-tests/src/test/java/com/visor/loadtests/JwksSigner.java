@@ -0,0 +1,143 @@
+package com.visor.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for the Keycloak realm. Serves the OpenID discovery document and the JWK set the services
+ * resolve from {@code spring.security.oauth2.resourceserver.jwt.issuer-uri}, and mints RS256 tokens
+ * with the claims the validation filters and the {@code realm_access} role mapping read. The token
+ * endpoint grants any client-credentials request a service account token.
+ */
+final class JwksSigner implements AutoCloseable {
+
+    static final String REALM_PATH = "/realms/medicaltestvisor-realm";
+    private static final String KEY_ID = "load-tests";
+    private static final String SERVICE_ACCOUNT = "service-account-load-tests";
+    private static final Duration TOKEN_TTL = Duration.ofHours(2);
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KeyPair keyPair;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+    private final String issuer;
+
+    JwksSigner(int port) throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.issuer = "http://localhost:" + server.getAddress().getPort() + REALM_PATH;
+        server.createContext(REALM_PATH + "/.well-known/openid-configuration", exchange -> respond(exchange, Map.of(
+                "issuer", issuer,
+                "jwks_uri", issuer + "/protocol/openid-connect/certs",
+                "id_token_signing_alg_values_supported", List.of("RS256"))));
+        server.createContext(REALM_PATH + "/protocol/openid-connect/certs", exchange -> respond(exchange, jwks()));
+        server.createContext(REALM_PATH + "/protocol/openid-connect/token", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, Map.of(
+                    "access_token", token(SERVICE_ACCOUNT, "service"),
+                    "token_type", "Bearer",
+                    "expires_in", TOKEN_TTL.toSeconds()));
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String issuer() {
+        return issuer;
+    }
+
+    String tokenUri() {
+        return issuer + "/protocol/openid-connect/token";
+    }
+
+    /**
+     * Signs a token for {@code subject} holding the single realm role {@code role}. The profile claims
+     * are what the doctor and hospital validation filters copy into a new row on first sight.
+     */
+    String token(String subject, String role) {
+        Instant now = Instant.now();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", issuer);
+        claims.put("sub", subject);
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(TOKEN_TTL).getEpochSecond());
+        claims.put("preferred_username", subject);
+        claims.put("email", subject + "@load.visor.test");
+        claims.put("name", "Load " + subject);
+        claims.put("given_name", "Load");
+        claims.put("family_name", subject);
+        claims.put("realm_access", Map.of("roles", List.of("offline_access", role)));
+
+        try {
+            String signingInput = encode(Map.of("alg", "RS256", "typ", "JWT", "kid", KEY_ID)) + "." + encode(claims);
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64_URL.encodeToString(signature.sign());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign token for " + subject, e);
+        }
+    }
+
+    private Map<String, Object> jwks() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return Map.of("keys", List.of(Map.of(
+                "kid", KEY_ID,
+                "kty", "RSA",
+                "alg", "RS256",
+                "use", "sig",
+                "n", BASE64_URL.encodeToString(unsigned(publicKey.getModulus().toByteArray())),
+                "e", BASE64_URL.encodeToString(unsigned(publicKey.getPublicExponent().toByteArray())))));
+    }
+
+    private String encode(Map<String, Object> json) throws IOException {
+        return BASE64_URL.encodeToString(objectMapper.writeValueAsBytes(json));
+    }
+
+    private void respond(HttpExchange exchange, Map<String, Object> body) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    private static byte[] unsigned(byte[] twosComplement) {
+        if (twosComplement.length > 1 && twosComplement[0] == 0) {
+            byte[] magnitude = new byte[twosComplement.length - 1];
+            System.arraycopy(twosComplement, 1, magnitude, 0, magnitude.length);
+            return magnitude;
+        }
+        return twosComplement;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+}
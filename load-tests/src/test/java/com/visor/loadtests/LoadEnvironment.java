@@ -0,0 +1,207 @@
+package com.visor.loadtests;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Everything a simulation talks to: the services it uses and local stand-ins for their infrastructure.
+ * A service whose base URL is given as {@code -Dload.<service>.url} is used as it is and must already
+ * trust {@link #issuer()}; the others are started from their jars against embedded Postgres, Mongo and
+ * Kafka, the {@link FileSystemS3} bucket and the {@link JwksSigner} realm. {@code -Dload.virtual-threads}
+ * starts them with {@code spring.threads.virtual.enabled}, which needs a Java 21 {@code load.java-home}.
+ */
+final class LoadEnvironment implements AutoCloseable {
+
+    static final String TEST = "test-microservice";
+    static final String DOCTOR = "doctor-microservice";
+    static final String HOSPITAL = "hospital-microservice";
+    static final String PATIENT = "patient-microservice";
+    private static final List<String> JPA_SERVICES = List.of(DOCTOR, HOSPITAL, PATIENT);
+    private static final List<String> ALL_SERVICES = List.of(DOCTOR, HOSPITAL, PATIENT, TEST);
+
+    private static final Logger log = LoggerFactory.getLogger(LoadEnvironment.class);
+
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+    private final Map<String, String> baseUrls = new HashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private JwksSigner signer;
+    private FileSystemS3 s3;
+
+    private LoadEnvironment() {
+    }
+
+    static LoadEnvironment start() {
+        return start(ALL_SERVICES);
+    }
+
+    static LoadEnvironment start(List<String> services) {
+        LoadEnvironment environment = new LoadEnvironment();
+        try {
+            environment.startAll(services);
+        } catch (Exception e) {
+            environment.close();
+            throw new IllegalStateException("Could not start the load-test environment", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(environment::close));
+        return environment;
+    }
+
+    private void startAll(List<String> services) throws Exception {
+        Path servicesDir = Path.of(System.getProperty("load.services-dir", "..")).toAbsolutePath().normalize();
+        Path workDir = Path.of(System.getProperty("load.work-dir", "target/load-tests")).toAbsolutePath();
+        Duration startupTimeout = Duration.parse(System.getProperty("load.startup-timeout", "PT3M"));
+
+        signer = register(new JwksSigner(Integer.getInteger("load.issuer-port", 0)));
+        log.info("Realm stand-in issuing tokens as {}", signer.issuer());
+
+        Map<String, Integer> ports = new LinkedHashMap<>();
+        for (String service : services) {
+            String url = System.getProperty("load." + service + ".url");
+            if (url != null) {
+                baseUrls.put(service, url);
+            } else {
+                int port = ServiceProcess.freePort();
+                ports.put(service, port);
+                baseUrls.put(service, "http://localhost:" + port);
+            }
+        }
+        if (ports.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> common = new LinkedHashMap<>();
+        common.put("spring.cloud.config.enabled", "false");
+        common.put("spring.cloud.bus.enabled", "false");
+        common.put("eureka.client.enabled", "false");
+        common.put("spring.security.oauth2.resourceserver.jwt.issuer-uri", signer.issuer());
+        common.put("spring.kafka.bootstrap-servers", startKafka());
+        common.put("spring.threads.virtual.enabled", Boolean.toString(Boolean.getBoolean("load.virtual-threads")));
+        baseUrls.forEach((service, url) ->
+                common.put("spring.cloud.discovery.client.simple.instances." + service + "[0].uri", url));
+
+        Map<String, Map<String, String>> properties = new LinkedHashMap<>();
+        ports.keySet().forEach(service -> properties.put(service, new LinkedHashMap<>(common)));
+
+        if (JPA_SERVICES.stream().anyMatch(ports::containsKey)) {
+            EmbeddedPostgres postgres = register(EmbeddedPostgres.builder().start());
+            for (String service : JPA_SERVICES) {
+                if (ports.containsKey(service)) {
+                    properties.get(service).putAll(createDatabase(postgres, service.replace("-microservice", "")));
+                }
+            }
+        }
+        if (ports.containsKey(TEST)) {
+            s3 = register(new FileSystemS3(workDir.resolve("s3"), 0));
+
+            Map<String, String> test = properties.get(TEST);
+            String mongoUri = System.getProperty("load.mongodb.uri");
+            test.put("spring.data.mongodb.uri", mongoUri != null ? mongoUri : startMongo());
+            test.put("aws.s3.endpoint", s3.endpoint());
+            test.put("aws.access-key", "load-tests");
+            test.put("aws.secret-key", "load-tests");
+            test.put("storage.reaper.enabled", "false");
+            test.put("spring.security.oauth2.client.provider.keycloak.token-uri", signer.tokenUri());
+        }
+
+        // the test service seeds its hospital-doctor index from the hospital service on startup
+        List<ServiceProcess> dependencies = launch(servicesDir, workDir, ports, properties, JPA_SERVICES);
+        for (ServiceProcess service : dependencies) {
+            service.awaitReady(startupTimeout);
+            log.info("{} listening on {}", service.name(), service.baseUrl());
+        }
+        for (ServiceProcess service : launch(servicesDir, workDir, ports, properties, List.of(TEST))) {
+            service.awaitReady(startupTimeout);
+            log.info("{} listening on {}", service.name(), service.baseUrl());
+        }
+    }
+
+    private List<ServiceProcess> launch(Path servicesDir, Path workDir, Map<String, Integer> ports,
+                                        Map<String, Map<String, String>> properties, List<String> services) throws Exception {
+        List<String> toLaunch = services.stream().filter(ports::containsKey).toList();
+        List<ServiceProcess> launched = new ArrayList<>();
+        for (String service : toLaunch) {
+            launched.add(register(ServiceProcess.start(service, servicesDir, ports.get(service),
+                    properties.get(service), workDir.resolve("logs"))));
+        }
+        return launched;
+    }
+
+    private String startKafka() throws Exception {
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 3);
+        kafka.afterPropertiesSet();
+        register(kafka::destroy);
+        return kafka.getBrokersAsString();
+    }
+
+    /** The embedded mongod is fetched from fastdl.mongodb.org on first use; {@code -Dload.mongodb.uri} skips it. */
+    private String startMongo() {
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V7_0);
+        register(mongod::close);
+        return "mongodb://" + mongod.current().getServerAddress() + "/medical-test-db";
+    }
+
+    private static Map<String, String> createDatabase(EmbeddedPostgres postgres, String database) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        }
+        return Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl("postgres", database),
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "postgres");
+    }
+
+    private <T extends AutoCloseable> T register(T resource) {
+        resources.push(resource);
+        return resource;
+    }
+
+    String baseUrl(String service) {
+        return baseUrls.get(service);
+    }
+
+    String issuer() {
+        return signer.issuer();
+    }
+
+    JwksSigner signer() {
+        return signer;
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (s3 != null) {
+            log.info("S3 stand-in received {} bytes", s3.storedBytes());
+        }
+        while (!resources.isEmpty()) {
+            try {
+                resources.pop().close();
+            } catch (Exception e) {
+                log.warn("Could not stop a load-test resource", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.visor.loadtests;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One of the services run from its built jar as a child JVM, on a free port and with the properties
+ * that replace what the config server, Eureka and the Docker network provide in a deployment.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    private final String name;
+    private final int port;
+    private final Process process;
+    private final Path log;
+
+    private ServiceProcess(String name, int port, Process process, Path log) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.log = log;
+    }
+
+    static ServiceProcess start(String name, Path servicesDir, int port, Map<String, String> properties,
+                                Path logDir) throws IOException {
+        Path jar = executableJar(servicesDir.resolve(name).resolve("target"), name);
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("load.java-home", System.getProperty("java.home")), "bin", "java").toString());
+        command.add("-Xmx" + System.getProperty("load.service-heap", "512m"));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Path log = Files.createDirectories(logDir).resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ServiceProcess(name, port, process, log);
+    }
+
+    /** Prefers the repackaged {@code -exec} jar, falling back to the main artifact for services without the classifier. */
+    private static Path executableJar(Path target, String name) throws IOException {
+        if (!Files.isDirectory(target)) {
+            throw new IllegalStateException("No build of " + name + " in " + target + "; run ./mvnw package -DskipTests -f " + name);
+        }
+        try (Stream<Path> jars = Files.list(target)) {
+            List<Path> candidates = jars
+                    .filter(jar -> jar.getFileName().toString().startsWith(name) && jar.getFileName().toString().endsWith(".jar"))
+                    .toList();
+            Optional<Path> exec = candidates.stream().filter(jar -> jar.getFileName().toString().endsWith("-exec.jar")).findFirst();
+            return exec.or(() -> candidates.stream().findFirst())
+                    .orElseThrow(() -> new IllegalStateException("No jar for " + name + " in " + target));
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /** Tomcat binds its port only once the application context has refreshed, so an accepted connection means ready. */
+    void awaitReady(Duration timeout) throws InterruptedException {
+        Instant deadline = Instant.now().plus(timeout);
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("localhost", port), 200);
+                return;
+            } catch (IOException notYet) {
+                TimeUnit.MILLISECONDS.sleep(500);
+            }
+        }
+        throw new IllegalStateException(name + " did not start within " + timeout + ", see " + log);
+    }
+
+    String name() {
+        return name;
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
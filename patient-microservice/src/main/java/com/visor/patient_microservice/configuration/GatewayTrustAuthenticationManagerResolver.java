@@ -0,0 +1,167 @@
+package com.visor.patient_microservice.configuration;
+
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationManagerResolver;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Chooses how a bearer token is authenticated. Requests carrying a valid gateway signature (the
+ * gateway already verified the token) only have the token parsed and its timestamps checked; every
+ * other request goes through full signature verification. With trust disabled, or no secret
+ * configured, every request is fully verified.
+ */
+public class GatewayTrustAuthenticationManagerResolver implements AuthenticationManagerResolver<HttpServletRequest> {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationManager verified;
+    private final AuthenticationManager trusted;
+    private final Mac prototype;
+    private final long maxAgeMillis;
+    private final Clock clock;
+
+    public GatewayTrustAuthenticationManagerResolver(JwtDecoder jwtDecoder,
+                                                     Converter<Jwt, ? extends AbstractAuthenticationToken> converter,
+                                                     boolean enabled, String secret, long maxAgeMillis) {
+        this(jwtDecoder, converter, enabled, secret, maxAgeMillis, Clock.systemUTC());
+    }
+
+    GatewayTrustAuthenticationManagerResolver(JwtDecoder jwtDecoder,
+                                              Converter<Jwt, ? extends AbstractAuthenticationToken> converter,
+                                              boolean enabled, String secret, long maxAgeMillis, Clock clock) {
+        this.verified = providerManager(jwtDecoder, converter);
+        this.trusted = enabled && !secret.isBlank()
+                ? providerManager(new NimbusJwtDecoder(new UnverifiedJwtProcessor()), converter)
+                : null;
+        this.prototype = trusted == null ? null : mac(secret);
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public AuthenticationManager resolve(HttpServletRequest request) {
+        if (trusted == null) {
+            return verified;
+        }
+        GatewayIdentity identity = verify(request);
+        if (identity == null) {
+            return verified;
+        }
+        request.setAttribute(GatewayIdentity.ATTRIBUTE, identity);
+        return trusted;
+    }
+
+    private GatewayIdentity verify(HttpServletRequest request) {
+        String signature = request.getHeader(GatewayIdentity.SIGNATURE);
+        String authorization = request.getHeader("Authorization");
+        if (signature == null || authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        try {
+            String subject = request.getHeader(GatewayIdentity.SUBJECT);
+            int roles = Integer.parseInt(request.getHeader(GatewayIdentity.ROLES));
+            Long doctorId = parseId(request.getHeader(GatewayIdentity.DOCTOR_ID));
+            Long hospitalId = parseId(request.getHeader(GatewayIdentity.HOSPITAL_ID));
+            long timestamp = Long.parseLong(request.getHeader(GatewayIdentity.TIMESTAMP));
+            if (subject == null || Math.abs(clock.millis() - timestamp) > maxAgeMillis) {
+                return null;
+            }
+
+            String payload = subject + '\n' + roles + '\n' + (doctorId == null ? "" : doctorId) + '\n'
+                    + (hospitalId == null ? "" : hospitalId) + '\n' + timestamp + '\n'
+                    + authorization.substring(7).trim();
+            byte[] expected = ((Mac) prototype.clone()).doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature))) {
+                return null;
+            }
+            return new GatewayIdentity(subject, roles, doctorId, hospitalId);
+        } catch (IllegalArgumentException | CloneNotSupportedException e) {
+            return null;
+        }
+    }
+
+    private static Long parseId(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static AuthenticationManager providerManager(JwtDecoder jwtDecoder,
+                                                         Converter<Jwt, ? extends AbstractAuthenticationToken> converter) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(converter);
+        return new ProviderManager(provider);
+    }
+
+    private static Mac mac(String secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise gateway signature verification", e);
+        }
+    }
+
+    /**
+     * Reads the claims of a signed token without checking the signature, which the gateway has
+     * already done for this exact token.
+     */
+    private static final class UnverifiedJwtProcessor implements JWTProcessor<SecurityContext> {
+
+        @Override
+        public JWTClaimsSet process(String token, SecurityContext context) throws ParseException, BadJOSEException {
+            return process(JWTParser.parse(token), context);
+        }
+
+        @Override
+        public JWTClaimsSet process(JWT jwt, SecurityContext context) throws BadJOSEException {
+            if (!(jwt instanceof SignedJWT signed)) {
+                throw new BadJOSEException("Only signed tokens are accepted");
+            }
+            return process(signed, context);
+        }
+
+        @Override
+        public JWTClaimsSet process(PlainJWT jwt, SecurityContext context) throws BadJOSEException {
+            throw new BadJOSEException("Only signed tokens are accepted");
+        }
+
+        @Override
+        public JWTClaimsSet process(SignedJWT jwt, SecurityContext context) throws BadJOSEException {
+            try {
+                return jwt.getJWTClaimsSet();
+            } catch (ParseException e) {
+                throw new BadJOSEException("Invalid token claims", e);
+            }
+        }
+
+        @Override
+        public JWTClaimsSet process(EncryptedJWT jwt, SecurityContext context) throws BadJOSEException {
+            throw new BadJOSEException("Only signed tokens are accepted");
+        }
+    }
+}
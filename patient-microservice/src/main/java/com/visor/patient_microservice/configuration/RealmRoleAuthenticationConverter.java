@@ -0,0 +1,75 @@
+package com.visor.patient_microservice.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a verified JWT into a {@link RealmRoleAuthenticationToken} using {@code realm_access.roles}.
+ *
+ * <p>Only a handful of distinct role lists exist, so the authorities and role mask are resolved once
+ * per list and shared by every later request with the same roles. A cache hit allocates nothing
+ * beyond the token itself.
+ */
+public class RealmRoleAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private static final ResolvedRoles NO_ROLES = new ResolvedRoles(List.of(), 0);
+
+    private final Cache<List<?>, ResolvedRoles> resolved;
+
+    public RealmRoleAuthenticationConverter(long maximumSize) {
+        this.resolved = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        ResolvedRoles roles = resolve(jwt);
+        return new RealmRoleAuthenticationToken(jwt, roles.authorities(), roles.mask());
+    }
+
+    private ResolvedRoles resolve(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaim("realm_access");
+        if (realmAccess == null || !(realmAccess.get("roles") instanceof List<?> roles) || roles.isEmpty()) {
+            return NO_ROLES;
+        }
+
+        ResolvedRoles cached = resolved.getIfPresent(roles);
+        if (cached != null) {
+            return cached;
+        }
+        ResolvedRoles computed = compute(roles);
+        resolved.put(List.copyOf(roles), computed);
+        return computed;
+    }
+
+    private static ResolvedRoles compute(List<?> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        int mask = 0;
+        for (Object name : roles) {
+            RealmRole role = RealmRole.fromName(String.valueOf(name));
+            if (role != null) {
+                authorities.add(role.authority());
+                mask |= role.bit();
+            } else {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + name));
+            }
+        }
+        return new ResolvedRoles(List.copyOf(authorities), mask);
+    }
+
+    long estimatedSize() {
+        resolved.cleanUp();
+        return resolved.estimatedSize();
+    }
+
+    private record ResolvedRoles(List<GrantedAuthority> authorities, int mask) {
+    }
+}
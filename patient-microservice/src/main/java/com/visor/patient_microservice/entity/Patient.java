@@ -1,5 +1,6 @@
 package com.visor.patient_microservice.entity;
 
+import com.visor.patient_microservice.event.PatientEntityListener;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,6 +9,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(PatientEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
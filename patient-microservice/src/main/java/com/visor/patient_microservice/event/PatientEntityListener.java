@@ -0,0 +1,30 @@
+package com.visor.patient_microservice.event;
+
+import com.visor.patient_microservice.entity.Patient;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns patient writes into {@link PatientEvent}s. A soft delete is an update that sets
+ * {@code deletedAt}, so it is published as {@link DomainEventType#DELETED}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    public void onCreated(Patient patient) {
+        applicationEventPublisher.publishEvent(PatientEvent.of(DomainEventType.CREATED, patient));
+    }
+
+    @PostUpdate
+    public void onUpdated(Patient patient) {
+        DomainEventType type = patient.getDeletedAt() == null ? DomainEventType.UPDATED : DomainEventType.DELETED;
+        applicationEventPublisher.publishEvent(PatientEvent.of(type, patient));
+    }
+}
@@ -0,0 +1,24 @@
+package com.visor.patient_microservice.event;
+
+import com.visor.patient_microservice.entity.Patient;
+
+import java.time.Instant;
+
+public record PatientEvent(DomainEventType type, Long id, Instant occurredAt) implements DomainEvent {
+
+    public static final String TOPIC = "patient-events";
+
+    public static PatientEvent of(DomainEventType type, Patient patient) {
+        return new PatientEvent(type, patient.getId(), Instant.now());
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.visor.patient_microservice.mapper;
+
+import com.visor.patient_microservice.entity.Patient;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Applies an update body to a stored {@link Patient}. Properties left out of the body keep their
+ * value, and a client cannot move {@code createdAt} or undo a soft delete.
+ */
+@Mapper
+public interface PatientMapper {
+
+    PatientMapper INSTANCE = Mappers.getMapper(PatientMapper.class);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    void patch(Patient partial, @MappingTarget Patient existing);
+}
@@ -1,6 +1,7 @@
 package com.visor.patient_microservice.service;
 
 import com.visor.patient_microservice.entity.Patient;
+import com.visor.patient_microservice.mapper.PatientMapper;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Example;
@@ -40,11 +41,12 @@ public class PatientService {
         return patientRepository.findAll(example);
     }
     public Patient updatePatient(Long id, Patient patient) {
-        if (patientRepository.existsById(id)) {
-            patient.setId(id);
-            return patientRepository.save(patient);
-        }
-        return null;
+        return patientRepository.findById(id)
+                .map(existing -> {
+                    PatientMapper.INSTANCE.patch(patient, existing);
+                    return patientRepository.save(existing);
+                })
+                .orElse(null);
     }
 
     public void deletePatient(Long id) {
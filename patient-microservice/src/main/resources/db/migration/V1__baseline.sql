@@ -0,0 +1,13 @@
+-- Schema as previously generated by Hibernate. Existing databases are baselined at this version.
+CREATE TABLE patient (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    identification_number VARCHAR(255) UNIQUE,
+    first_name            VARCHAR(255),
+    last_name             VARCHAR(255),
+    date_of_birth         DATE,
+    gender                VARCHAR(255),
+    email                 VARCHAR(255),
+    phone_number          VARCHAR(255),
+    created_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    deleted_at            TIMESTAMP(6) WITH TIME ZONE
+);
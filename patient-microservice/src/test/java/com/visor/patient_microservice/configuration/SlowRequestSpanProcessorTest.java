@@ -0,0 +1,115 @@
+package com.visor.patient_microservice.configuration;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SlowRequestSpanProcessorTest {
+
+    private static final long REQUEST_START = Instant.parse("2025-04-10T10:00:00Z").toEpochMilli();
+
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(new SlowRequestSpanProcessor(Duration.ofSeconds(1), 100, Duration.ofMinutes(1)))
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    @DisplayName("should log the span tree of a request slower than the threshold")
+    void onEnd_shouldLogBreakdown_forSlowRequest(CapturedOutput output) {
+        Span request = span("http get /api/patients/{id}", SpanKind.SERVER, Context.root(), 0);
+        Context requestContext = Context.root().with(request);
+        Span repository = span("patient-repository#find-by-id", SpanKind.INTERNAL, requestContext, 10);
+        Span query = span("query", SpanKind.CLIENT, requestContext.with(repository), 20);
+        query.setAttribute("jdbc.query[0]", "select p1_0.id from patient p1_0 where p1_0.id=?");
+        end(query, 320);
+        end(repository, 330);
+        Span call = span("http get", SpanKind.CLIENT, requestContext, 400);
+        call.setStatus(StatusCode.ERROR);
+        end(call, 1400);
+        end(request, 1500);
+
+        String traceId = request.getSpanContext().getTraceId();
+        assertThat(output).contains("Slow request http get /api/patients/{id} took 1500 ms, trace " + traceId)
+                .contains("""
+                          +0 ms http get /api/patients/{id} (1500 ms)
+                            +10 ms patient-repository#find-by-id (320 ms)
+                              +20 ms query (300 ms) select p1_0.id from patient p1_0 where p1_0.id=?
+                            +400 ms http get (1000 ms) [error]
+                        """);
+    }
+
+    @Test
+    @DisplayName("should not log a request faster than the threshold")
+    void onEnd_shouldStayQuiet_forFastRequest(CapturedOutput output) {
+        Span request = span("http get /api/patients/{id}", SpanKind.SERVER, Context.root(), 0);
+        end(span("query", SpanKind.CLIENT, Context.root().with(request), 10), 500);
+        end(request, 999);
+
+        assertThat(output).doesNotContain("Slow request");
+    }
+
+    @Test
+    @DisplayName("should not log a slow span that is not part of a request")
+    void onEnd_shouldStayQuiet_forSlowNonRequestRoot(CapturedOutput output) {
+        end(span("connection", SpanKind.CLIENT, Context.root(), 0), 4000);
+
+        assertThat(output).doesNotContain("Slow request");
+    }
+
+    @Test
+    @DisplayName("should treat a span continuing a remote trace as the root of the local request")
+    void onEnd_shouldLogBreakdown_forRemoteParent(CapturedOutput output) {
+        SpanContext caller = SpanContext.createFromRemoteParent("0af7651916cd43dd8448eb211c80319c",
+                "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault());
+        Span local = span("http get /api/patients/{id}", SpanKind.SERVER,
+                Context.root().with(Span.wrap(caller)), 0);
+        end(span("query", SpanKind.CLIENT, Context.root().with(local), 5), 1200);
+        end(local, 1300);
+
+        assertThat(output).contains("Slow request http get /api/patients/{id} took 1300 ms, trace 0af7651916cd43dd8448eb211c80319c")
+                .contains("    +5 ms query (1195 ms)");
+    }
+
+    private Span span(String name, SpanKind kind, Context parent, long startMillis) {
+        return tracer.spanBuilder(name)
+                .setSpanKind(kind)
+                .setParent(parent)
+                .setStartTimestamp(REQUEST_START + startMillis, TimeUnit.MILLISECONDS)
+                .startSpan();
+    }
+
+    private static void end(Span span, long endMillis) {
+        span.end(REQUEST_START + endMillis, TimeUnit.MILLISECONDS);
+    }
+}
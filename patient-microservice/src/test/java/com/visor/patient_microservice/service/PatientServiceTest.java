@@ -0,0 +1,104 @@
+package com.visor.patient_microservice.service;
+
+import com.visor.patient_microservice.entity.Patient;
+import com.visor.patient_microservice.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PatientServiceTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-04-09T12:00:00Z");
+
+    @InjectMocks
+    private PatientService patientService;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = Patient.builder()
+                .id(1L)
+                .identificationNumber("12345678")
+                .firstName("Diego")
+                .lastName("Bustos")
+                .dateOfBirth(LocalDate.of(2000, 2, 16))
+                .email("diegombustos16@gmail.com")
+                .phoneNumber("+54912345678")
+                .createdAt(CREATED_AT)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Update Patient")
+    class UpdatePatientTests {
+
+        @Test
+        @DisplayName("should update the fields in the body and keep the omitted ones")
+        void updatePatient_shouldKeepOmittedFields() {
+            Patient partial = new Patient();
+            partial.setLastName("Martinez");
+            partial.setPhoneNumber("+54987654321");
+
+            when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+            when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            Patient updated = patientService.updatePatient(1L, partial);
+
+            assertThat(updated.getLastName()).isEqualTo("Martinez");
+            assertThat(updated.getPhoneNumber()).isEqualTo("+54987654321");
+            assertThat(updated.getFirstName()).isEqualTo("Diego");
+            assertThat(updated.getIdentificationNumber()).isEqualTo("12345678");
+            assertThat(updated.getDateOfBirth()).isEqualTo(LocalDate.of(2000, 2, 16));
+            assertThat(updated.getEmail()).isEqualTo("diegombustos16@gmail.com");
+            verify(patientRepository).save(patient);
+        }
+
+        @Test
+        @DisplayName("should ignore id, createdAt and deletedAt in the body")
+        void updatePatient_shouldIgnoreRestrictedFields() {
+            Patient partial = Patient.builder()
+                    .id(99L)
+                    .firstName("Juan")
+                    .createdAt(Instant.parse("2020-01-01T00:00:00Z"))
+                    .deletedAt(Instant.parse("2020-01-02T00:00:00Z"))
+                    .build();
+
+            when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+            when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            Patient updated = patientService.updatePatient(1L, partial);
+
+            assertThat(updated.getFirstName()).isEqualTo("Juan");
+            assertThat(updated.getId()).isEqualTo(1L);
+            assertThat(updated.getCreatedAt()).isEqualTo(CREATED_AT);
+            assertThat(updated.getDeletedAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("should return null and save nothing when the patient is not found")
+        void updatePatient_shouldReturnNull_whenNotFound() {
+            when(patientRepository.findById(1L)).thenReturn(Optional.empty());
+
+            assertThat(patientService.updatePatient(1L, new Patient())).isNull();
+            verify(patientRepository, never()).save(any(Patient.class));
+        }
+    }
+}
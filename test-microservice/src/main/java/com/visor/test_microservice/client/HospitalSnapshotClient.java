@@ -0,0 +1,18 @@
+package com.visor.test_microservice.client;
+
+import com.visor.test_microservice.configuration.ServiceAccountFeignConfig;
+import com.visor.test_microservice.dto.HospitalMembersDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+@FeignClient(
+        name = "hospital-microservice",
+        contextId = "hospital-snapshot",
+        configuration = ServiceAccountFeignConfig.class
+)
+public interface HospitalSnapshotClient {
+    @GetMapping("/api/hospitals/hospital-doctor/snapshot")
+    List<HospitalMembersDTO> getHospitalDoctorSnapshot();
+}
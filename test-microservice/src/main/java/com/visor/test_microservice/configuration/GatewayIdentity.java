@@ -0,0 +1,26 @@
+package com.visor.test_microservice.configuration;
+
+import jakarta.servlet.ServletRequest;
+
+/**
+ * Caller identity asserted by the api-gateway through signed {@code X-Identity-*} headers. Only
+ * present on a request when gateway trust is enabled and the signature checked out (see
+ * {@link GatewayTrustAuthenticationManagerResolver}). The ids are null when the gateway could not
+ * resolve them.
+ */
+public record GatewayIdentity(String subject, int roles, Long doctorId, Long hospitalId) {
+
+    public static final String HEADER_PREFIX = "X-Identity-";
+    public static final String SUBJECT = HEADER_PREFIX + "Subject";
+    public static final String ROLES = HEADER_PREFIX + "Roles";
+    public static final String DOCTOR_ID = HEADER_PREFIX + "Doctor-Id";
+    public static final String HOSPITAL_ID = HEADER_PREFIX + "Hospital-Id";
+    public static final String TIMESTAMP = HEADER_PREFIX + "Timestamp";
+    public static final String SIGNATURE = HEADER_PREFIX + "Signature";
+
+    static final String ATTRIBUTE = GatewayIdentity.class.getName();
+
+    public static GatewayIdentity from(ServletRequest request) {
+        return (GatewayIdentity) request.getAttribute(ATTRIBUTE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.visor.test_microservice.configuration;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Feign retryer that only retries idempotent GET requests. Backoff is exponential with full
+ * jitter, so callers that failed together do not retry together, and never exceeds the
+ * configured maximum (a {@code Retry-After} hint from the server is honoured up to that cap).
+ */
+public class IdempotentRetryer implements Retryer {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private int attempt = 1;
+
+    public IdempotentRetryer(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (e.method() != Request.HttpMethod.GET || attempt >= maxAttempts) {
+            throw e;
+        }
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (e.retryAfter() != null) {
+            backoff = Math.max(backoff, Math.min(maxBackoffMillis, e.retryAfter() - System.currentTimeMillis()));
+        }
+        attempt++;
+
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @Override
+    public Retryer clone() {
+        return new IdempotentRetryer(maxAttempts, initialBackoffMillis, maxBackoffMillis);
+    }
+}
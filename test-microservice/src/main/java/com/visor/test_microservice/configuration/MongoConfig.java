@@ -1,9 +1,66 @@
 package com.visor.test_microservice.configuration;
 
+import com.visor.test_microservice.entity.FileAttachment;
+import com.visor.test_microservice.entity.ImageFile;
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.entity.ReplicatedReference;
+import com.visor.test_microservice.entity.TestEntity;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+
+    /**
+     * Observes every Mongo command, so each one shows up as a span of the request that issued it.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    /**
+     * Creates the indexes declared on {@link ReplicatedReference}, which the domain event replica is
+     * looked up by. Index creation is not switched on for every document, so it is done here.
+     */
+    @Bean
+    public ApplicationListener<ContextRefreshedEvent> replicatedReferenceIndexes(
+            MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        return event -> ensureDeclaredIndexes(mongoTemplate, mappingContext, ReplicatedReference.class);
+    }
+
+    /**
+     * Creates the {@code purged_deleted} indexes the storage reaper's "deleted before the cutoff and
+     * not purged yet" query runs on, in each collection it reaps. They only cover soft-deleted
+     * documents, so live documents cost nothing.
+     */
+    @Bean
+    public ApplicationListener<ContextRefreshedEvent> storageReaperIndexes(
+            MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        return event -> ensureDeclaredIndexes(mongoTemplate, mappingContext,
+                TestEntity.class, ImageStack.class, ImageFile.class, FileAttachment.class);
+    }
+
+    private static void ensureDeclaredIndexes(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                                              Class<?>... documentTypes) {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> documentType : documentTypes) {
+            IndexOperations indexOps = mongoTemplate.indexOps(documentType);
+            resolver.resolveIndexFor(documentType).forEach(indexOps::ensureIndex);
+        }
+    }
 }
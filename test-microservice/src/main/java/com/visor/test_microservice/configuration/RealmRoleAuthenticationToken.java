@@ -0,0 +1,29 @@
+package com.visor.test_microservice.configuration;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+/**
+ * {@link JwtAuthenticationToken} that also carries the caller's realm roles as a bitmask, so role
+ * checks are a single bit test (see {@link RealmRole#isIn(int)}).
+ */
+public class RealmRoleAuthenticationToken extends JwtAuthenticationToken {
+
+    private final int roles;
+
+    public RealmRoleAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, int roles) {
+        super(jwt, authorities, jwt.getSubject());
+        this.roles = roles;
+    }
+
+    public int getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(RealmRole role) {
+        return role.isIn(roles);
+    }
+}
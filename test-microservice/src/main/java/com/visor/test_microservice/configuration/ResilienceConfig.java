@@ -0,0 +1,160 @@
+package com.visor.test_microservice.configuration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker, bulkhead and time limiter wiring for the Feign clients. Each client gets one
+ * breaker and one semaphore bulkhead named after the client's context id, or its name when it has
+ * none (e.g. {@code hospital-microservice}, {@code hospital-snapshot}), configured under
+ * {@code resilience4j.*.instances.<client>}.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+
+    /**
+     * The time limiter runs the call on a separate thread. The executor copies the caller's
+     * security context so {@link FeignClientConfig#jwtFeignInterceptor()} still forwards the token,
+     * and the current observation so the Feign call is traced as part of the caller's request.
+     * With {@code spring.threads.virtual.enabled} on a Java 21 runtime each call gets a new virtual
+     * thread instead of a pooled platform thread.
+     *
+     * <p>The semaphore bulkhead is held on the caller's thread while the time limiter waits, so it
+     * caps the calls in flight per client. Retries fit inside the time limiter (see
+     * {@link #checkRetryBudget(Environment)}), so a call it gave up on only keeps its thread briefly;
+     * the platform pool allows twice the bulkhead for those and then rejects the call.
+     */
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> feignExecutorCustomizer(Environment environment) {
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        return factory -> factory.configureGroupExecutorService(group -> ContextExecutorService.wrap(
+                new DelegatingSecurityContextExecutorService(virtual
+                        ? virtualThreadPerCall(group)
+                        : boundedThreadPool(group, 2 * maxConcurrentCalls(environment, group))),
+                ContextSnapshotFactory.builder().build()));
+    }
+
+    /**
+     * The time limiter wraps the whole Feign call, {@link IdempotentRetryer} included, so its timeout
+     * has to cover every attempt (pool lease, connect and read timeouts) plus the backoff between
+     * them. Otherwise the caller gets a timeout while the pooled thread keeps retrying.
+     */
+    @Bean
+    public SmartInitializingSingleton feignRetryBudgetCheck(Environment environment) {
+        return () -> checkRetryBudget(environment);
+    }
+
+    static void checkRetryBudget(Environment environment) {
+        int maxAttempts = environment.getProperty("feign-retry.max-attempts", Integer.class, 3);
+        long maxBackoffMillis = environment.getProperty("feign-retry.max-backoff-ms", Long.class, 1000L);
+        long leaseMillis = TimeUnit.valueOf(environment.getProperty(
+                        "spring.cloud.openfeign.httpclient.hc5.connection-request-timeout-unit", "minutes").toUpperCase())
+                .toMillis(environment.getProperty("spring.cloud.openfeign.httpclient.hc5.connection-request-timeout",
+                        Long.class, 3L));
+        Binder.get(environment)
+                .bind("resilience4j.timelimiter.instances", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .forEach((key, value) -> {
+                    if (!key.endsWith(".timeout-duration")) {
+                        return;
+                    }
+                    String client = key.substring(0, key.length() - ".timeout-duration".length());
+                    long attemptMillis = leaseMillis + feignTimeout(environment, client, "connect-timeout", 10_000)
+                            + feignTimeout(environment, client, "read-timeout", 60_000);
+                    long budgetMillis = maxAttempts * attemptMillis + (maxAttempts - 1) * maxBackoffMillis;
+                    Duration timeout = DurationStyle.detectAndParse(value);
+                    if (budgetMillis > timeout.toMillis()) {
+                        throw new IllegalStateException("Feign retries of " + client + " can take " + budgetMillis
+                                + " ms, longer than its " + timeout.toMillis() + " ms time limiter");
+                    }
+                });
+    }
+
+    private static long feignTimeout(Environment environment, String client, String name, long feignDefault) {
+        Long timeout = environment.getProperty("spring.cloud.openfeign.client.config." + client + "." + name, Long.class);
+        return timeout != null ? timeout
+                : environment.getProperty("spring.cloud.openfeign.client.config.default." + name, Long.class, feignDefault);
+    }
+
+    private static int maxConcurrentCalls(Environment environment, String group) {
+        return environment.getProperty("resilience4j.bulkhead.instances." + group + ".max-concurrent-calls",
+                Integer.class, BulkheadConfig.DEFAULT_MAX_CONCURRENT_CALLS);
+    }
+
+    static ExecutorService boundedThreadPool(String group, int maxThreads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(group + "-feign-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+    }
+
+    private static ExecutorService virtualThreadPerCall(String group) {
+        ThreadFactory threadFactory = new VirtualThreadTaskExecutor(group + "-feign-").getVirtualThreadFactory();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+    }
+
+    /**
+     * Counts calls rejected by a full bulkhead, which the built-in bulkhead gauges do not expose.
+     */
+    @Bean
+    public RegistryEventConsumer<Bulkhead> bulkheadRejectionMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<Bulkhead> event) {
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry == null) {
+                    return;
+                }
+                Bulkhead bulkhead = event.getAddedEntry();
+                Counter rejected = Counter.builder("resilience4j.bulkhead.rejected.calls")
+                        .description("Calls rejected because the bulkhead was full")
+                        .tag("name", bulkhead.getName())
+                        .register(registry);
+                bulkhead.getEventPublisher().onCallRejected(e -> rejected.increment());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<Bulkhead> event) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<Bulkhead> event) {
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.visor.test_microservice.configuration;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.codec.ErrorDecoder;
+
+/**
+ * Turns gateway errors (502, 503, 504) on GET requests into {@link RetryableException} so the
+ * {@link IdempotentRetryer} can retry them. Everything else is decoded by Feign's default decoder.
+ */
+public class RetryableStatusErrorDecoder implements ErrorDecoder {
+
+    private final ErrorDecoder delegate = new ErrorDecoder.Default();
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+        Request request = response.request();
+        int status = response.status();
+        if (request.httpMethod() == Request.HttpMethod.GET && (status == 502 || status == 503 || status == 504)) {
+            FeignException cause = FeignException.errorStatus(methodKey, response);
+            return new RetryableException(status, cause.getMessage(), request.httpMethod(), cause, (Long) null, request);
+        }
+        return delegate.decode(methodKey, response);
+    }
+}
@@ -0,0 +1,33 @@
+package com.visor.test_microservice.configuration;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+
+/**
+ * Feign configuration for clients that call on the service's own behalf instead of a user's. Each
+ * request carries the {@code service-account} client-credentials token in place of the caller's one.
+ * Not a {@code @Configuration}, so it only applies to the clients that name it.
+ */
+public class ServiceAccountFeignConfig {
+
+    public static final String REGISTRATION_ID = "service-account";
+
+    @Bean
+    public RequestInterceptor serviceAccountFeignInterceptor(OAuth2AuthorizedClientManager authorizedClientManager) {
+        OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest.withClientRegistrationId(REGISTRATION_ID)
+                .principal(REGISTRATION_ID)
+                .build();
+        return requestTemplate -> {
+            OAuth2AuthorizedClient client = authorizedClientManager.authorize(authorizeRequest);
+            if (client == null) {
+                throw new IllegalStateException("Could not obtain a token for the " + REGISTRATION_ID + " client");
+            }
+            requestTemplate.removeHeader(HttpHeaders.AUTHORIZATION);
+            requestTemplate.header(HttpHeaders.AUTHORIZATION, "Bearer " + client.getAccessToken().getTokenValue());
+        };
+    }
+}
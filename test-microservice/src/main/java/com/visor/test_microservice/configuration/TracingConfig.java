@@ -0,0 +1,34 @@
+package com.visor.test_microservice.configuration;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Span processing and export. Spans go to the OTLP collector at {@code management.otlp.tracing.endpoint}
+ * when one is configured. Without a collector, {@code tracing.otlp-json-log.enabled} writes each batch
+ * to the log as OTLP JSON, which a collector's file receiver can replay later.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.slow-request.enabled", havingValue = "true", matchIfMissing = true)
+    public SlowRequestSpanProcessor slowRequestSpanProcessor(
+            @Value("${tracing.slow-request.threshold:PT1S}") Duration threshold,
+            @Value("${tracing.slow-request.maximum-traces:10000}") long maximumTraces,
+            @Value("${tracing.slow-request.maximum-age:PT1M}") Duration maximumAge) {
+        return new SlowRequestSpanProcessor(threshold, maximumTraces, maximumAge);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.otlp-json-log.enabled", havingValue = "true")
+    public SpanExporter otlpJsonLoggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -90,7 +90,7 @@ public class FileAttachmentController {
 
     @Operation(
             summary = "Delete File Attachment",
-            description = "Deletes a specific file attachment by ID. The file is also removed from S3.",
+            description = "Deletes a specific file attachment by ID. The file is removed from S3 by the storage reaper once the deletion grace period has elapsed.",
             security = @SecurityRequirement(name = "security_auth")
     )
     @ApiResponses({
@@ -91,7 +91,7 @@ public class ImageFileController {
 
     @Operation(
             summary = "Delete Image File",
-            description = "Deletes a specific image file by its ID. The image will also be removed from S3.",
+            description = "Deletes a specific image file by its ID. The image is removed from S3 by the storage reaper once the deletion grace period has elapsed.",
             security = @SecurityRequirement(name = "security_auth")
     )
     @ApiResponses({
@@ -14,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tests/image-stacks")
@@ -76,7 +77,7 @@ public class ImageStackController {
 
     @Operation(
             summary = "Delete Image Stack",
-            description = "Deletes an image stack using its unique ID. If the stack doesn't exist, a 404 is returned.",
+            description = "Deletes an image stack and its image files using the stack's unique ID. If the stack doesn't exist, a 404 is returned.",
             security = @SecurityRequirement(name = "security_auth")
     )
     @ApiResponses({
@@ -93,4 +94,25 @@ public class ImageStackController {
         imageStackService.deleteImageStack(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(
+            summary = "Restore Image Stack",
+            description = "Restores a soft-deleted image stack together with the image files deleted with it. Stacks already purged by the storage reaper cannot be restored, and stacks of a deleted test are restored by restoring the test.",
+            security = @SecurityRequirement(name = "security_auth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Image stack restored successfully",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Deleted image stack not found, or its test is deleted",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Deleted image stack not found\"}"
+                            )
+                    ))
+    })
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<ImageStack> restoreImageStack(@PathVariable String id) {
+        Optional<ImageStack> stack = imageStackService.restoreImageStack(id);
+        return stack.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
@@ -1,14 +1,13 @@
 package com.visor.test_microservice.controller;
 
-import com.visor.test_microservice.client.DoctorClient;
-import com.visor.test_microservice.client.HospitalClient;
-import com.visor.test_microservice.client.PatientClient;
 import com.visor.test_microservice.dto.PatientTestDTO;
 import com.visor.test_microservice.entity.TestEntity;
+import com.visor.test_microservice.service.ReferenceValidationService;
 import com.visor.test_microservice.service.TestService;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -28,17 +27,14 @@ import java.util.Optional;
 @RequestMapping("/api/tests")
 public class TestController {
 
-    @Autowired
-    private TestService testService;
-
-    @Autowired
-    private PatientClient patientClient;
+    private static final CacheControl READ_CACHE_CONTROL = CacheControl.noStore();
+    private static final String GATEWAY_CACHE_CONTROL = "max-age=60";
 
     @Autowired
-    private DoctorClient doctorClient;
+    private TestService testService;
 
     @Autowired
-    private HospitalClient hospitalClient;
+    private ReferenceValidationService referenceValidationService;
 
     @Operation(summary = "Create Test", description = "Creates a new test",
             security = @SecurityRequirement(name = "security_auth"))
@@ -72,19 +68,19 @@ public class TestController {
     public ResponseEntity<?> createTest(@Valid @RequestBody TestEntity testEntity, Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
         String keycloakId = jwt.getSubject();
-        Long doctorIdFromJwt = doctorClient.getDoctorByKeycloakId(keycloakId);
+        Long doctorIdFromJwt = referenceValidationService.getActiveDoctorIdByKeycloakId(keycloakId);
 
         if (doctorIdFromJwt == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Doctor does not exist or is deleted");
         }
         testEntity.setDoctorId(doctorIdFromJwt);
 
-        boolean hospitalExist = hospitalClient.existHospitalDoctorByDoctorIdAndHospitalId(testEntity.getDoctorId(),testEntity.getHospitalId());
+        boolean hospitalExist = referenceValidationService.isDoctorInHospital(testEntity.getDoctorId(), testEntity.getHospitalId());
         if (!hospitalExist) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Doctor does not belong to the hospital");
         }
 
-        boolean patientExist = patientClient.existPatientById(testEntity.getPatientId());
+        boolean patientExist = referenceValidationService.existsPatient(testEntity.getPatientId());
         if (!patientExist) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Patient does not exist");
         }
@@ -161,7 +157,7 @@ public class TestController {
         if (patientTestDTO == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(patientTestDTO);
+        return ResponseEntity.ok().cacheControl(READ_CACHE_CONTROL).header("Surrogate-Control", GATEWAY_CACHE_CONTROL).body(patientTestDTO);
     }
 
     @Operation(summary = "Update Test", description = "Updates a test",
@@ -193,4 +189,20 @@ public class TestController {
         testService.deleteTestEntity(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Restore Test", description = "Restores a soft-deleted test together with the stacks, image files and attachments deleted with it. Tests already purged by the storage reaper cannot be restored.",
+            security = @SecurityRequirement(name = "security_auth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Test restored successfully", content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Deleted test not found",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"error\": \"Deleted test not found with given ID\"}")
+                    )
+            )
+    })
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<TestEntity> restoreTest(@PathVariable String id) {
+        Optional<TestEntity> test = testService.restoreTestEntity(id);
+        return test.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
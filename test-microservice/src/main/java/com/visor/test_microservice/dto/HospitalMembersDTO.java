@@ -0,0 +1,10 @@
+package com.visor.test_microservice.dto;
+
+import lombok.Data;
+
+@Data
+public class HospitalMembersDTO {
+    private Long hospitalId;
+
+    private long[] doctorIds;
+}
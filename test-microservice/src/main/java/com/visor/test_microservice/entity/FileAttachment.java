@@ -7,11 +7,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "file_attachments")
+@CompoundIndex(name = "purged_deleted", def = "{ 'purgedAt': 1, 'deletedAt': 1 }",
+        partialFilter = "{ 'deletedAt': { '$exists': true } }")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +30,9 @@ public class FileAttachment {
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private Instant deletedAt;
 
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant purgedAt;
+
     @Schema(example = "Doctor Report")
     private String fileName;
 
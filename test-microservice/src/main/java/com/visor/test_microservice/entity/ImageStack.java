@@ -7,12 +7,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 @Document(collection = "image_stacks")
+@CompoundIndex(name = "purged_deleted", def = "{ 'purgedAt': 1, 'deletedAt': 1 }",
+        partialFilter = "{ 'deletedAt': { '$exists': true } }")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,6 +31,9 @@ public class ImageStack {
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private Instant deletedAt;
 
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant purgedAt;
+
     @Schema(example = "Femur Joint")
     private String stackName;
 
@@ -0,0 +1,8 @@
+package com.visor.test_microservice.entity;
+
+public enum ReferenceType {
+    DOCTOR,
+    PATIENT,
+    HOSPITAL,
+    HOSPITAL_DOCTOR
+}
@@ -0,0 +1,54 @@
+package com.visor.test_microservice.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Local copy of an entity owned by another service, rebuilt from its compacted event topic.
+ * Only the fields needed to validate references are kept.
+ */
+@Document(collection = "replicated_references")
+@CompoundIndexes({
+        @CompoundIndex(name = "type_keycloak", def = "{ 'type': 1, 'keycloakId': 1 }"),
+        @CompoundIndex(name = "type_doctor_hospital", def = "{ 'type': 1, 'doctorId': 1, 'hospitalId': 1 }")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReplicatedReference {
+    @Id
+    private String id;
+
+    private ReferenceType type;
+
+    private Long sourceId;
+
+    private String keycloakId;
+
+    private Long doctorId;
+
+    private Long hospitalId;
+
+    private boolean active;
+
+    private Instant occurredAt;
+
+    public ReplicatedReference(ReferenceType type, Long sourceId, boolean active, Instant occurredAt) {
+        this.id = idOf(type, sourceId);
+        this.type = type;
+        this.sourceId = sourceId;
+        this.active = active;
+        this.occurredAt = occurredAt;
+    }
+
+    public static String idOf(ReferenceType type, Object sourceId) {
+        return type + ":" + sourceId;
+    }
+}
@@ -8,9 +8,12 @@ import java.time.Instant;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotNull;
 @Document(collection = "tests")
+@CompoundIndex(name = "purged_deleted", def = "{ 'purgedAt': 1, 'deletedAt': 1 }",
+        partialFilter = "{ 'deletedAt': { '$exists': true } }")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,6 +42,9 @@ public class TestEntity {
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private Instant deletedAt;
 
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant purgedAt;
+
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private String passCode;
 }
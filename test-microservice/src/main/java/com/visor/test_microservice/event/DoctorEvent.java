@@ -0,0 +1,11 @@
+package com.visor.test_microservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DoctorEvent(DomainEventType type, Long id, String idKeycloak, Instant occurredAt) {
+
+    public static final String TOPIC = "doctor-events";
+}
@@ -0,0 +1,102 @@
+package com.visor.test_microservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.test_microservice.entity.ReferenceType;
+import com.visor.test_microservice.entity.ReplicatedReference;
+import com.visor.test_microservice.repository.ReplicatedReferenceRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Replicates doctors, patients, hospitals and hospital-doctor memberships from their compacted
+ * topics into {@code replicated_references}. The consumer group starts from the earliest offset, so
+ * a fresh deployment rebuilds the whole table; events are applied as idempotent upserts keyed by the
+ * source id, which makes redeliveries harmless.
+ */
+@Component
+public class DomainEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventListener.class);
+
+    private final ReplicatedReferenceRepository replicatedReferenceRepository;
+    private final ObjectMapper objectMapper;
+
+    public DomainEventListener(ReplicatedReferenceRepository replicatedReferenceRepository, ObjectMapper objectMapper) {
+        this.replicatedReferenceRepository = replicatedReferenceRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topics = DoctorEvent.TOPIC, groupId = "${domain-events.consumer-group}",
+            containerFactory = "domainEventListenerContainerFactory")
+    public void onDoctorEvent(ConsumerRecord<String, String> record) {
+        DoctorEvent event = read(record, ReferenceType.DOCTOR, DoctorEvent.class);
+        if (event == null) {
+            return;
+        }
+        ReplicatedReference reference = reference(ReferenceType.DOCTOR, event.id(), event.type(), event.occurredAt());
+        reference.setKeycloakId(event.idKeycloak());
+        replicatedReferenceRepository.save(reference);
+    }
+
+    @KafkaListener(topics = PatientEvent.TOPIC, groupId = "${domain-events.consumer-group}",
+            containerFactory = "domainEventListenerContainerFactory")
+    public void onPatientEvent(ConsumerRecord<String, String> record) {
+        PatientEvent event = read(record, ReferenceType.PATIENT, PatientEvent.class);
+        if (event == null) {
+            return;
+        }
+        replicatedReferenceRepository.save(reference(ReferenceType.PATIENT, event.id(), event.type(), event.occurredAt()));
+    }
+
+    @KafkaListener(topics = HospitalEvent.TOPIC, groupId = "${domain-events.consumer-group}",
+            containerFactory = "domainEventListenerContainerFactory")
+    public void onHospitalEvent(ConsumerRecord<String, String> record) {
+        HospitalEvent event = read(record, ReferenceType.HOSPITAL, HospitalEvent.class);
+        if (event == null) {
+            return;
+        }
+        ReplicatedReference reference = reference(ReferenceType.HOSPITAL, event.id(), event.type(), event.occurredAt());
+        reference.setKeycloakId(event.idKeycloak());
+        replicatedReferenceRepository.save(reference);
+    }
+
+    @KafkaListener(topics = HospitalDoctorEvent.TOPIC, groupId = "${domain-events.consumer-group}",
+            containerFactory = "domainEventListenerContainerFactory")
+    public void onHospitalDoctorEvent(ConsumerRecord<String, String> record) {
+        HospitalDoctorEvent event = read(record, ReferenceType.HOSPITAL_DOCTOR, HospitalDoctorEvent.class);
+        if (event == null) {
+            return;
+        }
+        ReplicatedReference reference = reference(ReferenceType.HOSPITAL_DOCTOR, event.id(), event.type(), event.occurredAt());
+        reference.setDoctorId(event.doctorId());
+        reference.setHospitalId(event.hospitalId());
+        replicatedReferenceRepository.save(reference);
+    }
+
+    /**
+     * Parses the record value, or returns {@code null} when there is nothing to upsert. A tombstone
+     * removes the local copy; a malformed payload is logged and skipped so it cannot block the partition.
+     */
+    private <T> T read(ConsumerRecord<String, String> record, ReferenceType type, Class<T> eventType) {
+        if (record.value() == null) {
+            replicatedReferenceRepository.deleteById(ReplicatedReference.idOf(type, record.key()));
+            return null;
+        }
+        try {
+            return objectMapper.readValue(record.value(), eventType);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed {} event at {}-{}@{}", type, record.topic(), record.partition(), record.offset(), e);
+            return null;
+        }
+    }
+
+    private ReplicatedReference reference(ReferenceType type, Long id, DomainEventType eventType, Instant occurredAt) {
+        return new ReplicatedReference(type, id, eventType != DomainEventType.DELETED, occurredAt);
+    }
+}
@@ -0,0 +1,12 @@
+package com.visor.test_microservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record HospitalDoctorEvent(DomainEventType type, Long id, Long hospitalId, Long doctorId,
+                                  Long previousHospitalId, Long previousDoctorId, Instant occurredAt) {
+
+    public static final String TOPIC = "hospital-doctor-events";
+}
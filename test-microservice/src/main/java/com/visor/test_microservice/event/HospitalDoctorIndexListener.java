@@ -0,0 +1,46 @@
+package com.visor.test_microservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.test_microservice.service.HospitalDoctorIndexService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds hospital-doctor deltas into this instance's membership index. Every instance keeps its own
+ * index, so it reads all partitions by manual assignment, without a consumer group, from the latest
+ * offset; older state comes from the snapshot. Nothing is committed, so a restart leaves no group behind.
+ * The partitions are taken from the topic's metadata at startup (see {@link TopicPartitions}).
+ */
+@Component
+public class HospitalDoctorIndexListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HospitalDoctorIndexListener.class);
+
+    private final HospitalDoctorIndexService hospitalDoctorIndexService;
+    private final ObjectMapper objectMapper;
+
+    public HospitalDoctorIndexListener(HospitalDoctorIndexService hospitalDoctorIndexService, ObjectMapper objectMapper) {
+        this.hospitalDoctorIndexService = hospitalDoctorIndexService;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = HospitalDoctorEvent.TOPIC,
+            partitions = "#{@topicPartitions.of('" + HospitalDoctorEvent.TOPIC + "', '${hospital-doctor-index.partitions}')}"),
+            containerFactory = "domainEventListenerContainerFactory",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void onHospitalDoctorEvent(ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return;
+        }
+        try {
+            hospitalDoctorIndexService.apply(objectMapper.readValue(record.value(), HospitalDoctorEvent.class));
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed hospital-doctor event at {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+}
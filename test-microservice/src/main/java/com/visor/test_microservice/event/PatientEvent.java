@@ -0,0 +1,11 @@
+package com.visor.test_microservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PatientEvent(DomainEventType type, Long id, Instant occurredAt) {
+
+    public static final String TOPIC = "patient-events";
+}
@@ -0,0 +1,42 @@
+package com.visor.test_microservice.event;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Partitions of a topic for listeners that assign them manually, read from the broker's metadata
+ * when the listener is registered, so a repartitioned topic is picked up on the next start. Falls
+ * back to the configured list when the topic cannot be described, e.g. because its owning service
+ * has not created it yet.
+ */
+@Component
+public class TopicPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(TopicPartitions.class);
+
+    private final KafkaAdmin kafkaAdmin;
+
+    public TopicPartitions(KafkaAdmin kafkaAdmin) {
+        this.kafkaAdmin = kafkaAdmin;
+    }
+
+    public String of(String topic, String fallback) {
+        try {
+            TopicDescription description = kafkaAdmin.describeTopics(topic).get(topic);
+            String partitions = description.partitions().stream()
+                    .map(partition -> String.valueOf(partition.partition()))
+                    .collect(Collectors.joining(","));
+            log.info("Assigning partitions {} of {}", partitions, topic);
+            return partitions;
+        } catch (KafkaException e) {
+            log.warn("Could not read the partitions of {}, assigning the configured {}: {}", topic, fallback, e.toString());
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.visor.test_microservice.index;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * In-memory set of (doctorId, hospitalId) memberships.
+ *
+ * <p>The layout is a sorted {@code long[]} of hospital ids and, per hospital, a sorted {@code int[]} of
+ * doctor ids, i.e. about 4 bytes per link (a million links fit in roughly 4 MB). Lookups read one
+ * immutable layout through a volatile field and binary-search it, so they never lock or allocate.
+ * Writers are serialized and copy only the arrays they change, which is cheap because membership
+ * changes are rare compared to lookups.
+ *
+ * <p>Doctor ids above {@link Integer#MAX_VALUE} are not indexed; {@link #contains} returns
+ * {@code false} for them, and callers treat {@code false} as "unknown" rather than "not a member".
+ */
+public class HospitalDoctorIndex {
+
+    private static final Layout EMPTY = new Layout(new long[0], new int[0][], 0);
+
+    private volatile Layout layout = EMPTY;
+
+    private record Layout(long[] hospitalIds, int[][] doctorIds, long links) {
+    }
+
+    public boolean contains(long doctorId, long hospitalId) {
+        if (!indexable(doctorId)) {
+            return false;
+        }
+        Layout current = layout;
+        int h = Arrays.binarySearch(current.hospitalIds, hospitalId);
+        return h >= 0 && Arrays.binarySearch(current.doctorIds[h], (int) doctorId) >= 0;
+    }
+
+    public synchronized boolean add(long doctorId, long hospitalId) {
+        if (!indexable(doctorId)) {
+            return false;
+        }
+        Layout current = layout;
+        int h = Arrays.binarySearch(current.hospitalIds, hospitalId);
+        if (h < 0) {
+            int at = -h - 1;
+            layout = new Layout(
+                    insert(current.hospitalIds, at, hospitalId),
+                    insert(current.doctorIds, at, new int[]{(int) doctorId}),
+                    current.links + 1);
+            return true;
+        }
+
+        int[] members = current.doctorIds[h];
+        int d = Arrays.binarySearch(members, (int) doctorId);
+        if (d >= 0) {
+            return false;
+        }
+        int[][] doctorIds = current.doctorIds.clone();
+        doctorIds[h] = insert(members, -d - 1, (int) doctorId);
+        layout = new Layout(current.hospitalIds, doctorIds, current.links + 1);
+        return true;
+    }
+
+    public synchronized boolean remove(long doctorId, long hospitalId) {
+        if (!indexable(doctorId)) {
+            return false;
+        }
+        Layout current = layout;
+        int h = Arrays.binarySearch(current.hospitalIds, hospitalId);
+        if (h < 0) {
+            return false;
+        }
+        int[] members = current.doctorIds[h];
+        int d = Arrays.binarySearch(members, (int) doctorId);
+        if (d < 0) {
+            return false;
+        }
+
+        if (members.length == 1) {
+            layout = new Layout(remove(current.hospitalIds, h), remove(current.doctorIds, h), current.links - 1);
+        } else {
+            int[][] doctorIds = current.doctorIds.clone();
+            doctorIds[h] = remove(members, d);
+            layout = new Layout(current.hospitalIds, doctorIds, current.links - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the whole index. Doctor ids may be given in any order and may contain duplicates.
+     */
+    public synchronized void load(Map<Long, long[]> doctorIdsByHospital) {
+        long[] hospitalIds = doctorIdsByHospital.entrySet().stream()
+                .filter(entry -> entry.getValue().length > 0)
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+
+        int[][] doctorIds = new int[hospitalIds.length][];
+        long links = 0;
+        for (int h = 0; h < hospitalIds.length; h++) {
+            int[] members = Arrays.stream(doctorIdsByHospital.get(hospitalIds[h]))
+                    .filter(HospitalDoctorIndex::indexable)
+                    .mapToInt(id -> (int) id)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            doctorIds[h] = members;
+            links += members.length;
+        }
+        layout = new Layout(hospitalIds, doctorIds, links);
+    }
+
+    public long size() {
+        return layout.links;
+    }
+
+    /**
+     * Approximate heap footprint of the current layout, assuming 16-byte array headers and 4-byte references.
+     */
+    public long estimatedBytes() {
+        Layout current = layout;
+        long bytes = 16 + 8L * current.hospitalIds.length + 16 + 4L * current.doctorIds.length;
+        for (int[] members : current.doctorIds) {
+            bytes += 16 + 4L * members.length;
+        }
+        return bytes;
+    }
+
+    private static boolean indexable(long doctorId) {
+        return doctorId >= 0 && doctorId <= Integer.MAX_VALUE;
+    }
+
+    private static long[] insert(long[] array, int at, long value) {
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static int[] insert(int[] array, int at, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static int[][] insert(int[][] array, int at, int[] value) {
+        int[][] result = new int[array.length + 1][];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static long[] remove(long[] array, int at) {
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, at);
+        System.arraycopy(array, at + 1, result, at, array.length - at - 1);
+        return result;
+    }
+
+    private static int[] remove(int[] array, int at) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, at);
+        System.arraycopy(array, at + 1, result, at, array.length - at - 1);
+        return result;
+    }
+
+    private static int[][] remove(int[][] array, int at) {
+        int[][] result = new int[array.length - 1][];
+        System.arraycopy(array, 0, result, 0, at);
+        System.arraycopy(array, at + 1, result, at, array.length - at - 1);
+        return result;
+    }
+}
@@ -2,7 +2,10 @@ package com.visor.test_microservice.repository;
 
 import com.visor.test_microservice.entity.FileAttachment;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +13,12 @@ public interface FileAttachmentRepository extends MongoRepository<FileAttachment
     List<FileAttachment> findByTestIdAndDeletedAtIsNull(String testEntityId);
 
     Optional<FileAttachment> findByIdAndDeletedAtIsNull(String id);
+
+    @Query("{ 'testId': ?0, 'deletedAt': null }")
+    @Update("{ '$set': { 'deletedAt': ?1 } }")
+    long markDeletedByTestId(String testEntityId, Instant deletedAt);
+
+    @Query("{ 'testId': ?0, 'deletedAt': ?1, 'purgedAt': null }")
+    @Update("{ '$unset': { 'deletedAt': 1 } }")
+    long restoreByTestId(String testEntityId, Instant deletedAt);
 }
@@ -2,7 +2,11 @@ package com.visor.test_microservice.repository;
 
 import com.visor.test_microservice.entity.ImageFile;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +14,12 @@ public interface ImageFileRepository extends MongoRepository<ImageFile, String>
     List<ImageFile> findByImageStackIdAndDeletedAtIsNull(String imageStackId);
 
     Optional<ImageFile> findByIdAndDeletedAtIsNull(String id);
+
+    @Query("{ 'imageStackId': { '$in': ?0 }, 'deletedAt': null }")
+    @Update("{ '$set': { 'deletedAt': ?1 } }")
+    long markDeletedByImageStackIdIn(Collection<String> imageStackIds, Instant deletedAt);
+
+    @Query("{ 'imageStackId': { '$in': ?0 }, 'deletedAt': ?1, 'purgedAt': null }")
+    @Update("{ '$unset': { 'deletedAt': 1 } }")
+    long restoreByImageStackIdIn(Collection<String> imageStackIds, Instant deletedAt);
 }
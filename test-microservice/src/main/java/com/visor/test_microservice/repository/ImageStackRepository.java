@@ -2,12 +2,36 @@ package com.visor.test_microservice.repository;
 
 import com.visor.test_microservice.entity.ImageStack;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface ImageStackRepository extends MongoRepository<ImageStack, String> {
     List<ImageStack> findByTestIdAndDeletedAtIsNull(String testEntityId);
 
+    @Query(value = "{ 'testId': ?0, 'deletedAt': ?1, 'purgedAt': null }", fields = "{ '_id': 1 }")
+    List<ImageStack> findIdsByTestIdAndDeletedAt(String testEntityId, Instant deletedAt);
+
     Optional<ImageStack> findByIdAndDeletedAtIsNull(String id);
+
+    Optional<ImageStack> findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull(String id);
+
+    @Query("{ '_id': ?0, 'deletedAt': null }")
+    @Update("{ '$set': { 'deletedAt': ?1 } }")
+    long markDeletedById(String id, Instant deletedAt);
+
+    @Query("{ 'testId': ?0, 'deletedAt': null }")
+    @Update("{ '$set': { 'deletedAt': ?1 } }")
+    long markDeletedByTestId(String testEntityId, Instant deletedAt);
+
+    @Query("{ '_id': ?0, 'deletedAt': ?1, 'purgedAt': null }")
+    @Update("{ '$unset': { 'deletedAt': 1 } }")
+    long restoreById(String id, Instant deletedAt);
+
+    @Query("{ 'testId': ?0, 'deletedAt': ?1, 'purgedAt': null }")
+    @Update("{ '$unset': { 'deletedAt': 1 } }")
+    long restoreByTestId(String testEntityId, Instant deletedAt);
 }
@@ -0,0 +1,14 @@
+package com.visor.test_microservice.repository;
+
+import com.visor.test_microservice.entity.ReferenceType;
+import com.visor.test_microservice.entity.ReplicatedReference;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ReplicatedReferenceRepository extends MongoRepository<ReplicatedReference, String> {
+    Optional<ReplicatedReference> findFirstByTypeAndKeycloakId(ReferenceType type, String keycloakId);
+
+    List<ReplicatedReference> findByTypeAndDoctorIdAndHospitalId(ReferenceType type, Long doctorId, Long hospitalId);
+}
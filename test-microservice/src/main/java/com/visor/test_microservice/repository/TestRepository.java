@@ -2,7 +2,10 @@ package com.visor.test_microservice.repository;
 
 import com.visor.test_microservice.entity.TestEntity;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +14,17 @@ public interface TestRepository extends MongoRepository<TestEntity, String> {
 
     Optional<TestEntity> findByIdAndDeletedAtIsNull(String id);
 
+    Optional<TestEntity> findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull(String id);
+
     Optional<TestEntity> findByPassCodeAndDeletedAtIsNull(String passcode);
 
     boolean existsByIdAndDeletedAtIsNull(String id);
+
+    @Query("{ '_id': ?0, 'deletedAt': null }")
+    @Update("{ '$set': { 'deletedAt': ?1 } }")
+    long markDeletedById(String id, Instant deletedAt);
+
+    @Query("{ '_id': ?0, 'deletedAt': ?1, 'purgedAt': null }")
+    @Update("{ '$unset': { 'deletedAt': 1 } }")
+    long restoreById(String id, Instant deletedAt);
 }
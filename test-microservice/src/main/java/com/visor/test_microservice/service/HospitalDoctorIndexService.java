@@ -0,0 +1,146 @@
+package com.visor.test_microservice.service;
+
+import com.visor.test_microservice.client.HospitalSnapshotClient;
+import com.visor.test_microservice.dto.HospitalMembersDTO;
+import com.visor.test_microservice.event.DomainEventType;
+import com.visor.test_microservice.event.HospitalDoctorEvent;
+import com.visor.test_microservice.index.HospitalDoctorIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the local {@link HospitalDoctorIndex} in sync with hospital-microservice.
+ *
+ * <p>The index is seeded from the hospital snapshot endpoint, which only serves the service account
+ * (see {@link HospitalSnapshotClient}). Seeding starts in the background on the first lookup. After
+ * that, hospital-doctor events keep the index current. Deltas that arrive while a snapshot is being
+ * fetched are applied again on top of it, so a snapshot that is older than those deltas cannot undo
+ * them.
+ */
+@Service
+public class HospitalDoctorIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(HospitalDoctorIndexService.class);
+
+    private final HospitalDoctorIndex index = new HospitalDoctorIndex();
+    private final HospitalSnapshotClient hospitalSnapshotClient;
+    private final TaskExecutor taskExecutor;
+    private final long seedRetryIntervalNanos;
+
+    private final Object lock = new Object();
+    private final List<HospitalDoctorEvent> pendingDeltas = new ArrayList<>();
+    private volatile boolean seeded;
+    private boolean seeding;
+    private long nextSeedAttemptNanos;
+
+    public HospitalDoctorIndexService(HospitalSnapshotClient hospitalSnapshotClient,
+                                      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${hospital-doctor-index.seed-retry-interval:PT30S}") Duration seedRetryInterval) {
+        this.hospitalSnapshotClient = hospitalSnapshotClient;
+        this.taskExecutor = taskExecutor;
+        this.seedRetryIntervalNanos = seedRetryInterval.toNanos();
+        this.nextSeedAttemptNanos = System.nanoTime();
+
+        Gauge.builder("hospital_doctor.index.links", index, HospitalDoctorIndex::size)
+                .description("Hospital-doctor memberships held in the local index")
+                .register(meterRegistry);
+        Gauge.builder("hospital_doctor.index.bytes", index, HospitalDoctorIndex::estimatedBytes)
+                .description("Approximate heap footprint of the hospital-doctor index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns {@code true} if the doctor is known to belong to the hospital. {@code false} means the
+     * index cannot confirm it, and the caller has to ask a slower source.
+     */
+    public boolean contains(Long doctorId, Long hospitalId) {
+        if (!seeded) {
+            requestSeed();
+        }
+        return doctorId != null && hospitalId != null && index.contains(doctorId, hospitalId);
+    }
+
+    public void apply(HospitalDoctorEvent event) {
+        synchronized (lock) {
+            if (seeding) {
+                pendingDeltas.add(event);
+            }
+            applyToIndex(event);
+        }
+    }
+
+    boolean isSeeded() {
+        return seeded;
+    }
+
+    private void requestSeed() {
+        synchronized (lock) {
+            if (seeded || seeding || System.nanoTime() - nextSeedAttemptNanos < 0) {
+                return;
+            }
+            seeding = true;
+            nextSeedAttemptNanos = System.nanoTime() + seedRetryIntervalNanos;
+        }
+        try {
+            taskExecutor.execute(this::seed);
+        } catch (RuntimeException e) {
+            log.warn("Could not schedule hospital-doctor index seeding", e);
+            synchronized (lock) {
+                seeding = false;
+            }
+        }
+    }
+
+    private void seed() {
+        try {
+            Map<Long, long[]> doctorIdsByHospital = new HashMap<>();
+            for (HospitalMembersDTO members : hospitalSnapshotClient.getHospitalDoctorSnapshot()) {
+                doctorIdsByHospital.put(members.getHospitalId(), members.getDoctorIds());
+            }
+
+            synchronized (lock) {
+                index.load(doctorIdsByHospital);
+                pendingDeltas.forEach(this::applyToIndex);
+                pendingDeltas.clear();
+                seeded = true;
+                seeding = false;
+            }
+            log.info("Seeded hospital-doctor index with {} links (~{} bytes)", index.size(), index.estimatedBytes());
+        } catch (RuntimeException e) {
+            log.warn("Could not seed hospital-doctor index, lookups fall back to the replica until a later attempt", e);
+            synchronized (lock) {
+                pendingDeltas.clear();
+                seeding = false;
+            }
+        }
+    }
+
+    private void applyToIndex(HospitalDoctorEvent event) {
+        if (event.previousDoctorId() != null && event.previousHospitalId() != null) {
+            index.remove(event.previousDoctorId(), event.previousHospitalId());
+        }
+        if (event.doctorId() == null || event.hospitalId() == null) {
+            return;
+        }
+        if (event.type() == DomainEventType.DELETED) {
+            index.remove(event.doctorId(), event.hospitalId());
+        } else {
+            index.add(event.doctorId(), event.hospitalId());
+        }
+    }
+}
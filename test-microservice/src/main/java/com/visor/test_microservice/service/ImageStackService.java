@@ -1,11 +1,14 @@
 package com.visor.test_microservice.service;
 
 import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.repository.ImageFileRepository;
 import com.visor.test_microservice.repository.ImageStackRepository;
+import com.visor.test_microservice.repository.TestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,12 @@ public class ImageStackService {
     @Autowired
     private ImageStackRepository imageStackRepository;
 
+    @Autowired
+    private ImageFileRepository imageFileRepository;
+
+    @Autowired
+    private TestRepository testRepository;
+
     public ImageStack createImageStack(ImageStack imageStack) {
         return imageStackRepository.save(imageStack);
     }
@@ -23,11 +32,32 @@ public class ImageStackService {
         return imageStackRepository.findByTestIdAndDeletedAtIsNull(testEntityId);
     }
 
+    /**
+     * Soft-deletes the stack and its image files with the same {@code deletedAt}.
+     */
     public void deleteImageStack(String id) {
-        Optional<ImageStack> imageStack = imageStackRepository.findByIdAndDeletedAtIsNull(id);
-        imageStack.ifPresent(stack -> {
-            stack.setDeletedAt(Instant.now());  // Seteamos la fecha de eliminación
-            imageStackRepository.save(stack);
-        });
+        Instant deletedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        if (imageStackRepository.markDeletedById(id, deletedAt) > 0) {
+            imageFileRepository.markDeletedByImageStackIdIn(List.of(id), deletedAt);
+        }
+    }
+
+    /**
+     * Restores a soft-deleted stack and the image files deleted together with it. A stack whose test
+     * is deleted is only restored with the test, as the reaper would otherwise purge it with the test.
+     */
+    public Optional<ImageStack> restoreImageStack(String id) {
+        Optional<ImageStack> deletedStack = imageStackRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull(id);
+        if (deletedStack.isEmpty() || !testRepository.existsByIdAndDeletedAtIsNull(deletedStack.get().getTestId())) {
+            return Optional.empty();
+        }
+
+        Instant deletedAt = deletedStack.get().getDeletedAt();
+        if (imageStackRepository.restoreById(id, deletedAt) == 0) {
+            return Optional.empty();
+        }
+        imageFileRepository.restoreByImageStackIdIn(List.of(id), deletedAt);
+
+        return imageStackRepository.findByIdAndDeletedAtIsNull(id);
     }
 }
@@ -0,0 +1,70 @@
+package com.visor.test_microservice.service;
+
+import com.visor.test_microservice.client.DoctorClient;
+import com.visor.test_microservice.client.HospitalClient;
+import com.visor.test_microservice.client.PatientClient;
+import com.visor.test_microservice.entity.ReferenceType;
+import com.visor.test_microservice.entity.ReplicatedReference;
+import com.visor.test_microservice.repository.ReplicatedReferenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Validates references to doctors, patients and hospital memberships against the local replica
+ * first. Memberships are checked in the in-memory index before the replica. The owning service is
+ * only called when the replica has never seen the entity, e.g. before the topic has been fully
+ * consumed, so validation keeps working while a dependency is down.
+ */
+@Service
+public class ReferenceValidationService {
+
+    @Autowired
+    private ReplicatedReferenceRepository replicatedReferenceRepository;
+
+    @Autowired
+    private HospitalDoctorIndexService hospitalDoctorIndexService;
+
+    @Autowired
+    private DoctorClient doctorClient;
+
+    @Autowired
+    private HospitalClient hospitalClient;
+
+    @Autowired
+    private PatientClient patientClient;
+
+    /**
+     * Returns the id of the active doctor with the given Keycloak id, or {@code null} if the doctor is deleted.
+     */
+    public Long getActiveDoctorIdByKeycloakId(String keycloakId) {
+        Optional<ReplicatedReference> doctor = replicatedReferenceRepository.findFirstByTypeAndKeycloakId(ReferenceType.DOCTOR, keycloakId);
+        if (doctor.isPresent()) {
+            return doctor.get().isActive() ? doctor.get().getSourceId() : null;
+        }
+        return doctorClient.getDoctorByKeycloakId(keycloakId);
+    }
+
+    public boolean isDoctorInHospital(Long doctorId, Long hospitalId) {
+        if (hospitalDoctorIndexService.contains(doctorId, hospitalId)) {
+            return true;
+        }
+        List<ReplicatedReference> memberships = replicatedReferenceRepository
+                .findByTypeAndDoctorIdAndHospitalId(ReferenceType.HOSPITAL_DOCTOR, doctorId, hospitalId);
+        if (!memberships.isEmpty()) {
+            return memberships.stream().anyMatch(ReplicatedReference::isActive);
+        }
+        return Boolean.TRUE.equals(hospitalClient.existHospitalDoctorByDoctorIdAndHospitalId(doctorId, hospitalId));
+    }
+
+    public boolean existsPatient(Long patientId) {
+        Optional<ReplicatedReference> patient = replicatedReferenceRepository
+                .findById(ReplicatedReference.idOf(ReferenceType.PATIENT, patientId));
+        if (patient.isPresent()) {
+            return patient.get().isActive();
+        }
+        return patientClient.existPatientById(patientId);
+    }
+}
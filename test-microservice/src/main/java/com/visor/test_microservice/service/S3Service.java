@@ -1,5 +1,9 @@
 package com.visor.test_microservice.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -9,31 +13,61 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 public class S3Service {
 
+    /** Maximum number of keys accepted by a single S3 DeleteObjects call. */
+    public static final int MAX_KEYS_PER_DELETE = 1000;
+
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
+    private final String urlPrefix;
     private final S3Client s3Client;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary uploadSize;
 
     public S3Service(
             @Value("${aws.access-key}") String accessKey,
             @Value("${aws.secret-key}") String secretKey,
-            @Value("${aws.s3.bucket-name}") String bucketName
+            @Value("${aws.s3.bucket-name}") String bucketName,
+            @Value("${aws.s3.endpoint:}") String endpoint,
+            MeterRegistry meterRegistry
     ) {
         this.bucketName = bucketName;
+        this.meterRegistry = meterRegistry;
+        this.uploadSize = DistributionSummary.builder("s3.upload.size")
+                .description("Size of the objects uploaded to S3")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
 
         AwsBasicCredentials awsCreds = AwsBasicCredentials.create(accessKey, secretKey);
-        this.s3Client = S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
                 .region(Region.US_EAST_2)
-                .credentialsProvider(StaticCredentialsProvider.create(awsCreds))
-                .build();
+                .credentialsProvider(StaticCredentialsProvider.create(awsCreds));
+        if (endpoint.isBlank()) {
+            this.urlPrefix = String.format("https://%s.s3.amazonaws.com/", bucketName);
+        } else {
+            // S3-compatible stand-in (load tests, local runs): path-style keeps the bucket out of the host name
+            String base = endpoint.endsWith("/") ? endpoint : endpoint + "/";
+            this.urlPrefix = base + bucketName + "/";
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        this.s3Client = builder.build();
     }
 
     public String uploadFile(MultipartFile file) throws IOException {
@@ -45,9 +79,70 @@ public class S3Service {
                 .contentType(file.getContentType())
                 .build();
 
-        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+        byte[] bytes = file.getBytes();
+        timed("upload", () -> s3Client.putObject(putObjectRequest, RequestBody.fromBytes(bytes)));
+        uploadSize.record(bytes.length);
+
+        return urlPrefix + key;
+    }
+
+    /**
+     * Deletes the given keys with a single multi-object delete call.
+     *
+     * @return the keys S3 reported as not deleted
+     */
+    public List<String> deleteObjects(List<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        if (keys.size() > MAX_KEYS_PER_DELETE) {
+            throw new IllegalArgumentException("At most " + MAX_KEYS_PER_DELETE + " keys can be deleted per call");
+        }
+
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+
+        DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+
+        DeleteObjectsResponse response = timed("delete", () -> s3Client.deleteObjects(deleteObjectsRequest));
+        return response.errors().stream().map(S3Error::key).toList();
+    }
+
+    /**
+     * Times an S3 call as {@code s3.operations}, tagged with the operation and, when it fails, the
+     * exception class, so the error rate per operation reads off the same meter.
+     */
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("s3.operations")
+                    .description("Duration of S3 calls")
+                    .tag("operation", operation)
+                    .tag("outcome", "none".equals(exception) ? "success" : "error")
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
 
-        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, key);
+    /**
+     * Returns the object key of a URL produced by {@link #uploadFile}, or null if the URL
+     * does not point to this bucket.
+     */
+    public String extractKey(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(urlPrefix) || fileUrl.length() == urlPrefix.length()) {
+            return null;
+        }
+        return fileUrl.substring(urlPrefix.length());
     }
 }
 
@@ -0,0 +1,241 @@
+package com.visor.test_microservice.service;
+
+import com.visor.test_microservice.entity.FileAttachment;
+import com.visor.test_microservice.entity.ImageFile;
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.entity.TestEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Background garbage collector for soft-deleted documents.
+ *
+ * <p>Once a document has been soft-deleted for longer than the grace period, the reaper cascades
+ * the deletion to its children (test -> stacks and attachments, stack -> image files) with bulk
+ * updates, removes the backing S3 objects with multi-object delete calls and stamps
+ * {@code purgedAt}. All progress lives in Mongo, so an interrupted run simply resumes on the next
+ * tick. Each run is capped to a number of batches and pauses between S3 calls.
+ */
+@Service
+public class StorageReaperService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageReaperService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final S3Service s3Service;
+
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration batchPause;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public StorageReaperService(MongoTemplate mongoTemplate,
+                                S3Service s3Service,
+                                MeterRegistry meterRegistry,
+                                @Value("${storage.reaper.enabled:true}") boolean enabled,
+                                @Value("${storage.reaper.grace-period:P7D}") Duration gracePeriod,
+                                @Value("${storage.reaper.batch-size:500}") int batchSize,
+                                @Value("${storage.reaper.max-batches-per-run:20}") int maxBatchesPerRun,
+                                @Value("${storage.reaper.batch-pause:PT1S}") Duration batchPause) {
+        this.mongoTemplate = mongoTemplate;
+        this.s3Service = s3Service;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = Math.min(batchSize, S3Service.MAX_KEYS_PER_DELETE);
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.batchPause = batchPause;
+        this.runTimer = Timer.builder("storage.reaper.run")
+                .description("Duration of a storage reaper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.reaper.interval:PT15M}",
+            initialDelayString = "${storage.reaper.initial-delay:PT2M}")
+    public void reap() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runTimer.record(() -> reapOnce(Instant.now().minus(gracePeriod)));
+        } catch (RuntimeException e) {
+            log.error("Storage reaper run failed, it will resume on the next run", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Processes everything soft-deleted at or before {@code cutoff}, within the batch budget.
+     */
+    void reapOnce(Instant cutoff) {
+        RunBudget budget = new RunBudget(maxBatchesPerRun);
+
+        cascade(TestEntity.class, "tests", TestEntity::getId, TestEntity::getDeletedAt, cutoff, budget, Map.of(
+                ImageStack.class, "testId",
+                FileAttachment.class, "testId"));
+        cascade(ImageStack.class, "image_stacks", ImageStack::getId, ImageStack::getDeletedAt, cutoff, budget, Map.of(
+                ImageFile.class, "imageStackId"));
+
+        purgeObjects(ImageFile.class, "image_files", ImageFile::getId, ImageFile::getFileUrl, cutoff, budget);
+        purgeObjects(FileAttachment.class, "file_attachments", FileAttachment::getId, FileAttachment::getFileUrl, cutoff, budget);
+    }
+
+    private <T> void cascade(Class<T> parentType, String collection, Function<T, String> id,
+                             Function<T, Instant> deletedAt, Instant cutoff, RunBudget budget,
+                             Map<Class<?>, String> children) {
+        while (budget.hasRemaining()) {
+            List<T> parents = mongoTemplate.find(eligible(cutoff).limit(batchSize), parentType);
+            if (parents.isEmpty()) {
+                return;
+            }
+            budget.consume();
+
+            for (Map.Entry<Class<?>, String> child : children.entrySet()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, child.getKey());
+                for (T parent : parents) {
+                    bulk.updateMulti(
+                            Query.query(Criteria.where(child.getValue()).is(id.apply(parent)).and("deletedAt").isNull()),
+                            Update.update("deletedAt", deletedAt.apply(parent)));
+                }
+                long cascaded = bulk.execute().getModifiedCount();
+                counter("storage.reaper.documents.cascaded", collection).increment(cascaded);
+            }
+            markPurged(parentType, collection, parents.stream().map(id).toList());
+
+            if (parents.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private <T> void purgeObjects(Class<T> type, String collection, Function<T, String> id, Function<T, String> fileUrl,
+                                  Instant cutoff, RunBudget budget) {
+        Set<String> failedIds = new HashSet<>();
+        while (budget.hasRemaining()) {
+            Query query = eligible(cutoff).limit(batchSize);
+            if (!failedIds.isEmpty()) {
+                query.addCriteria(Criteria.where("_id").nin(failedIds));
+            }
+            query.fields().include("fileUrl");
+
+            List<T> documents = mongoTemplate.find(query, type);
+            if (documents.isEmpty()) {
+                return;
+            }
+            budget.consume();
+
+            List<String> keys = new ArrayList<>(documents.size());
+            for (T document : documents) {
+                String key = s3Service.extractKey(fileUrl.apply(document));
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+
+            Set<String> failedKeys = new HashSet<>(deleteQuietly(keys, collection));
+            List<String> purgedIds = new ArrayList<>(documents.size());
+            for (T document : documents) {
+                String key = s3Service.extractKey(fileUrl.apply(document));
+                if (key != null && failedKeys.contains(key)) {
+                    failedIds.add(id.apply(document));
+                } else {
+                    purgedIds.add(id.apply(document));
+                }
+            }
+
+            counter("storage.reaper.objects.deleted", collection).increment(keys.size() - failedKeys.size());
+            counter("storage.reaper.objects.failed", collection).increment(failedKeys.size());
+            markPurged(type, collection, purgedIds);
+
+            if (documents.size() < batchSize) {
+                return;
+            }
+            pause();
+        }
+    }
+
+    private List<String> deleteQuietly(List<String> keys, String collection) {
+        try {
+            return s3Service.deleteObjects(keys);
+        } catch (RuntimeException e) {
+            log.warn("Multi-object delete of {} {} objects failed", keys.size(), collection, e);
+            return keys;
+        }
+    }
+
+    private void markPurged(Class<?> type, String collection, List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long purged = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids)),
+                Update.update("purgedAt", Instant.now()),
+                type).getModifiedCount();
+        counter("storage.reaper.documents.purged", collection).increment(purged);
+    }
+
+    private Query eligible(Instant cutoff) {
+        return Query.query(Criteria.where("deletedAt").lte(cutoff).and("purgedAt").isNull())
+                .with(Sort.by(Sort.Direction.ASC, "deletedAt"));
+    }
+
+    private void pause() {
+        if (batchPause.isZero() || batchPause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Counter counter(String name, String collection) {
+        return meterRegistry.counter(name, "collection", collection);
+    }
+
+    /** Number of batches a single run may still process, shared by all phases of the run. */
+    private static final class RunBudget {
+        private int remaining;
+
+        RunBudget(int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean hasRemaining() {
+            return remaining > 0;
+        }
+
+        void consume() {
+            remaining--;
+        }
+    }
+}
@@ -12,10 +12,13 @@ import com.visor.test_microservice.repository.FileAttachmentRepository;
 import com.visor.test_microservice.repository.ImageFileRepository;
 import com.visor.test_microservice.repository.ImageStackRepository;
 import com.visor.test_microservice.repository.TestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -32,11 +35,17 @@ public class TestService {
     private final ImageFileRepository imageFileRepository;
     @Autowired
     private final FileAttachmentRepository fileAttachmentRepository;
+    private final Timer patientTestAssembly;
 
-    public TestService(ImageStackRepository imageStackRepository, ImageFileRepository imageFileRepository, FileAttachmentRepository fileAttachmentRepository) {
+    public TestService(ImageStackRepository imageStackRepository, ImageFileRepository imageFileRepository,
+                       FileAttachmentRepository fileAttachmentRepository, MeterRegistry meterRegistry) {
         this.imageStackRepository = imageStackRepository;
         this.imageFileRepository = imageFileRepository;
         this.fileAttachmentRepository = fileAttachmentRepository;
+        this.patientTestAssembly = Timer.builder("test.dto.assembly")
+                .description("Time to load a test and assemble it into a DTO, repository calls included")
+                .tag("dto", "patient-test")
+                .register(meterRegistry);
     }
 
     public TestEntity createTestEntity(TestEntity testEntity) {
@@ -53,6 +62,10 @@ public class TestService {
     }
 
     public PatientTestDTO getPatientTestByPasscode(String passcode) {
+        return patientTestAssembly.record(() -> assemblePatientTest(passcode));
+    }
+
+    private PatientTestDTO assemblePatientTest(String passcode) {
         Optional<TestEntity> optionalTest = testRepository.findByPassCodeAndDeletedAtIsNull(passcode);
         if (optionalTest.isEmpty()) {
             return null;
@@ -131,11 +144,51 @@ public class TestService {
 
 
 
+    /**
+     * Soft-deletes the test together with its stacks, attachments and image files. The whole
+     * subtree is stamped with the same {@code deletedAt} so it can be restored in bulk.
+     */
     public void deleteTestEntity(String id) {
-        Optional<TestEntity> testEntity = testRepository.findByIdAndDeletedAtIsNull(id);
-        testEntity.ifPresent(entity -> {
-            entity.setDeletedAt(Instant.now());
-            testRepository.save(entity);
-        });
+        Instant deletedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        if (testRepository.markDeletedById(id, deletedAt) == 0) {
+            return;
+        }
+
+        imageStackRepository.markDeletedByTestId(id, deletedAt);
+        fileAttachmentRepository.markDeletedByTestId(id, deletedAt);
+        // read after marking, so a stack created meanwhile is either left live or cascaded to its files
+        List<String> stackIds = imageStackRepository.findIdsByTestIdAndDeletedAt(id, deletedAt).stream()
+                .map(ImageStack::getId)
+                .toList();
+        if (!stackIds.isEmpty()) {
+            imageFileRepository.markDeletedByImageStackIdIn(stackIds, deletedAt);
+        }
+    }
+
+    /**
+     * Restores a soft-deleted test and every child deleted together with it. Children deleted
+     * on their own before the test keep their deletion. Purged tests cannot be restored.
+     */
+    public Optional<TestEntity> restoreTestEntity(String id) {
+        Optional<TestEntity> deletedTest = testRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull(id);
+        if (deletedTest.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Instant deletedAt = deletedTest.get().getDeletedAt();
+        if (testRepository.restoreById(id, deletedAt) == 0) {
+            return Optional.empty();
+        }
+
+        List<String> stackIds = imageStackRepository.findIdsByTestIdAndDeletedAt(id, deletedAt).stream()
+                .map(ImageStack::getId)
+                .toList();
+        imageStackRepository.restoreByTestId(id, deletedAt);
+        fileAttachmentRepository.restoreByTestId(id, deletedAt);
+        if (!stackIds.isEmpty()) {
+            imageFileRepository.restoreByImageStackIdIn(stackIds, deletedAt);
+        }
+
+        return testRepository.findByIdAndDeletedAtIsNull(id);
     }
 }
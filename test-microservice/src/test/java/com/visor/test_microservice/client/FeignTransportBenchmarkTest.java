@@ -0,0 +1,163 @@
+package com.visor.test_microservice.client;
+
+import com.sun.net.httpserver.HttpServer;
+import com.visor.test_microservice.configuration.FeignClientConfig;
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares Feign's default {@code HttpURLConnection} transport with the pooled Apache HttpClient 5
+ * transport under concurrent load against a local stub. The pooled client is the one the service
+ * builds, from the {@code spring.cloud.openfeign.httpclient.*} settings in {@code bootstrap.properties}
+ * and {@link FeignClientConfig}'s customizer. Logs p50/p99 latency and how many TCP connections each
+ * transport opened. Excluded from the default build, run it with
+ * {@code mvn test -Dgroups=benchmark -DexcludedGroups=}.
+ */
+@Tag("benchmark")
+public class FeignTransportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FeignTransportBenchmarkTest.class);
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 500;
+    private static final int WARMUP_REQUESTS_PER_THREAD = 100;
+
+    private static HttpServer server;
+    private static final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    interface PatientApi {
+        @RequestLine("GET /api/patients/exist/{id}")
+        String existPatientById(@Param("id") long id);
+    }
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(Executors.newFixedThreadPool(THREADS));
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "true".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void compareTransports() throws Exception {
+        Result urlConnection = run("HttpURLConnection", new Client.Default(null, null));
+
+        new ApplicationContextRunner()
+                .withInitializer(context -> {
+                    try {
+                        context.getEnvironment().getPropertySources()
+                                .addLast(new ResourcePropertySource("classpath:bootstrap.properties"));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+                .withUserConfiguration(FeignClientConfig.class)
+                .run(context -> {
+                    Result pooled = run("ApacheHttp5Client", new ApacheHttp5Client(context.getBean(CloseableHttpClient.class)));
+
+                    log.info("{}", urlConnection);
+                    log.info("{}", pooled);
+                    assertThat(pooled.connections()).isLessThanOrEqualTo(THREADS);
+                    assertThat(pooled.connections()).isLessThan(urlConnection.connections());
+                });
+    }
+
+    private Result run(String name, Client client) throws Exception {
+        PatientApi api = Feign.builder()
+                .client(client)
+                .target(PatientApi.class, "http://localhost:" + server.getAddress().getPort());
+
+        load(api, WARMUP_REQUESTS_PER_THREAD);
+        clientPorts.clear();
+        long[] latencies = load(api, REQUESTS_PER_THREAD);
+        Arrays.sort(latencies);
+
+        return new Result(name, percentile(latencies, 0.50), percentile(latencies, 0.99), clientPorts.size());
+    }
+
+    private long[] load(PatientApi api, int requestsPerThread) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(callers.submit(() -> {
+                    long[] latencies = new long[requestsPerThread];
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        long started = System.nanoTime();
+                        api.existPatientById(i);
+                        latencies[i] = System.nanoTime() - started;
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[THREADS * requestsPerThread];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get(2, TimeUnit.MINUTES);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            return all;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(String transport, double p50Millis, double p99Millis, int connections) {
+        @Override
+        public String toString() {
+            return String.format("%-18s p50=%.3f ms  p99=%.3f ms  connections=%d",
+                    transport, p50Millis, p99Millis, connections);
+        }
+    }
+}
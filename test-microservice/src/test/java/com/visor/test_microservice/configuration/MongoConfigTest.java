@@ -0,0 +1,79 @@
+package com.visor.test_microservice.configuration;
+
+import com.visor.test_microservice.entity.FileAttachment;
+import com.visor.test_microservice.entity.ImageFile;
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.entity.ReplicatedReference;
+import com.visor.test_microservice.entity.TestEntity;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MongoConfigTest {
+
+    @Test
+    @DisplayName("should create the indexes declared on the replicated references at startup")
+    void replicatedReferenceIndexes_shouldEnsureDeclaredIndexes() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(ReplicatedReference.class)).thenReturn(indexOps);
+
+        new MongoConfig().replicatedReferenceIndexes(mongoTemplate, mappingContext())
+                .onApplicationEvent(new ContextRefreshedEvent(new GenericApplicationContext()));
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, times(2)).ensureIndex(indexes.capture());
+        assertThat(indexes.getAllValues())
+                .extracting(index -> index.getIndexOptions().getString("name"))
+                .containsExactlyInAnyOrder("type_keycloak", "type_doctor_hospital");
+    }
+
+    @Test
+    @DisplayName("should index the storage reaper's query in every collection it reaps, for deleted documents only")
+    void storageReaperIndexes_shouldEnsurePartialIndexPerReapedCollection() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        List<Class<?>> reaped = List.of(TestEntity.class, ImageStack.class, ImageFile.class, FileAttachment.class);
+        Map<Class<?>, IndexOperations> indexOps = new HashMap<>();
+        for (Class<?> type : reaped) {
+            indexOps.put(type, mock(IndexOperations.class));
+            when(mongoTemplate.indexOps(type)).thenReturn(indexOps.get(type));
+        }
+
+        new MongoConfig().storageReaperIndexes(mongoTemplate, mappingContext())
+                .onApplicationEvent(new ContextRefreshedEvent(new GenericApplicationContext()));
+
+        for (Class<?> type : reaped) {
+            ArgumentCaptor<IndexDefinition> index = ArgumentCaptor.forClass(IndexDefinition.class);
+            verify(indexOps.get(type)).ensureIndex(index.capture());
+            assertThat(index.getValue().getIndexKeys())
+                    .isEqualTo(new Document("purgedAt", 1).append("deletedAt", 1));
+            assertThat(index.getValue().getIndexOptions().getString("name")).isEqualTo("purged_deleted");
+            assertThat(index.getValue().getIndexOptions().get("partialFilterExpression"))
+                    .isEqualTo(new Document("deletedAt", new Document("$exists", true)));
+        }
+    }
+
+    private static MongoMappingContext mappingContext() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return mappingContext;
+    }
+}
@@ -0,0 +1,70 @@
+package com.visor.test_microservice.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResilienceConfigTest {
+
+    @Test
+    @DisplayName("should reject calls instead of growing the Feign pool past its bound")
+    void boundedThreadPool_shouldRejectWhenFull() {
+        ExecutorService executor = ResilienceConfig.boundedThreadPool("hospital-snapshot", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<Void> blocked = () -> {
+            release.await();
+            return null;
+        };
+        try {
+            executor.submit(blocked);
+            executor.submit(blocked);
+
+            assertThatThrownBy(() -> executor.submit(blocked))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("should accept retries that fit inside each client's time limiter")
+    void checkRetryBudget_shouldPass_whenRetriesFit() {
+        MockEnvironment environment = retryEnvironment()
+                .withProperty("resilience4j.timelimiter.instances.doctor-microservice.timeout-duration", "PT5S");
+
+        assertThatCode(() -> ResilienceConfig.checkRetryBudget(environment)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("should fail startup when a client's retries can outlast its time limiter")
+    void checkRetryBudget_shouldFail_whenRetriesOutlastTimeLimiter() {
+        MockEnvironment environment = retryEnvironment()
+                .withProperty("spring.cloud.openfeign.client.config.hospital-snapshot.read-timeout", "10000")
+                .withProperty("resilience4j.timelimiter.instances.doctor-microservice.timeout-duration", "PT5S")
+                .withProperty("resilience4j.timelimiter.instances.hospital-snapshot.timeout-duration", "PT20S");
+
+        assertThatThrownBy(() -> ResilienceConfig.checkRetryBudget(environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("hospital-snapshot")
+                .hasMessageContaining("21900 ms");
+    }
+
+    private static MockEnvironment retryEnvironment() {
+        return new MockEnvironment()
+                .withProperty("feign-retry.max-attempts", "2")
+                .withProperty("feign-retry.max-backoff-ms", "400")
+                .withProperty("spring.cloud.openfeign.httpclient.hc5.connection-request-timeout", "250")
+                .withProperty("spring.cloud.openfeign.httpclient.hc5.connection-request-timeout-unit", "milliseconds")
+                .withProperty("spring.cloud.openfeign.client.config.default.connect-timeout", "500")
+                .withProperty("spring.cloud.openfeign.client.config.default.read-timeout", "1500");
+    }
+}
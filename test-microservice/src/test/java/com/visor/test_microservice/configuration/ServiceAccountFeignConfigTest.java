@@ -0,0 +1,62 @@
+package com.visor.test_microservice.configuration;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ServiceAccountFeignConfigTest {
+
+    private final OAuth2AuthorizedClientManager authorizedClientManager = mock(OAuth2AuthorizedClientManager.class);
+    private final RequestInterceptor interceptor =
+            new ServiceAccountFeignConfig().serviceAccountFeignInterceptor(authorizedClientManager);
+
+    @Test
+    @DisplayName("should replace the caller's token with the service account token")
+    void apply_shouldSendServiceAccountToken() {
+        when(authorizedClientManager.authorize(argThat((OAuth2AuthorizeRequest request) ->
+                ServiceAccountFeignConfig.REGISTRATION_ID.equals(request.getClientRegistrationId()))))
+                .thenReturn(authorizedClient("service-token"));
+        RequestTemplate template = new RequestTemplate();
+        template.header(HttpHeaders.AUTHORIZATION, "Bearer user-token");
+
+        interceptor.apply(template);
+
+        assertThat(template.headers().get(HttpHeaders.AUTHORIZATION)).containsExactly("Bearer service-token");
+    }
+
+    @Test
+    @DisplayName("should fail the call instead of sending it without a token")
+    void apply_shouldFail_whenNoTokenIsGranted() {
+        when(authorizedClientManager.authorize(any())).thenReturn(null);
+
+        assertThatIllegalStateException().isThrownBy(() -> interceptor.apply(new RequestTemplate()));
+    }
+
+    private OAuth2AuthorizedClient authorizedClient(String tokenValue) {
+        ClientRegistration registration = ClientRegistration.withRegistrationId(ServiceAccountFeignConfig.REGISTRATION_ID)
+                .clientId("test-microservice")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("http://localhost/token")
+                .build();
+        OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+                Instant.now(), Instant.now().plusSeconds(300));
+        return new OAuth2AuthorizedClient(registration, ServiceAccountFeignConfig.REGISTRATION_ID, token);
+    }
+}
@@ -0,0 +1,111 @@
+package com.visor.test_microservice.event;
+
+import com.visor.test_microservice.configuration.KafkaConfig;
+import com.visor.test_microservice.entity.ReferenceType;
+import com.visor.test_microservice.entity.ReplicatedReference;
+import com.visor.test_microservice.repository.ReplicatedReferenceRepository;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = {DomainEventListener.class, KafkaConfig.class}, properties = {
+        "spring.cloud.bootstrap.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "domain-events.consumer-group=test-microservice-replica"
+})
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@EmbeddedKafka(partitions = 1, topics = {
+        DoctorEvent.TOPIC, PatientEvent.TOPIC, HospitalEvent.TOPIC, HospitalDoctorEvent.TOPIC
+})
+public class DomainEventListenerTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @MockitoBean
+    private ReplicatedReferenceRepository replicatedReferenceRepository;
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafka);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps));
+    }
+
+    @Test
+    @DisplayName("should replicate a created doctor with its Keycloak id")
+    void onDoctorEvent_shouldUpsertActiveDoctor() {
+        kafkaTemplate.send(DoctorEvent.TOPIC, "7",
+                "{\"type\":\"CREATED\",\"id\":7,\"idKeycloak\":\"kc-7\",\"occurredAt\":\"2025-04-09T12:00:00Z\"}");
+
+        ReplicatedReference reference = awaitSaved();
+        assertThat(reference.getId()).isEqualTo("DOCTOR:7");
+        assertThat(reference.getKeycloakId()).isEqualTo("kc-7");
+        assertThat(reference.isActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should replicate a deleted hospital-doctor membership as inactive")
+    void onHospitalDoctorEvent_shouldUpsertInactiveMembership() {
+        kafkaTemplate.send(HospitalDoctorEvent.TOPIC, "3",
+                "{\"type\":\"DELETED\",\"id\":3,\"hospitalId\":5,\"doctorId\":7,\"occurredAt\":\"2025-04-09T12:00:00Z\"}");
+
+        ReplicatedReference reference = awaitSaved();
+        assertThat(reference.getType()).isEqualTo(ReferenceType.HOSPITAL_DOCTOR);
+        assertThat(reference.getDoctorId()).isEqualTo(7L);
+        assertThat(reference.getHospitalId()).isEqualTo(5L);
+        assertThat(reference.isActive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should skip a malformed payload and keep consuming the partition")
+    void onPatientEvent_shouldSkipMalformedPayload() {
+        kafkaTemplate.send(PatientEvent.TOPIC, "1", "not json");
+        kafkaTemplate.send(PatientEvent.TOPIC, "2",
+                "{\"type\":\"UPDATED\",\"id\":2,\"occurredAt\":\"2025-04-09T12:00:00Z\"}");
+
+        ReplicatedReference reference = awaitSaved();
+        assertThat(reference.getId()).isEqualTo("PATIENT:2");
+        assertThat(reference.isActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should remove the local copy on a tombstone")
+    void onHospitalEvent_shouldDeleteOnTombstone() {
+        kafkaTemplate.send(HospitalEvent.TOPIC, "9", null);
+
+        verify(replicatedReferenceRepository, timeout(TIMEOUT_MS)).deleteById("HOSPITAL:9");
+    }
+
+    private ReplicatedReference awaitSaved() {
+        ArgumentCaptor<ReplicatedReference> saved = ArgumentCaptor.forClass(ReplicatedReference.class);
+        verify(replicatedReferenceRepository, timeout(TIMEOUT_MS)).save(saved.capture());
+        return saved.getValue();
+    }
+}
@@ -0,0 +1,79 @@
+package com.visor.test_microservice.event;
+
+import com.visor.test_microservice.configuration.KafkaConfig;
+import com.visor.test_microservice.service.HospitalDoctorIndexService;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = {HospitalDoctorIndexListener.class, TopicPartitions.class, KafkaConfig.class}, properties = {
+        "spring.cloud.bootstrap.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        // stale on purpose: the assignment has to follow the topic's three partitions
+        "hospital-doctor-index.partitions=0"
+})
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@EmbeddedKafka(partitions = 3, topics = HospitalDoctorEvent.TOPIC)
+public class HospitalDoctorIndexListenerTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @MockitoBean
+    private HospitalDoctorIndexService hospitalDoctorIndexService;
+
+    @Test
+    @DisplayName("should read every partition of the topic without joining a consumer group")
+    void onHospitalDoctorEvent_shouldApplyDeltasWithoutConsumerGroup() throws Exception {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 3);
+        }
+
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafka);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps));
+        for (int partition = 0; partition < 3; partition++) {
+            kafkaTemplate.send(HospitalDoctorEvent.TOPIC, partition, String.valueOf(partition),
+                    "{\"type\":\"CREATED\",\"id\":" + partition + ",\"hospitalId\":5,\"doctorId\":7,\"occurredAt\":\"2025-04-09T12:00:00Z\"}");
+        }
+
+        ArgumentCaptor<HospitalDoctorEvent> event = ArgumentCaptor.forClass(HospitalDoctorEvent.class);
+        verify(hospitalDoctorIndexService, timeout(TIMEOUT_MS).times(3)).apply(event.capture());
+        assertThat(event.getAllValues()).extracting(HospitalDoctorEvent::id).containsExactlyInAnyOrder(0L, 1L, 2L);
+
+        try (AdminClient admin = AdminClient.create(Map.of("bootstrap.servers", embeddedKafka.getBrokersAsString()))) {
+            assertThat(admin.listConsumerGroups().all().get()).extracting(ConsumerGroupListing::groupId).isEmpty();
+        }
+    }
+}
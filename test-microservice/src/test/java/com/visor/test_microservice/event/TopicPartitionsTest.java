@@ -0,0 +1,45 @@
+package com.visor.test_microservice.event;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TopicPartitionsTest {
+
+    private final KafkaAdmin kafkaAdmin = mock(KafkaAdmin.class);
+    private final TopicPartitions topicPartitions = new TopicPartitions(kafkaAdmin);
+
+    @Test
+    @DisplayName("should assign every partition the topic has")
+    void of_shouldListTheTopicsPartitions() {
+        Node broker = new Node(1, "kafka", 9092);
+        List<TopicPartitionInfo> partitions = List.of(
+                new TopicPartitionInfo(0, broker, List.of(broker), List.of(broker)),
+                new TopicPartitionInfo(1, broker, List.of(broker), List.of(broker)),
+                new TopicPartitionInfo(2, broker, List.of(broker), List.of(broker)),
+                new TopicPartitionInfo(3, broker, List.of(broker), List.of(broker)));
+        when(kafkaAdmin.describeTopics(HospitalDoctorEvent.TOPIC)).thenReturn(
+                Map.of(HospitalDoctorEvent.TOPIC, new TopicDescription(HospitalDoctorEvent.TOPIC, false, partitions)));
+
+        assertThat(topicPartitions.of(HospitalDoctorEvent.TOPIC, "0-2")).isEqualTo("0,1,2,3");
+    }
+
+    @Test
+    @DisplayName("should fall back to the configured partitions when the topic cannot be described")
+    void of_shouldFallBack_whenTopicCannotBeDescribed() {
+        when(kafkaAdmin.describeTopics(HospitalDoctorEvent.TOPIC)).thenThrow(new KafkaException("unknown topic"));
+
+        assertThat(topicPartitions.of(HospitalDoctorEvent.TOPIC, "0-2")).isEqualTo("0-2");
+    }
+}
@@ -0,0 +1,116 @@
+package com.visor.test_microservice.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HospitalDoctorIndexTest {
+
+    private final HospitalDoctorIndex index = new HospitalDoctorIndex();
+
+    @Nested
+    @DisplayName("Deltas")
+    class DeltaTests {
+
+        @Test
+        @DisplayName("should contain added links and forget removed ones")
+        void addAndRemove_shouldUpdateMembership() {
+            assertThat(index.add(7, 1)).isTrue();
+            assertThat(index.add(3, 1)).isTrue();
+            assertThat(index.add(7, 2)).isTrue();
+            assertThat(index.add(7, 1)).isFalse();
+
+            assertThat(index.contains(7, 1)).isTrue();
+            assertThat(index.contains(3, 1)).isTrue();
+            assertThat(index.contains(3, 2)).isFalse();
+            assertThat(index.size()).isEqualTo(3);
+
+            assertThat(index.remove(7, 2)).isTrue();
+            assertThat(index.remove(7, 2)).isFalse();
+            assertThat(index.contains(7, 2)).isFalse();
+            assertThat(index.contains(7, 1)).isTrue();
+            assertThat(index.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should not index doctor ids that do not fit in an int")
+        void add_shouldIgnoreOversizedDoctorIds() {
+            long doctorId = Integer.MAX_VALUE + 1L;
+
+            assertThat(index.add(doctorId, 1)).isFalse();
+            assertThat(index.contains(doctorId, 1)).isFalse();
+            assertThat(index.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot load")
+    class LoadTests {
+
+        @Test
+        @DisplayName("should replace the index with unsorted, duplicated snapshot data")
+        void load_shouldReplaceContents() {
+            index.add(99, 99);
+
+            index.load(Map.of(
+                    2L, new long[]{5, 1, 5},
+                    1L, new long[]{4},
+                    3L, new long[]{}));
+
+            assertThat(index.contains(99, 99)).isFalse();
+            assertThat(index.contains(1, 2)).isTrue();
+            assertThat(index.contains(5, 2)).isTrue();
+            assertThat(index.contains(4, 1)).isTrue();
+            assertThat(index.size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should keep a million links within a few megabytes")
+        void load_shouldStayCompact() {
+            Map<Long, long[]> snapshot = new HashMap<>();
+            for (long hospital = 0; hospital < 1_000; hospital++) {
+                long[] doctors = new long[1_000];
+                for (int i = 0; i < doctors.length; i++) {
+                    doctors[i] = hospital * 7 + i * 13L;
+                }
+                snapshot.put(hospital, doctors);
+            }
+
+            index.load(snapshot);
+
+            assertThat(index.size()).isEqualTo(1_000_000);
+            assertThat(index.estimatedBytes()).isLessThan(5L * 1024 * 1024);
+        }
+    }
+
+    @Test
+    @DisplayName("should not allocate on lookups")
+    void contains_shouldNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int doctor = 0; doctor < 1_000; doctor++) {
+            index.add(doctor, doctor % 10);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            index.contains(i % 2_000, i % 10);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int hits = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (index.contains(i % 2_000, i % 10)) {
+                hits++;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(hits).isPositive();
+        assertThat(allocated).isLessThan(1_024);
+    }
+}
@@ -0,0 +1,85 @@
+package com.visor.test_microservice.service;
+
+import com.visor.test_microservice.client.HospitalSnapshotClient;
+import com.visor.test_microservice.dto.HospitalMembersDTO;
+import com.visor.test_microservice.event.DomainEventType;
+import com.visor.test_microservice.event.HospitalDoctorEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HospitalDoctorIndexServiceTest {
+
+    @Mock
+    private HospitalSnapshotClient hospitalSnapshotClient;
+
+    private HospitalDoctorIndexService hospitalDoctorIndexService;
+
+    @BeforeEach
+    void setUp() {
+        hospitalDoctorIndexService = new HospitalDoctorIndexService(hospitalSnapshotClient, new SyncTaskExecutor(),
+                new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("should seed from the snapshot on the first lookup")
+    void contains_shouldSeedFromSnapshot() {
+        when(hospitalSnapshotClient.getHospitalDoctorSnapshot()).thenReturn(List.of(members(1L, 3L, 4L)));
+
+        assertThat(hospitalDoctorIndexService.contains(3L, 1L)).isTrue();
+        assertThat(hospitalDoctorIndexService.contains(5L, 1L)).isFalse();
+        assertThat(hospitalDoctorIndexService.isSeeded()).isTrue();
+        verify(hospitalSnapshotClient, times(1)).getHospitalDoctorSnapshot();
+    }
+
+    @Test
+    @DisplayName("should not retry seeding before the retry interval after a failure")
+    void contains_shouldBackOff_whenSnapshotFails() {
+        when(hospitalSnapshotClient.getHospitalDoctorSnapshot()).thenThrow(new RuntimeException("hospital down"));
+
+        assertThat(hospitalDoctorIndexService.contains(3L, 1L)).isFalse();
+        assertThat(hospitalDoctorIndexService.contains(3L, 1L)).isFalse();
+
+        assertThat(hospitalDoctorIndexService.isSeeded()).isFalse();
+        verify(hospitalSnapshotClient, times(1)).getHospitalDoctorSnapshot();
+    }
+
+    @Test
+    @DisplayName("should move a membership when an update carries the previous pair")
+    void apply_shouldMoveMembership() {
+        when(hospitalSnapshotClient.getHospitalDoctorSnapshot()).thenReturn(List.of(members(1L, 3L)));
+        assertThat(hospitalDoctorIndexService.contains(3L, 1L)).isTrue();
+
+        hospitalDoctorIndexService.apply(event(DomainEventType.UPDATED, 2L, 3L, 1L, 3L));
+        assertThat(hospitalDoctorIndexService.contains(3L, 2L)).isTrue();
+        assertThat(hospitalDoctorIndexService.contains(3L, 1L)).isFalse();
+
+        hospitalDoctorIndexService.apply(event(DomainEventType.DELETED, 2L, 3L, null, null));
+        assertThat(hospitalDoctorIndexService.contains(3L, 2L)).isFalse();
+    }
+
+    private HospitalMembersDTO members(Long hospitalId, long... doctorIds) {
+        HospitalMembersDTO members = new HospitalMembersDTO();
+        members.setHospitalId(hospitalId);
+        members.setDoctorIds(doctorIds);
+        return members;
+    }
+
+    private HospitalDoctorEvent event(DomainEventType type, Long hospitalId, Long doctorId,
+                                      Long previousHospitalId, Long previousDoctorId) {
+        return new HospitalDoctorEvent(type, 10L, hospitalId, doctorId, previousHospitalId, previousDoctorId, Instant.now());
+    }
+}
@@ -0,0 +1,88 @@
+package com.visor.test_microservice.service;
+
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.repository.ImageFileRepository;
+import com.visor.test_microservice.repository.ImageStackRepository;
+import com.visor.test_microservice.repository.TestRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImageStackServiceTest {
+
+    private static final Instant DELETED_AT = Instant.parse("2025-04-09T12:34:56.789Z");
+
+    @Mock
+    private ImageStackRepository imageStackRepository;
+
+    @Mock
+    private ImageFileRepository imageFileRepository;
+
+    @Mock
+    private TestRepository testRepository;
+
+    @InjectMocks
+    private ImageStackService imageStackService;
+
+    @Nested
+    @DisplayName("Restore image stack")
+    class RestoreImageStackTests {
+
+        @Test
+        @DisplayName("should restore the stack and the image files deleted with it when its test is live")
+        void restoreImageStack_shouldRestoreStackAndFiles() {
+            ImageStack restored = imageStack(null);
+            when(imageStackRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull("stk-1")).thenReturn(Optional.of(imageStack(DELETED_AT)));
+            when(testRepository.existsByIdAndDeletedAtIsNull("tst-1")).thenReturn(true);
+            when(imageStackRepository.restoreById("stk-1", DELETED_AT)).thenReturn(1L);
+            when(imageStackRepository.findByIdAndDeletedAtIsNull("stk-1")).thenReturn(Optional.of(restored));
+
+            assertThat(imageStackService.restoreImageStack("stk-1")).contains(restored);
+            verify(imageFileRepository).restoreByImageStackIdIn(List.of("stk-1"), DELETED_AT);
+        }
+
+        @Test
+        @DisplayName("should return empty and restore nothing when the stack's test is deleted or purged")
+        void restoreImageStack_shouldReturnEmpty_whenTestNotLive() {
+            when(imageStackRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull("stk-1")).thenReturn(Optional.of(imageStack(DELETED_AT)));
+            when(testRepository.existsByIdAndDeletedAtIsNull("tst-1")).thenReturn(false);
+
+            assertThat(imageStackService.restoreImageStack("stk-1")).isEmpty();
+            verify(imageStackRepository, never()).restoreById(anyString(), any());
+            verify(imageFileRepository, never()).restoreByImageStackIdIn(anyCollection(), any());
+        }
+
+        @Test
+        @DisplayName("should return empty when the stack is not deleted or already purged")
+        void restoreImageStack_shouldReturnEmpty_whenNotRestorable() {
+            when(imageStackRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull("stk-1")).thenReturn(Optional.empty());
+
+            assertThat(imageStackService.restoreImageStack("stk-1")).isEmpty();
+            verify(testRepository, never()).existsByIdAndDeletedAtIsNull(anyString());
+            verify(imageStackRepository, never()).restoreById(anyString(), any());
+        }
+    }
+
+    private static ImageStack imageStack(Instant deletedAt) {
+        ImageStack imageStack = new ImageStack();
+        imageStack.setId("stk-1");
+        imageStack.setTestId("tst-1");
+        imageStack.setDeletedAt(deletedAt);
+        return imageStack;
+    }
+}
@@ -0,0 +1,66 @@
+package com.visor.test_microservice.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class S3ServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer s3;
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        s3 = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        s3.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("denied.dcm") ? 403 : 200, -1);
+            exchange.close();
+        });
+        s3.start();
+        s3Service = new S3Service("access", "secret", "bucket",
+                "http://localhost:" + s3.getAddress().getPort(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3.stop(0);
+    }
+
+    @Test
+    @DisplayName("should record duration and size of a successful upload")
+    void uploadFile_shouldRecordDurationAndSize() throws IOException {
+        String url = s3Service.uploadFile(new MockMultipartFile("file", "slice.dcm", "application/dicom", new byte[1024]));
+
+        assertThat(url).startsWith("http://localhost:" + s3.getAddress().getPort() + "/bucket/");
+        assertThat(s3Service.extractKey(url)).endsWith("_slice.dcm");
+        assertThat(meterRegistry.get("s3.operations").tags("operation", "upload", "outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("s3.upload.size").summary().totalAmount()).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("should record a failed upload by exception and skip its size")
+    void uploadFile_shouldRecordError() {
+        MockMultipartFile file = new MockMultipartFile("file", "denied.dcm", "application/dicom", new byte[1024]);
+
+        assertThatThrownBy(() -> s3Service.uploadFile(file)).isInstanceOf(S3Exception.class);
+
+        assertThat(meterRegistry.get("s3.operations")
+                .tags("operation", "upload", "outcome", "error", "exception", "S3Exception").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("s3.upload.size").summary().count()).isZero();
+    }
+}
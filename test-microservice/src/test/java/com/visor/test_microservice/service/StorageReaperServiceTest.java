@@ -0,0 +1,142 @@
+package com.visor.test_microservice.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.visor.test_microservice.entity.FileAttachment;
+import com.visor.test_microservice.entity.ImageFile;
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.entity.TestEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StorageReaperServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private S3Service s3Service;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StorageReaperService storageReaperService;
+
+    private final Instant cutoff = Instant.parse("2025-04-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        storageReaperService = new StorageReaperService(mongoTemplate, s3Service, meterRegistry,
+                true, Duration.ofDays(7), 500, 20, Duration.ZERO);
+
+        lenient().when(mongoTemplate.find(any(Query.class), eq(TestEntity.class))).thenReturn(List.of());
+        lenient().when(mongoTemplate.find(any(Query.class), eq(ImageStack.class))).thenReturn(List.of());
+        lenient().when(mongoTemplate.find(any(Query.class), eq(ImageFile.class))).thenReturn(List.of());
+        lenient().when(mongoTemplate.find(any(Query.class), eq(FileAttachment.class))).thenReturn(List.of());
+        lenient().when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), any(Class.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Nested
+    @DisplayName("Purge S3 objects")
+    class PurgeObjectsTests {
+
+        @Test
+        @DisplayName("should delete objects in one call and only mark successful documents as purged")
+        void reapOnce_shouldMarkOnlyDeletedObjectsAsPurged() {
+            ImageFile deleted = imageFile("img-1", "https://bucket.s3.amazonaws.com/key-1");
+            ImageFile failed = imageFile("img-2", "https://bucket.s3.amazonaws.com/key-2");
+            when(mongoTemplate.find(any(Query.class), eq(ImageFile.class))).thenReturn(List.of(deleted, failed));
+            when(s3Service.extractKey("https://bucket.s3.amazonaws.com/key-1")).thenReturn("key-1");
+            when(s3Service.extractKey("https://bucket.s3.amazonaws.com/key-2")).thenReturn("key-2");
+            when(s3Service.deleteObjects(List.of("key-1", "key-2"))).thenReturn(List.of("key-2"));
+
+            storageReaperService.reapOnce(cutoff);
+
+            verify(s3Service, times(1)).deleteObjects(anyList());
+            ArgumentCaptor<Query> purged = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).updateMulti(purged.capture(), any(Update.class), eq(ImageFile.class));
+            Document ids = (Document) purged.getValue().getQueryObject().get("_id");
+            assertThat(ids.get("$in", List.class)).containsExactly("img-1");
+            assertThat(meterRegistry.counter("storage.reaper.objects.deleted", "collection", "image_files").count()).isEqualTo(1);
+            assertThat(meterRegistry.counter("storage.reaper.objects.failed", "collection", "image_files").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should keep documents unpurged when the multi-object delete call fails")
+        void reapOnce_shouldNotMarkPurged_whenDeleteCallFails() {
+            when(mongoTemplate.find(any(Query.class), eq(FileAttachment.class)))
+                    .thenReturn(List.of(fileAttachment("att-1", "https://bucket.s3.amazonaws.com/report.pdf")));
+            when(s3Service.extractKey("https://bucket.s3.amazonaws.com/report.pdf")).thenReturn("report.pdf");
+            when(s3Service.deleteObjects(List.of("report.pdf"))).thenThrow(new RuntimeException("S3 unavailable"));
+
+            storageReaperService.reapOnce(cutoff);
+
+            verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(FileAttachment.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cascade deletes")
+    class CascadeTests {
+
+        @Test
+        @DisplayName("should cascade a deleted test to its stacks and attachments with bulk updates")
+        void reapOnce_shouldCascadeDeletedTestToChildren() {
+            TestEntity test = new TestEntity();
+            test.setId("tst-1");
+            test.setDeletedAt(cutoff.minusSeconds(60));
+            when(mongoTemplate.find(any(Query.class), eq(TestEntity.class))).thenReturn(List.of(test));
+
+            BulkOperations bulkOperations = mock(BulkOperations.class);
+            BulkWriteResult bulkWriteResult = mock(BulkWriteResult.class);
+            when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), any(Class.class))).thenReturn(bulkOperations);
+            when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+            when(bulkWriteResult.getModifiedCount()).thenReturn(3);
+
+            storageReaperService.reapOnce(cutoff);
+
+            verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, ImageStack.class);
+            verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, FileAttachment.class);
+            verify(bulkOperations, times(2)).updateMulti(any(Query.class), any(Update.class));
+            verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(TestEntity.class));
+            assertThat(meterRegistry.counter("storage.reaper.documents.cascaded", "collection", "tests").count()).isEqualTo(6);
+        }
+    }
+
+    private ImageFile imageFile(String id, String url) {
+        ImageFile imageFile = new ImageFile();
+        imageFile.setId(id);
+        imageFile.setFileUrl(url);
+        return imageFile;
+    }
+
+    private FileAttachment fileAttachment(String id, String url) {
+        FileAttachment fileAttachment = new FileAttachment();
+        fileAttachment.setId(id);
+        fileAttachment.setFileUrl(url);
+        return fileAttachment;
+    }
+}
@@ -0,0 +1,157 @@
+package com.visor.test_microservice.service;
+
+import com.visor.test_microservice.entity.ImageStack;
+import com.visor.test_microservice.entity.TestEntity;
+import com.visor.test_microservice.repository.FileAttachmentRepository;
+import com.visor.test_microservice.repository.ImageFileRepository;
+import com.visor.test_microservice.repository.ImageStackRepository;
+import com.visor.test_microservice.repository.TestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TestServiceTest {
+
+    @Mock
+    private TestRepository testRepository;
+
+    @Mock
+    private ImageStackRepository imageStackRepository;
+
+    @Mock
+    private ImageFileRepository imageFileRepository;
+
+    @Mock
+    private FileAttachmentRepository fileAttachmentRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TestService testService;
+
+    @BeforeEach
+    void setUp() {
+        testService = new TestService(imageStackRepository, imageFileRepository, fileAttachmentRepository, meterRegistry);
+        ReflectionTestUtils.setField(testService, "testRepository", testRepository);
+    }
+
+    @Nested
+    @DisplayName("Delete test")
+    class DeleteTestEntityTests {
+
+        @Test
+        @DisplayName("should stamp the whole subtree with the same deletedAt using bulk updates")
+        void deleteTestEntity_shouldCascadeWithSameTimestamp() {
+            when(testRepository.markDeletedById(eq("tst-1"), any(Instant.class))).thenReturn(1L);
+            when(imageStackRepository.findIdsByTestIdAndDeletedAt(eq("tst-1"), any(Instant.class)))
+                    .thenReturn(List.of(imageStack("stk-1"), imageStack("stk-2")));
+
+            testService.deleteTestEntity("tst-1");
+
+            ArgumentCaptor<Instant> deletedAt = ArgumentCaptor.forClass(Instant.class);
+            InOrder inOrder = inOrder(testRepository, imageStackRepository, imageFileRepository);
+            inOrder.verify(testRepository).markDeletedById(eq("tst-1"), deletedAt.capture());
+            inOrder.verify(imageStackRepository).markDeletedByTestId("tst-1", deletedAt.getValue());
+            inOrder.verify(imageStackRepository).findIdsByTestIdAndDeletedAt("tst-1", deletedAt.getValue());
+            inOrder.verify(imageFileRepository).markDeletedByImageStackIdIn(List.of("stk-1", "stk-2"), deletedAt.getValue());
+            verify(fileAttachmentRepository).markDeletedByTestId("tst-1", deletedAt.getValue());
+            verify(imageStackRepository, never()).findByTestIdAndDeletedAtIsNull(anyString());
+            verify(testRepository, never()).save(any());
+            verify(imageStackRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should not touch children when the test is missing or already deleted")
+        void deleteTestEntity_shouldStop_whenTestNotActive() {
+            when(testRepository.markDeletedById(eq("tst-1"), any(Instant.class))).thenReturn(0L);
+
+            testService.deleteTestEntity("tst-1");
+
+            verify(imageStackRepository, never()).markDeletedByTestId(anyString(), any());
+            verify(fileAttachmentRepository, never()).markDeletedByTestId(anyString(), any());
+            verify(imageFileRepository, never()).markDeletedByImageStackIdIn(anyCollection(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Restore test")
+    class RestoreTestEntityTests {
+
+        @Test
+        @DisplayName("should restore only the children deleted together with the test")
+        void restoreTestEntity_shouldRestoreSubtreeByTimestamp() {
+            Instant deletedAt = Instant.parse("2025-04-09T12:34:56.789Z");
+            TestEntity deleted = new TestEntity();
+            deleted.setId("tst-1");
+            deleted.setDeletedAt(deletedAt);
+            TestEntity restored = new TestEntity();
+            restored.setId("tst-1");
+
+            when(testRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull("tst-1")).thenReturn(Optional.of(deleted));
+            when(testRepository.restoreById("tst-1", deletedAt)).thenReturn(1L);
+            when(imageStackRepository.findIdsByTestIdAndDeletedAt("tst-1", deletedAt)).thenReturn(List.of(imageStack("stk-1")));
+            when(testRepository.findByIdAndDeletedAtIsNull("tst-1")).thenReturn(Optional.of(restored));
+
+            Optional<TestEntity> result = testService.restoreTestEntity("tst-1");
+
+            assertThat(result).contains(restored);
+            verify(imageStackRepository).restoreByTestId("tst-1", deletedAt);
+            verify(fileAttachmentRepository).restoreByTestId("tst-1", deletedAt);
+            verify(imageFileRepository).restoreByImageStackIdIn(List.of("stk-1"), deletedAt);
+        }
+
+        @Test
+        @DisplayName("should return empty when the test is not deleted or already purged")
+        void restoreTestEntity_shouldReturnEmpty_whenNotRestorable() {
+            when(testRepository.findByIdAndDeletedAtIsNotNullAndPurgedAtIsNull("tst-1")).thenReturn(Optional.empty());
+
+            assertThat(testService.restoreTestEntity("tst-1")).isEmpty();
+            verify(testRepository, never()).restoreById(anyString(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get test by passcode")
+    class GetPatientTestByPasscodeTests {
+
+        @Test
+        @DisplayName("should time the DTO assembly, found or not")
+        void getPatientTestByPasscode_shouldRecordAssemblyTimer() {
+            TestEntity test = new TestEntity();
+            test.setId("tst-1");
+            test.setPassCode("ABC123");
+            when(testRepository.findByPassCodeAndDeletedAtIsNull("ABC123")).thenReturn(Optional.of(test));
+            when(testRepository.findByPassCodeAndDeletedAtIsNull("missing")).thenReturn(Optional.empty());
+
+            assertThat(testService.getPatientTestByPasscode("ABC123").getPassCode()).isEqualTo("ABC123");
+            assertThat(testService.getPatientTestByPasscode("missing")).isNull();
+
+            assertThat(meterRegistry.get("test.dto.assembly").tag("dto", "patient-test").timer().count()).isEqualTo(2);
+        }
+    }
+
+    private ImageStack imageStack(String id) {
+        ImageStack imageStack = new ImageStack();
+        imageStack.setId(id);
+        return imageStack;
+    }
+}